@@ -0,0 +1,93 @@
+package com.emobile.springtodo.admission;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounds concurrent database work without queueing: callers over the limit are turned away at once.
+ * The limit adapts to observed latency by additive increase and multiplicative decrease. A call slower
+ * than {@code latencyThreshold} shrinks the limit by 10%. A call that completes in time
+ * while at least half the limit was in use grows it by {@code 1 / limit}, i.e. by about one per limit's
+ * worth of completions.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double BACKOFF = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final ReentrantLock lock = new ReentrantLock();
+    private double estimate;
+    private volatile int limit;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, Duration latencyThreshold,
+                                      MeterRegistry meterRegistry) {
+        if (minLimit <= 0 || minLimit > maxLimit) {
+            throw new IllegalArgumentException("Concurrency limits must satisfy 0 < min <= max");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThreshold.toNanos();
+        this.estimate = Math.clamp(initialLimit, minLimit, maxLimit);
+        this.limit = (int) estimate;
+
+        Gauge.builder("admission.concurrency.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current adaptive limit of concurrent database calls")
+                .register(meterRegistry);
+        Gauge.builder("admission.concurrency.in-flight", this, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("Database calls currently admitted")
+                .register(meterRegistry);
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Returns a permit taken by {@link #tryAcquire()} and feeds the call's latency into the limit.
+     */
+    public void release(long latencyNanos) {
+        int active = inFlight.getAndDecrement();
+        lock.lock();
+        try {
+            if (latencyNanos > latencyThresholdNanos) {
+                estimate = Math.max(minLimit, estimate * BACKOFF);
+            } else if (active * 2 >= estimate) {
+                estimate = Math.min(maxLimit, estimate + 1 / estimate);
+            }
+            limit = (int) estimate;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns a permit taken by {@link #tryAcquire()} without adjusting the limit, for calls whose duration
+     * is expected to be long.
+     */
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,153 @@
+package com.emobile.springtodo.admission;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-client token buckets kept in local memory, keyed by a configurable request header or the remote
+ * address. Admission never waits on the network.
+ * <p>
+ * With a {@link StringRedisTemplate}, nodes share each client's budget: every {@link #synchronize()} adds
+ * the local usage to a per-client counter in Redis in one pipelined round trip, and charges what the other
+ * nodes used since the previous round to the local bucket. A client can overdraw by at most one sync
+ * interval's worth of requests per node.
+ */
+@Slf4j
+public class ClientRateLimiter {
+
+    private static final String KEY_PREFIX = "admission::";
+    private static final long USAGE_TTL_SECONDS = Duration.ofMinutes(10).toSeconds();
+
+    private final double requestsPerSecond;
+    private final int burst;
+    private final String clientHeader;
+    private final StringRedisTemplate redisTemplate;
+    private final Cache<String, Client> clients;
+
+    /**
+     * @param clientHeader  header identifying the client, or blank to use the remote address
+     * @param redisTemplate template to synchronize through, or {@code null} to keep budgets per node
+     */
+    public ClientRateLimiter(double requestsPerSecond,
+                             int burst,
+                             String clientHeader,
+                             long maxClients,
+                             Duration idleTimeout,
+                             StringRedisTemplate redisTemplate) {
+        this.requestsPerSecond = requestsPerSecond;
+        this.burst = burst;
+        this.clientHeader = clientHeader == null || clientHeader.isBlank() ? null : clientHeader;
+        this.redisTemplate = redisTemplate;
+        this.clients = Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterAccess(idleTimeout)
+                .build();
+    }
+
+    public String clientOf(HttpServletRequest request) {
+        if (clientHeader != null) {
+            String value = request.getHeader(clientHeader);
+            if (value != null && !value.isBlank()) {
+                // X-Forwarded-For lists the original client first
+                int comma = value.indexOf(',');
+                return (comma < 0 ? value : value.substring(0, comma)).trim();
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    /**
+     * Takes one request from the client's budget.
+     *
+     * @return {@code null} when admitted, otherwise how long the client should wait before retrying
+     */
+    public Duration tryAcquire(String client) {
+        long now = System.nanoTime();
+        Client state = clients.get(client, key -> new Client(new TokenBucket(burst, requestsPerSecond, now)));
+        long waitNanos = state.bucket.tryConsume(now);
+        if (waitNanos > 0) {
+            return Duration.ofNanos(waitNanos);
+        }
+        if (redisTemplate != null) {
+            state.unsynced.incrementAndGet();
+        }
+        return null;
+    }
+
+    @Scheduled(fixedDelayString = "${app.admission.rate-limit.redis-sync.interval}")
+    public void synchronize() {
+        if (redisTemplate == null) {
+            return;
+        }
+        List<String> names = new ArrayList<>();
+        List<Client> active = new ArrayList<>();
+        List<Long> used = new ArrayList<>();
+        clients.asMap().forEach((name, state) -> {
+            long count = state.unsynced.getAndSet(0);
+            if (count > 0) {
+                names.add(name);
+                active.add(state);
+                used.add(count);
+            }
+        });
+        if (active.isEmpty()) {
+            return;
+        }
+
+        List<Object> results;
+        try {
+            results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (int i = 0; i < names.size(); i++) {
+                    byte[] key = (KEY_PREFIX + names.get(i)).getBytes(StandardCharsets.UTF_8);
+                    connection.stringCommands().incrBy(key, used.get(i));
+                    connection.keyCommands().expire(key, USAGE_TTL_SECONDS);
+                }
+                return null;
+            });
+        } catch (RuntimeException e) {
+            // Budgets stay per node until Redis is back; the usage is reported with the next round
+            log.warn("Failed to synchronize rate limits of {} client(s): {}", active.size(), e.getMessage());
+            for (int i = 0; i < active.size(); i++) {
+                active.get(i).unsynced.addAndGet(used.get(i));
+            }
+            return;
+        }
+
+        long now = System.nanoTime();
+        for (int i = 0; i < active.size(); i++) {
+            Client state = active.get(i);
+            long total = ((Number) results.get(2 * i)).longValue();
+            long elsewhere = total - state.reportedTotal - used.get(i);
+            state.reportedTotal = total;
+            // The first round only learns the baseline; a negative delta means the counter expired
+            if (state.synchronizedBefore && elsewhere > 0) {
+                state.bucket.drain(elsewhere, now);
+            }
+            state.synchronizedBefore = true;
+        }
+    }
+
+    private static final class Client {
+
+        private final TokenBucket bucket;
+        private final AtomicLong unsynced = new AtomicLong();
+        // Only touched by the scheduled synchronization
+        private long reportedTotal;
+        private boolean synchronizedBefore;
+
+        private Client(TokenBucket bucket) {
+            this.bucket = bucket;
+        }
+    }
+}
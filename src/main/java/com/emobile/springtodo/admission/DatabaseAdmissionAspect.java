@@ -0,0 +1,121 @@
+package com.emobile.springtodo.admission;
+
+import com.emobile.springtodo.exception.OverloadedException;
+import com.emobile.springtodo.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+
+/**
+ * Admission control at the point where a request needs the database, i.e. on {@code TodoRepository}
+ * calls and on methods marked {@link DatabaseWork} that use JDBC directly, such as export, import and
+ * the stats queries. Reads served from the caches never get here and are never limited.
+ * <p>
+ * The first repository call of a request takes one token from the client's bucket ({@code 429} when
+ * empty). Every top-level call also needs a permit from the concurrency limiter ({@code 503} when it is
+ * full). Both answer at once with {@code Retry-After}, rather than letting requests queue for a pool
+ * connection. Calls outside an HTTP request, such as scheduled jobs, only count against the concurrency limit.
+ * Bulk work holds its permit throughout but is left out of the latency the limit adapts to. The aspect runs
+ * ahead of transaction advice, so a rejected call never takes a connection.
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class DatabaseAdmissionAspect {
+
+    private static final String CHARGED_ATTRIBUTE = DatabaseAdmissionAspect.class.getName() + ".charged";
+    private static final ThreadLocal<Boolean> ADMITTED = new ThreadLocal<>();
+
+    private final ClientRateLimiter rateLimiter;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final Duration overloadRetryAfter;
+    private final Counter rateLimited;
+    private final Counter shed;
+
+    /**
+     * @param rateLimiter        per-client limiter, or {@code null} to admit every client
+     * @param concurrencyLimiter concurrency limiter, or {@code null} for no limit
+     */
+    public DatabaseAdmissionAspect(ClientRateLimiter rateLimiter,
+                                   AdaptiveConcurrencyLimiter concurrencyLimiter,
+                                   Duration overloadRetryAfter,
+                                   MeterRegistry meterRegistry) {
+        this.rateLimiter = rateLimiter;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.overloadRetryAfter = overloadRetryAfter;
+        this.rateLimited = rejections(meterRegistry, "rate-limit");
+        this.shed = rejections(meterRegistry, "concurrency");
+    }
+
+    @Around("target(com.emobile.springtodo.repository.TodoRepository)")
+    public Object admit(ProceedingJoinPoint joinPoint) throws Throwable {
+        return admit(joinPoint, false);
+    }
+
+    @Around("@annotation(com.emobile.springtodo.admission.DatabaseWork)")
+    public Object admitWork(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = AopUtils.getMostSpecificMethod(
+                ((MethodSignature) joinPoint.getSignature()).getMethod(), joinPoint.getTarget().getClass());
+        DatabaseWork work = AnnotationUtils.findAnnotation(method, DatabaseWork.class);
+        return admit(joinPoint, work != null && work.bulk());
+    }
+
+    private Object admit(ProceedingJoinPoint joinPoint, boolean bulk) throws Throwable {
+        if (ADMITTED.get() != null) {
+            return joinPoint.proceed();
+        }
+        chargeClient();
+        if (concurrencyLimiter == null) {
+            return joinPoint.proceed();
+        }
+        if (!concurrencyLimiter.tryAcquire()) {
+            shed.increment();
+            throw new OverloadedException("Too many concurrent database requests", overloadRetryAfter);
+        }
+        ADMITTED.set(Boolean.TRUE);
+        long start = System.nanoTime();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            ADMITTED.remove();
+            if (bulk) {
+                concurrencyLimiter.release();
+            } else {
+                concurrencyLimiter.release(System.nanoTime() - start);
+            }
+        }
+    }
+
+    private void chargeClient() {
+        if (rateLimiter == null
+                || !(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)
+                || attributes.getAttribute(CHARGED_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) != null) {
+            return;
+        }
+        attributes.setAttribute(CHARGED_ATTRIBUTE, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+        Duration retryAfter = rateLimiter.tryAcquire(rateLimiter.clientOf(attributes.getRequest()));
+        if (retryAfter != null) {
+            rateLimited.increment();
+            throw new TooManyRequestsException("Request rate limit exceeded", retryAfter);
+        }
+    }
+
+    private static Counter rejections(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("admission.rejected")
+                .description("Requests turned away before reaching the database")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
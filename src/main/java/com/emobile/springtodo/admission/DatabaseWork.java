@@ -0,0 +1,24 @@
+package com.emobile.springtodo.admission;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a method that reaches the database without going through {@code TodoRepository}, or that opens a
+ * transaction before its first repository call, so that {@link DatabaseAdmissionAspect} admits it like a
+ * repository call before a connection is taken.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface DatabaseWork {
+
+    /**
+     * Long-running work, such as an export or import. It still needs a permit, but its duration says
+     * nothing about the health of the database and is kept out of the adaptive limit.
+     */
+    boolean bulk() default false;
+}
@@ -0,0 +1,56 @@
+package com.emobile.springtodo.admission;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Token bucket refilled continuously from the elapsed time, so nothing has to tick in the background.
+ * The balance may go negative when usage elsewhere is {@linkplain #drain(long, long) charged} to it, which
+ * makes the client wait that usage off before it is admitted again.
+ */
+final class TokenBucket {
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private final ReentrantLock lock = new ReentrantLock();
+    private double tokens;
+    private long refilledAt;
+
+    TokenBucket(double capacity, double tokensPerSecond, long nowNanos) {
+        this.capacity = capacity;
+        this.tokensPerNano = tokensPerSecond / 1_000_000_000d;
+        this.tokens = capacity;
+        this.refilledAt = nowNanos;
+    }
+
+    /**
+     * Takes one token. Returns zero when it was available, otherwise the nanoseconds until it will be.
+     */
+    long tryConsume(long nowNanos) {
+        lock.lock();
+        try {
+            refill(nowNanos);
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - tokens) / tokensPerNano);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void drain(long count, long nowNanos) {
+        lock.lock();
+        try {
+            refill(nowNanos);
+            tokens = Math.max(-capacity, tokens - count);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void refill(long nowNanos) {
+        tokens = Math.min(capacity, tokens + (nowNanos - refilledAt) * tokensPerNano);
+        refilledAt = nowNanos;
+    }
+}
@@ -0,0 +1,132 @@
+package com.emobile.springtodo.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Per-cache generation counters kept in Redis. Embedding the generation into cache keys
+ * turns "invalidate every page" into a single INCR; pages of older generations are never
+ * read again and expire through the regular TTL.
+ * <p>
+ * A counter that is missing, because Redis restarted, was flushed or failed over without it, is seeded from
+ * the Redis clock in microseconds rather than restarted at 1. Generations therefore never go backwards: nodes
+ * holding an older, higher snapshot keep following bumps, and keys and ETags of earlier generations are not
+ * reused.
+ */
+@Slf4j
+public class CacheGenerations implements MessageListener {
+
+    private static final String KEY_PREFIX = "cache-generation::";
+    private static final String SEPARATOR = "\t";
+    // ARGV[1] is the increment: 0 to read, 1 to bump. Reactive nodes bump through it too
+    static final RedisScript<Long> GENERATION_SCRIPT = RedisScript.of("""
+            if redis.call('EXISTS', KEYS[1]) == 0 then
+                local time = redis.call('TIME')
+                redis.call('SET', KEYS[1], time[1] .. string.format('%06d', tonumber(time[2])))
+            end
+            return redis.call('INCRBY', KEYS[1], ARGV[1])
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final String channel;
+    private final long refreshIntervalNanos;
+    private final ConcurrentMap<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+    private final List<Runnable> advanceListeners = new CopyOnWriteArrayList<>();
+
+    public CacheGenerations(StringRedisTemplate redisTemplate, String channel, Duration refreshInterval) {
+        this.redisTemplate = redisTemplate;
+        this.channel = channel;
+        this.refreshIntervalNanos = refreshInterval.toNanos();
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+
+    /**
+     * Runs the listener whenever a generation moves forward on this node: on a local bump, on a peer's
+     * announcement or on a refresh that finds a newer value. Every todo write bumps the list generation, so
+     * this is how a node learns that data changed elsewhere.
+     */
+    public void addAdvanceListener(Runnable listener) {
+        advanceListeners.add(listener);
+    }
+
+    public long current(String cacheName) {
+        Snapshot snapshot = snapshots.get(cacheName);
+        long now = System.nanoTime();
+        if (snapshot != null && now - snapshot.readAtNanos() < refreshIntervalNanos) {
+            return snapshot.generation();
+        }
+        try {
+            return remember(cacheName, generation(cacheName, 0), now);
+        } catch (RuntimeException e) {
+            log.warn("Failed to read generation of cache {}: {}", cacheName, e.getMessage());
+            return snapshot == null ? 0L : snapshot.generation();
+        }
+    }
+
+    public long bump(String cacheName) {
+        long generation = remember(cacheName, generation(cacheName, 1), System.nanoTime());
+        try {
+            redisTemplate.convertAndSend(channel, message(cacheName, generation));
+        } catch (RuntimeException e) {
+            log.warn("Failed to publish generation {} of cache {}: {}", generation, cacheName, e.getMessage());
+        }
+        return generation;
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split(SEPARATOR, 2);
+        if (parts.length != 2) {
+            return;
+        }
+        try {
+            remember(parts[0], Long.parseLong(parts[1]), System.nanoTime());
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed generation of cache {}: {}", parts[0], parts[1]);
+        }
+    }
+
+    private long generation(String cacheName, int increment) {
+        Long generation = redisTemplate.execute(GENERATION_SCRIPT, List.of(key(cacheName)), String.valueOf(increment));
+        return generation == null ? 0L : generation;
+    }
+
+    static String key(String cacheName) {
+        return KEY_PREFIX + cacheName;
+    }
+
+    static String message(String cacheName, long generation) {
+        return cacheName + SEPARATOR + generation;
+    }
+
+    private long remember(String cacheName, long generation, long readAtNanos) {
+        boolean[] advanced = new boolean[1];
+        long remembered = snapshots.merge(cacheName, new Snapshot(generation, readAtNanos),
+                (previous, next) -> {
+                    advanced[0] = next.generation() > previous.generation();
+                    return next.generation() >= previous.generation()
+                            ? next
+                            : new Snapshot(previous.generation(), next.readAtNanos());
+                })
+                .generation();
+        if (advanced[0]) {
+            advanceListeners.forEach(Runnable::run);
+        }
+        return remembered;
+    }
+
+    private record Snapshot(long generation, long readAtNanos) {}
+}
@@ -0,0 +1,43 @@
+package com.emobile.springtodo.cache;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.UUID;
+
+@Slf4j
+public class CacheInvalidationPublisher {
+
+    @Getter
+    private final String nodeId = UUID.randomUUID().toString();
+    @Getter
+    private final String channel;
+    private final StringRedisTemplate redisTemplate;
+
+    public CacheInvalidationPublisher(StringRedisTemplate redisTemplate, String channel) {
+        this.redisTemplate = redisTemplate;
+        this.channel = channel;
+    }
+
+    public void publishEvict(String cacheName, String key) {
+        publish(CacheInvalidationMessage.evict(nodeId, cacheName, key));
+    }
+
+    public void publishClear(String cacheName) {
+        publish(CacheInvalidationMessage.clear(nodeId, cacheName));
+    }
+
+    public boolean isOwn(CacheInvalidationMessage message) {
+        return nodeId.equals(message.origin());
+    }
+
+    private void publish(CacheInvalidationMessage message) {
+        try {
+            redisTemplate.convertAndSend(channel, message.encode());
+        } catch (RuntimeException e) {
+            // Peers fall back to the local TTL when the broadcast is lost
+            log.warn("Failed to publish cache invalidation {}: {}", message, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.emobile.springtodo.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Cross-node side of cache-miss coalescing, kept in Redis next to the cached entries. Hands out a short
+ * lease per key, so that after an invalidation one node loads each key while the others wait for it to
+ * appear in the shared tier.
+ * <p>
+ * Failures degrade to every node loading for itself, as before.
+ */
+@Slf4j
+public class CacheLoadCoordinator {
+
+    private static final String LOCK_PREFIX = "cache-load-lock::";
+    // Only the holder may release; a lease that ran out may already belong to another node
+    private static final RedisScript<Long> UNLOCK_SCRIPT = RedisScript.of("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+                return redis.call('DEL', KEYS[1])
+            end
+            return 0
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final Duration lease;
+
+    public CacheLoadCoordinator(StringRedisTemplate redisTemplate, Duration lease) {
+        this.redisTemplate = redisTemplate;
+        this.lease = lease;
+    }
+
+    /**
+     * Tries to become the node that loads the key.
+     *
+     * @return a token for {@link #unlock}, or {@code null} while another node holds the lease
+     */
+    public String tryLock(String cacheName, String key) {
+        String token = UUID.randomUUID().toString();
+        try {
+            Boolean acquired = redisTemplate.opsForValue().setIfAbsent(lockKey(cacheName, key), token, lease);
+            return Boolean.FALSE.equals(acquired) ? null : token;
+        } catch (RuntimeException e) {
+            log.warn("Failed to take load lease for {} in cache {}: {}", key, cacheName, e.getMessage());
+            return token;
+        }
+    }
+
+    public void unlock(String cacheName, String key, String token) {
+        try {
+            redisTemplate.execute(UNLOCK_SCRIPT, List.of(lockKey(cacheName, key)), token);
+        } catch (RuntimeException e) {
+            // The lease runs out on its own
+            log.warn("Failed to release load lease for {} in cache {}: {}", key, cacheName, e.getMessage());
+        }
+    }
+
+    private static String lockKey(String cacheName, String key) {
+        return LOCK_PREFIX + cacheName + "::" + key;
+    }
+}
@@ -0,0 +1,122 @@
+package com.emobile.springtodo.cache;
+
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.connection.RedisStringCommands.SetOption;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.util.ByteUtils;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Multi-key access to a {@link RedisCache} in one round trip: a single MGET for lookups, one pipeline of GET
+ * and PTTL pairs for lookups that need expiries, and one pipeline of SETs for stores. Keys, values and TTLs
+ * go through the cache's own configuration, so entries are interchangeable with the ones {@link RedisCache}
+ * reads and writes one at a time.
+ */
+public class RedisCacheBatch {
+
+    private final StringRedisTemplate redisTemplate;
+
+    public RedisCacheBatch(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    /**
+     * Returns the store values of the keys present in the cache; absent keys are left out.
+     */
+    public Map<Object, Object> getAll(RedisCache cache, List<?> keys) {
+        byte[][] rawKeys = keys.stream().map(key -> rawKey(cache, key)).toArray(byte[][]::new);
+        List<byte[]> rawValues = redisTemplate.execute(
+                (RedisCallback<List<byte[]>>) connection -> connection.stringCommands().mGet(rawKeys));
+        Map<Object, Object> found = new HashMap<>();
+        if (rawValues == null) {
+            return found;
+        }
+        RedisCacheConfiguration configuration = cache.getCacheConfiguration();
+        for (int i = 0; i < keys.size(); i++) {
+            byte[] rawValue = rawValues.get(i);
+            if (rawValue != null) {
+                found.put(keys.get(i), configuration.getValueSerializationPair().read(ByteBuffer.wrap(rawValue)));
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Returns the store values of the keys present in the cache together with the time they have left;
+     * absent keys are left out.
+     */
+    public Map<Object, Entry> getAllWithTtl(RedisCache cache, List<?> keys) {
+        byte[][] rawKeys = keys.stream().map(key -> rawKey(cache, key)).toArray(byte[][]::new);
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (byte[] rawKey : rawKeys) {
+                connection.stringCommands().get(rawKey);
+                connection.keyCommands().pTtl(rawKey);
+            }
+            return null;
+        }, RedisSerializer.byteArray());
+        RedisCacheConfiguration configuration = cache.getCacheConfiguration();
+        Map<Object, Entry> found = new HashMap<>();
+        for (int i = 0; i < keys.size(); i++) {
+            if (results.get(2 * i) instanceof byte[] rawValue) {
+                Object storeValue = configuration.getValueSerializationPair().read(ByteBuffer.wrap(rawValue));
+                long ttlMillis = results.get(2 * i + 1) instanceof Long ttl ? ttl : -1;
+                found.put(keys.get(i), new Entry(storeValue, ttlMillis));
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Stores the given store values unless their keys exist already, e.g. written by a concurrent update
+     * while they were loaded, and returns the keys that were stored.
+     */
+    public List<Object> putAllIfAbsent(RedisCache cache, Map<?, ?> storeValues) {
+        RedisCacheConfiguration configuration = cache.getCacheConfiguration();
+        List<Object> keys = new ArrayList<>(storeValues.keySet());
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (Object key : keys) {
+                Object storeValue = storeValues.get(key);
+                Duration ttl = configuration.getTtlFunction().getTimeToLive(key, storeValue);
+                connection.stringCommands().set(rawKey(cache, key),
+                        ByteUtils.getBytes(configuration.getValueSerializationPair().write(storeValue)),
+                        ttl.isZero() || ttl.isNegative() ? Expiration.persistent() : Expiration.from(ttl),
+                        SetOption.ifAbsent());
+            }
+            return null;
+        });
+        List<Object> stored = new ArrayList<>();
+        for (int i = 0; i < keys.size(); i++) {
+            if (Boolean.TRUE.equals(results.get(i))) {
+                stored.add(keys.get(i));
+            }
+        }
+        return stored;
+    }
+
+    /**
+     * A cached store value and the milliseconds until it expires, negative when it does not.
+     */
+    public record Entry(Object storeValue, long ttlMillis) {
+    }
+
+    private static byte[] rawKey(RedisCache cache, Object key) {
+        RedisCacheConfiguration configuration = cache.getCacheConfiguration();
+        String cacheKey = configuration.getConversionService().canConvert(key.getClass(), String.class)
+                ? configuration.getConversionService().convert(key, String.class)
+                : String.valueOf(key);
+        if (configuration.usePrefix()) {
+            cacheKey = configuration.getKeyPrefixFor(cache.getName()) + cacheKey;
+        }
+        return ByteUtils.getBytes(configuration.getKeySerializationPair().write(cacheKey));
+    }
+}
@@ -0,0 +1,160 @@
+package com.emobile.springtodo.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Locale;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Caches final UTF-8 JSON response bodies, so a hit is written to the socket without mapping
+ * or serializing anything. Bodies of at least {@code gzipThreshold} bytes are stored gzip-compressed
+ * and sent as is to clients that accept gzip; other clients get them inflated on the fly.
+ */
+public class ResponseBodyCache {
+
+    private static final int GZIP_MAGIC_FIRST = 0x1f;
+    private static final int GZIP_MAGIC_SECOND = 0x8b;
+
+    private final CacheManager cacheManager;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final int gzipThreshold;
+
+    public ResponseBodyCache(CacheManager cacheManager, ObjectMapper objectMapper, boolean enabled, int gzipThreshold) {
+        this.cacheManager = cacheManager;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.gzipThreshold = gzipThreshold;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Writes the cached body for the key, loading and serializing it on a miss.
+     * Exceptions thrown by the loader propagate unchanged.
+     */
+    public void write(String cacheName, Object key, Supplier<?> loader, String acceptEncoding,
+                      HttpServletResponse response) {
+        byte[] body;
+        try {
+            body = cache(cacheName).get(key, () -> encode(loader.get()));
+        } catch (Cache.ValueRetrievalException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        try {
+            if (isGzip(body) && !acceptsGzip(acceptEncoding)) {
+                body = inflate(body);
+            } else if (isGzip(body)) {
+                response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+                // The gzip bytes differ from the identity ones, so a strong validator would be wrong here
+                String etag = response.getHeader(HttpHeaders.ETAG);
+                if (etag != null && etag.startsWith("\"")) {
+                    response.setHeader(HttpHeaders.ETAG, "W/" + etag);
+                }
+            }
+            response.setContentLength(body.length);
+            response.getOutputStream().write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void evict(String cacheName, Object key) {
+        cache(cacheName).evict(key);
+    }
+
+    /**
+     * Whether an {@code Accept-Encoding} header admits gzip: a gzip entry, or otherwise {@code *}, with a
+     * non-zero q-value. {@code gzip;q=0} is an explicit refusal.
+     */
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        double gzip = -1;
+        double any = -1;
+        for (String element : acceptEncoding.split(",")) {
+            String[] parts = element.split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzip = Math.max(gzip, quality(parts));
+            } else if (coding.equals("*")) {
+                any = Math.max(any, quality(parts));
+            }
+        }
+        return (gzip >= 0 ? gzip : any) > 0;
+    }
+
+    private static double quality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.length() > 2 && (parameter.charAt(0) == 'q' || parameter.charAt(0) == 'Q')
+                    && parameter.charAt(1) == '=') {
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    private Cache cache(String cacheName) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null) {
+            throw new IllegalStateException("No cache configured for name: " + cacheName);
+        }
+        return cache;
+    }
+
+    private byte[] encode(Object value) {
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize response body", e);
+        }
+        if (json.length < gzipThreshold) {
+            return json;
+        }
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(json.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+
+    private static boolean isGzip(byte[] body) {
+        // A JSON body never starts with 0x1f, so the gzip magic tells the two kinds of entries apart
+        return body.length > 1 && (body[0] & 0xFF) == GZIP_MAGIC_FIRST && (body[1] & 0xFF) == GZIP_MAGIC_SECOND;
+    }
+
+    private static byte[] inflate(byte[] body) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return in.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,396 @@
+package com.emobile.springtodo.cache;
+
+import com.emobile.springtodo.dto.response.TodoResponse;
+import com.emobile.springtodo.dto.response.TodoSliceResponse;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Binary cache value codec for {@link TodoResponse}, lists of them and {@link TodoSliceResponse}.
+ *
+ * <pre>
+ * version:u8 type:u8 flags:u8 [uncompressedLength:varint] payload
+ * todo    := id:varlong title:str description:str completed:u8 createdAt:time updatedAt:time
+ * list    := size:varint todo*
+ * slice   := list nextCursor:str hasNext:u8
+ * bytes   := raw bytes (pre-serialized response bodies)
+ * str     := 0 (null) | (byteLength + 1):varint utf8
+ * time    := 0 (null) | 1 epochSecond:zigzag-varlong nano:varint   (LocalDateTime at UTC)
+ * </pre>
+ * Values of other types are written with JDK serialization under the {@code JDK} type, and
+ * entries that do not start with the version byte are read as legacy JDK-serialized values.
+ */
+public class TodoRedisSerializer implements RedisSerializer<Object> {
+
+    static final byte VERSION = 1;
+
+    private static final byte TYPE_TODO = 1;
+    private static final byte TYPE_LIST = 2;
+    private static final byte TYPE_SLICE = 3;
+    private static final byte TYPE_BYTES = 4;
+    private static final byte TYPE_JDK = 0x7F;
+
+    private static final byte FLAG_LZ4 = 1;
+    private static final int HEADER_SIZE = 3;
+    private static final int[] POWERS_OF_TEN = {1, 10, 100, 1_000, 10_000, 100_000, 1_000_000, 10_000_000, 100_000_000};
+
+    private final JdkSerializationRedisSerializer jdkSerializer = new JdkSerializationRedisSerializer();
+    private final LZ4Compressor compressor = LZ4Factory.fastestInstance().fastCompressor();
+    private final LZ4FastDecompressor decompressor = LZ4Factory.fastestInstance().fastDecompressor();
+    private final int compressionThreshold;
+
+    private final DistributionSummary entrySize;
+    private final DistributionSummary baselineEntrySize;
+    private final int baselineSampleRate;
+    private final AtomicLong writes = new AtomicLong();
+
+    public TodoRedisSerializer(int compressionThreshold, MeterRegistry meterRegistry, int baselineSampleRate) {
+        this.compressionThreshold = compressionThreshold;
+        this.baselineSampleRate = baselineSampleRate;
+        this.entrySize = entrySizeSummary(meterRegistry, "binary");
+        this.baselineEntrySize = entrySizeSummary(meterRegistry, "jdk");
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return new byte[0];
+        }
+        Output out = new Output();
+        byte type;
+        if (value instanceof TodoResponse todo) {
+            type = TYPE_TODO;
+            writeTodo(out, todo);
+        } else if (value instanceof TodoSliceResponse slice && isTodoList(slice.content())) {
+            type = TYPE_SLICE;
+            writeList(out, slice.content());
+            out.writeString(slice.nextCursor());
+            out.writeBoolean(slice.hasNext());
+        } else if (value instanceof List<?> list && isTodoList(list)) {
+            type = TYPE_LIST;
+            writeList(out, list);
+        } else if (value instanceof byte[] bytes) {
+            type = TYPE_BYTES;
+            out.writeBytes(bytes);
+        } else {
+            type = TYPE_JDK;
+            out.writeBytes(jdkSerializer.serialize(value));
+        }
+
+        byte[] encoded = frame(type, out);
+        record(value, encoded);
+        return encoded;
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] != VERSION) {
+            return jdkSerializer.deserialize(bytes);
+        }
+        if (bytes.length < HEADER_SIZE) {
+            throw new SerializationException("Truncated cache entry of " + bytes.length + " bytes");
+        }
+        byte type = bytes[1];
+        byte flags = bytes[2];
+        Input in = new Input(bytes, HEADER_SIZE);
+        if ((flags & FLAG_LZ4) != 0) {
+            int length = in.readVarInt();
+            byte[] payload = decompressor.decompress(bytes, in.position, length);
+            in = new Input(payload, 0);
+        }
+        try {
+            return switch (type) {
+                case TYPE_TODO -> readTodo(in);
+                case TYPE_LIST -> readList(in);
+                case TYPE_SLICE -> new TodoSliceResponse(readList(in), in.readString(), in.readBoolean());
+                case TYPE_BYTES -> in.remaining();
+                case TYPE_JDK -> jdkSerializer.deserialize(in.remaining());
+                default -> throw new SerializationException("Unknown cache entry type: " + type);
+            };
+        } catch (IndexOutOfBoundsException e) {
+            throw new SerializationException("Truncated cache entry", e);
+        }
+    }
+
+    private byte[] frame(byte type, Output payload) {
+        if (type != TYPE_JDK && payload.size() >= compressionThreshold) {
+            byte[] raw = payload.toByteArray();
+            byte[] compressed = new byte[compressor.maxCompressedLength(raw.length)];
+            int compressedLength = compressor.compress(raw, 0, raw.length, compressed, 0, compressed.length);
+            if (compressedLength < raw.length) {
+                Output framed = new Output();
+                framed.write(VERSION);
+                framed.write(type);
+                framed.write(FLAG_LZ4);
+                framed.writeVarInt(raw.length);
+                framed.write(compressed, 0, compressedLength);
+                return framed.toByteArray();
+            }
+        }
+        Output framed = new Output();
+        framed.write(VERSION);
+        framed.write(type);
+        framed.write(0);
+        framed.write(payload.buffer(), 0, payload.size());
+        return framed.toByteArray();
+    }
+
+    private void record(Object value, byte[] encoded) {
+        entrySize.record(encoded.length);
+        if (baselineSampleRate > 0 && writes.incrementAndGet() % baselineSampleRate == 0) {
+            baselineEntrySize.record(jdkSerializer.serialize(value).length);
+        }
+    }
+
+    private static boolean isTodoList(List<?> list) {
+        for (Object element : list) {
+            if (!(element instanceof TodoResponse)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void writeList(Output out, List<?> todos) {
+        out.writeVarInt(todos.size());
+        for (Object todo : todos) {
+            writeTodo(out, (TodoResponse) todo);
+        }
+    }
+
+    private static List<TodoResponse> readList(Input in) {
+        int size = in.readVarInt();
+        List<TodoResponse> todos = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            todos.add(readTodo(in));
+        }
+        return Collections.unmodifiableList(todos);
+    }
+
+    private static void writeTodo(Output out, TodoResponse todo) {
+        out.writeVarLong(todo.id() == null ? 0 : todo.id() + 1);
+        out.writeString(todo.title());
+        out.writeString(todo.description());
+        out.writeBoolean(todo.completed());
+        out.writeTime(todo.createdAt());
+        out.writeTime(todo.updatedAt());
+    }
+
+    private static TodoResponse readTodo(Input in) {
+        long id = in.readVarLong();
+        return new TodoResponse(
+                id == 0 ? null : id - 1,
+                in.readString(),
+                in.readString(),
+                in.readBoolean(),
+                in.readTime(),
+                in.readTime());
+    }
+
+    /**
+     * Fast path for the {@code LocalDateTime.toString()} shapes produced by {@code TodoMapper};
+     * anything else goes through the regular ISO parser.
+     */
+    static LocalDateTime parseTime(String value) {
+        int length = value.length();
+        if (length < 16 || value.charAt(4) != '-' || value.charAt(7) != '-'
+                || value.charAt(10) != 'T' || value.charAt(13) != ':') {
+            return LocalDateTime.parse(value);
+        }
+        int year = digits(value, 0, 4);
+        int month = digits(value, 5, 7);
+        int day = digits(value, 8, 10);
+        int hour = digits(value, 11, 13);
+        int minute = digits(value, 14, 16);
+        int second = 0;
+        int nano = 0;
+        if (length > 16) {
+            second = length >= 19 && value.charAt(16) == ':' ? digits(value, 17, 19) : -1;
+            if (length > 19) {
+                int fractionDigits = length - 20;
+                nano = value.charAt(19) == '.' && fractionDigits >= 1 && fractionDigits <= 9
+                        ? digits(value, 20, length) * POWERS_OF_TEN[9 - fractionDigits]
+                        : -1;
+            }
+        }
+        if ((year | month | day | hour | minute | second | nano) < 0) {
+            return LocalDateTime.parse(value);
+        }
+        return LocalDateTime.of(year, month, day, hour, minute, second, nano);
+    }
+
+    private static int digits(String value, int from, int to) {
+        int result = 0;
+        for (int i = from; i < to; i++) {
+            int digit = value.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            result = result * 10 + digit;
+        }
+        return result;
+    }
+
+    private static DistributionSummary entrySizeSummary(MeterRegistry meterRegistry, String codec) {
+        return DistributionSummary.builder("cache.codec.entry.size")
+                .description("Encoded size of cache values; the jdk codec is a sampled baseline")
+                .baseUnit("bytes")
+                .tag("codec", codec)
+                .register(meterRegistry);
+    }
+
+    private static final class Output {
+
+        private byte[] buf = new byte[256];
+        private int count;
+
+        private int size() {
+            return count;
+        }
+
+        private byte[] buffer() {
+            return buf;
+        }
+
+        private byte[] toByteArray() {
+            return Arrays.copyOf(buf, count);
+        }
+
+        private void write(int b) {
+            ensureCapacity(1);
+            buf[count++] = (byte) b;
+        }
+
+        private void write(byte[] bytes, int offset, int length) {
+            ensureCapacity(length);
+            System.arraycopy(bytes, offset, buf, count, length);
+            count += length;
+        }
+
+        private void writeBytes(byte[] bytes) {
+            write(bytes, 0, bytes.length);
+        }
+
+        private void ensureCapacity(int extra) {
+            if (count + extra > buf.length) {
+                buf = Arrays.copyOf(buf, Math.max(buf.length << 1, count + extra));
+            }
+        }
+
+        private void writeVarLong(long value) {
+            while ((value & ~0x7FL) != 0) {
+                write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            write((int) value);
+        }
+
+        private void writeVarInt(int value) {
+            writeVarLong(value & 0xFFFFFFFFL);
+        }
+
+        private void writeBoolean(boolean value) {
+            write(value ? 1 : 0);
+        }
+
+        private void writeString(String value) {
+            if (value == null) {
+                writeVarInt(0);
+                return;
+            }
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(utf8.length + 1);
+            write(utf8, 0, utf8.length);
+        }
+
+        private void writeTime(String value) {
+            if (value == null) {
+                write(0);
+                return;
+            }
+            LocalDateTime time = parseTime(value);
+            write(1);
+            long seconds = time.toEpochSecond(ZoneOffset.UTC);
+            writeVarLong((seconds << 1) ^ (seconds >> 63));
+            writeVarInt(time.getNano());
+        }
+    }
+
+    private static final class Input {
+
+        private final byte[] bytes;
+        private int position;
+
+        private Input(byte[] bytes, int position) {
+            this.bytes = bytes;
+            this.position = position;
+        }
+
+        private long readVarLong() {
+            long result = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = bytes[position++];
+                result |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return result;
+                }
+            }
+            throw new SerializationException("Malformed varint in cache entry");
+        }
+
+        private int readVarInt() {
+            return (int) readVarLong();
+        }
+
+        private boolean readBoolean() {
+            return bytes[position++] != 0;
+        }
+
+        private String readString() {
+            int length = readVarInt();
+            if (length == 0) {
+                return null;
+            }
+            if (position + length - 1 > bytes.length) {
+                throw new IndexOutOfBoundsException(position + length - 1);
+            }
+            String value = new String(bytes, position, length - 1, StandardCharsets.UTF_8);
+            position += length - 1;
+            return value;
+        }
+
+        private String readTime() {
+            if (bytes[position++] == 0) {
+                return null;
+            }
+            long zigzag = readVarLong();
+            long seconds = (zigzag >>> 1) ^ -(zigzag & 1);
+            int nano = readVarInt();
+            return LocalDateTime.ofEpochSecond(seconds, nano, ZoneOffset.UTC).toString();
+        }
+
+        private byte[] remaining() {
+            byte[] rest = new byte[bytes.length - position];
+            System.arraycopy(bytes, position, rest, 0, rest.length);
+            return rest;
+        }
+    }
+}
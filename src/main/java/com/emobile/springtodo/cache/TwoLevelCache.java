@@ -0,0 +1,464 @@
+package com.emobile.springtodo.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+import org.springframework.data.redis.cache.RedisCache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process Caffeine cache (L1) in front of a shared cache (L2, Redis in production).
+ * Writes go to both tiers and are broadcast so that peers drop their L1 copy.
+ * <p>
+ * {@link #get(Object, Callable)} coalesces misses: per key, one caller reads the shared tier and, if needed,
+ * runs the loader, while concurrent callers wait for its result. With a {@link CacheLoadCoordinator} and a
+ * lock wait, a lease in Redis extends this across nodes. With an early refresh beta, entries are reloaded
+ * shortly before the shared copy expires, with a probability that grows as expiry nears and with the
+ * observed load time (XFetch); the other callers keep getting the current value meanwhile. The expiry of
+ * a copy this node wrote follows from the cache's TTL; that of a copy read from Redis comes back with it,
+ * from a PTTL pipelined with the GET through the {@link RedisCacheBatch}.
+ * <p>
+ * {@link #getAll} and {@link #putAllIfAbsent} serve multi-key reads with one round trip to the shared tier
+ * when a {@link RedisCacheBatch} is given, and one per key otherwise.
+ */
+@Slf4j
+public class TwoLevelCache extends AbstractValueAdaptingCache {
+
+    private static final long PEER_POLL_MILLIS = 20;
+    private static final long NO_EXPIRY = Long.MAX_VALUE;
+
+    private final String name;
+    private final Cache<String, Object> local;
+    private final org.springframework.cache.Cache remote;
+    private final CacheInvalidationPublisher publisher;
+    private final CacheLoadCoordinator coordinator;
+    private final RedisCacheBatch batch;
+    private final long lockWaitNanos;
+    private final double earlyRefreshBeta;
+    private final ConcurrentMap<String, CompletableFuture<Object>> loads = new ConcurrentHashMap<>();
+    private final AtomicLong averageLoadNanos = new AtomicLong();
+
+    private final Counter localHits;
+    private final Counter localMisses;
+    private final Counter remoteHits;
+    private final Counter remoteMisses;
+    private final Counter loaded;
+    private final Counter coalesced;
+    private final Counter loadedByPeer;
+    private final Counter refreshedEarly;
+
+    public TwoLevelCache(String name,
+                         Cache<String, Object> local,
+                         org.springframework.cache.Cache remote,
+                         CacheInvalidationPublisher publisher,
+                         MeterRegistry meterRegistry) {
+        this(name, local, remote, publisher, meterRegistry, null, Duration.ZERO, 0, null);
+    }
+
+    /**
+     * @param coordinator      cross-node coordination, or {@code null} to coalesce within this node only
+     * @param lockWait         how long to wait for another node's load before loading anyway; zero to not
+     *                         coordinate loads across nodes
+     * @param earlyRefreshBeta XFetch beta; above 1 favours earlier refreshes, zero disables them
+     * @param batch            multi-key access to a Redis shared tier, or {@code null} to go key by key
+     */
+    public TwoLevelCache(String name,
+                         Cache<String, Object> local,
+                         org.springframework.cache.Cache remote,
+                         CacheInvalidationPublisher publisher,
+                         MeterRegistry meterRegistry,
+                         CacheLoadCoordinator coordinator,
+                         Duration lockWait,
+                         double earlyRefreshBeta,
+                         RedisCacheBatch batch) {
+        super(true);
+        this.name = name;
+        this.local = local;
+        this.remote = remote;
+        this.publisher = publisher;
+        this.coordinator = coordinator;
+        this.lockWaitNanos = coordinator == null ? 0 : lockWait.toNanos();
+        this.earlyRefreshBeta = coordinator == null ? 0 : earlyRefreshBeta;
+        this.batch = remote instanceof RedisCache ? batch : null;
+        this.localHits = tierCounter(meterRegistry, "l1", "hit");
+        this.localMisses = tierCounter(meterRegistry, "l1", "miss");
+        this.remoteHits = tierCounter(meterRegistry, "l2", "hit");
+        this.remoteMisses = tierCounter(meterRegistry, "l2", "miss");
+        this.loaded = loadCounter(meterRegistry, "loaded");
+        this.coalesced = loadCounter(meterRegistry, "coalesced");
+        this.loadedByPeer = loadCounter(meterRegistry, "peer");
+        this.refreshedEarly = loadCounter(meterRegistry, "early-refresh");
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return local;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        String localKey = localKey(key);
+        LocalEntry entry = (LocalEntry) local.getIfPresent(localKey);
+        if (entry != null) {
+            localHits.increment();
+            return entry.value();
+        }
+        localMisses.increment();
+        return readRemote(key, localKey);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        String localKey = localKey(key);
+        LocalEntry entry = (LocalEntry) local.getIfPresent(localKey);
+        if (entry == null) {
+            localMisses.increment();
+            return (T) fromStoreValue(fill(key, localKey, valueLoader));
+        }
+        localHits.increment();
+        if (shouldRefreshEarly(entry)) {
+            return (T) fromStoreValue(refreshEarly(key, localKey, valueLoader, entry.value()));
+        }
+        return (T) fromStoreValue(entry.value());
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        remote.put(key, value);
+        String localKey = localKey(key);
+        Object storeValue = toStoreValue(value);
+        cacheLocally(localKey, storeValue, expiryAfterWrite(key, storeValue));
+        publisher.publishEvict(name, localKey);
+    }
+
+    @Override
+    public void evict(Object key) {
+        remote.evict(key);
+        String localKey = localKey(key);
+        local.invalidate(localKey);
+        publisher.publishEvict(name, localKey);
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        local.invalidateAll();
+        publisher.publishClear(name);
+    }
+
+    /**
+     * Returns the cached values of the given keys, reading every local miss from the shared tier at once.
+     * Keys cached in neither tier are absent from the result.
+     */
+    public Map<Object, Object> getAll(Collection<?> keys) {
+        Map<Object, Object> found = new HashMap<>();
+        List<Object> remoteKeys = new ArrayList<>();
+        for (Object key : keys) {
+            LocalEntry entry = (LocalEntry) local.getIfPresent(localKey(key));
+            if (entry != null) {
+                localHits.increment();
+                found.put(key, fromStoreValue(entry.value()));
+            } else {
+                localMisses.increment();
+                remoteKeys.add(key);
+            }
+        }
+        if (remoteKeys.isEmpty()) {
+            return found;
+        }
+
+        Map<Object, LocalEntry> remoteEntries = readRemoteAll(remoteKeys);
+        for (Object key : remoteKeys) {
+            LocalEntry remoteEntry = remoteEntries.get(key);
+            if (remoteEntry == null) {
+                remoteMisses.increment();
+                continue;
+            }
+            remoteHits.increment();
+            local.put(localKey(key), remoteEntry);
+            found.put(key, fromStoreValue(remoteEntry.value()));
+        }
+        return found;
+    }
+
+    /**
+     * Back-fills values loaded after a {@link #getAll} miss, with one round trip to the shared tier. Entries
+     * stored there in the meantime, e.g. by a concurrent update, win over the loaded values. Like other
+     * loads, this is not broadcast: peers cannot hold a copy of what the shared tier was missing.
+     */
+    public void putAllIfAbsent(Map<?, ?> values) {
+        Map<Object, Object> storeValues = new LinkedHashMap<>();
+        values.forEach((key, value) -> storeValues.put(key, toStoreValue(value)));
+        List<Object> stored = batch != null
+                ? batch.putAllIfAbsent((RedisCache) remote, storeValues)
+                : writeRemoteOneByOne(storeValues);
+        stored.forEach(key -> cacheLocally(localKey(key), storeValues.get(key),
+                expiryAfterWrite(key, storeValues.get(key))));
+    }
+
+    void evictLocal(String key) {
+        local.invalidate(key);
+    }
+
+    void clearLocal() {
+        local.invalidateAll();
+    }
+
+    private Object fill(Object key, String localKey, Callable<?> valueLoader) {
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> running = loads.putIfAbsent(localKey, flight);
+        if (running != null) {
+            coalesced.increment();
+            return await(running);
+        }
+        try {
+            Object storeValue = readRemote(key, localKey);
+            if (storeValue == null) {
+                storeValue = loadAcrossNodes(key, localKey, valueLoader);
+            }
+            flight.complete(storeValue);
+            return storeValue;
+        } catch (Throwable e) {
+            // Errors too, or the callers waiting on this flight would wait forever
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            loads.remove(localKey, flight);
+        }
+    }
+
+    private Object loadAcrossNodes(Object key, String localKey, Callable<?> valueLoader) {
+        if (lockWaitNanos <= 0) {
+            return load(key, localKey, valueLoader);
+        }
+        String token = coordinator.tryLock(name, localKey);
+        if (token == null) {
+            Object storeValue = awaitPeer(key, localKey);
+            // A peer that is too slow or went away does not hold us up for longer than the lock wait
+            return storeValue != null ? storeValue : load(key, localKey, valueLoader);
+        }
+        try {
+            // The previous holder may have stored it between our miss and taking the lease
+            Object storeValue = readRemote(key, localKey);
+            return storeValue != null ? storeValue : load(key, localKey, valueLoader);
+        } finally {
+            coordinator.unlock(name, localKey, token);
+        }
+    }
+
+    private Object awaitPeer(Object key, String localKey) {
+        long deadline = System.nanoTime() + lockWaitNanos;
+        while (System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(PEER_POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+            LocalEntry entry = fetchRemote(key);
+            if (entry != null) {
+                loadedByPeer.increment();
+                local.put(localKey, entry);
+                return entry.value();
+            }
+        }
+        return null;
+    }
+
+    private Object refreshEarly(Object key, String localKey, Callable<?> valueLoader, Object current) {
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        if (loads.putIfAbsent(localKey, flight) != null) {
+            return current;
+        }
+        String token = lockWaitNanos > 0 ? coordinator.tryLock(name, localKey) : null;
+        if (lockWaitNanos > 0 && token == null) {
+            // Another node is refreshing it already
+            flight.complete(current);
+            loads.remove(localKey, flight);
+            return current;
+        }
+        try {
+            Object storeValue = load(key, localKey, valueLoader);
+            refreshedEarly.increment();
+            flight.complete(storeValue);
+            return storeValue;
+        } catch (RuntimeException e) {
+            // The current value has not expired yet; the next read may try again
+            log.warn("Early refresh of {} in cache {} failed: {}", key, name, e.getMessage());
+            flight.complete(current);
+            return current;
+        } catch (Throwable e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            loads.remove(localKey, flight);
+            if (token != null) {
+                coordinator.unlock(name, localKey, token);
+            }
+        }
+    }
+
+    private Object load(Object key, String localKey, Callable<?> valueLoader) {
+        long start = System.nanoTime();
+        Object value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        recordLoadTime(System.nanoTime() - start);
+        loaded.increment();
+        remote.put(key, value);
+        Object storeValue = toStoreValue(value);
+        cacheLocally(localKey, storeValue, expiryAfterWrite(key, storeValue));
+        return storeValue;
+    }
+
+    private Object readRemote(Object key, String localKey) {
+        LocalEntry entry = fetchRemote(key);
+        if (entry == null) {
+            remoteMisses.increment();
+            return null;
+        }
+        remoteHits.increment();
+        local.put(localKey, entry);
+        return entry.value();
+    }
+
+    /**
+     * The shared copy of the key as an L1 entry, with its expiry when early refresh needs it, or
+     * {@code null} when there is none.
+     */
+    private LocalEntry fetchRemote(Object key) {
+        if (earlyRefreshBeta > 0 && batch != null) {
+            return readRemoteAll(List.of(key)).get(key);
+        }
+        ValueWrapper wrapper = remote.get(key);
+        return wrapper == null ? null : new LocalEntry(toStoreValue(wrapper.get()), NO_EXPIRY);
+    }
+
+    private Map<Object, LocalEntry> readRemoteAll(List<Object> keys) {
+        Map<Object, LocalEntry> found = new HashMap<>();
+        if (batch == null) {
+            for (Object key : keys) {
+                ValueWrapper wrapper = remote.get(key);
+                if (wrapper != null) {
+                    found.put(key, new LocalEntry(toStoreValue(wrapper.get()), NO_EXPIRY));
+                }
+            }
+        } else if (earlyRefreshBeta > 0) {
+            long now = System.currentTimeMillis();
+            batch.getAllWithTtl((RedisCache) remote, keys).forEach((key, entry) -> {
+                long expiresAt = entry.ttlMillis() < 0 ? NO_EXPIRY : now + entry.ttlMillis();
+                found.put(key, new LocalEntry(entry.storeValue(), expiresAt));
+            });
+        } else {
+            batch.getAll((RedisCache) remote, keys).forEach((key, storeValue) ->
+                    found.put(key, new LocalEntry(storeValue, NO_EXPIRY)));
+        }
+        return found;
+    }
+
+    private List<Object> writeRemoteOneByOne(Map<Object, Object> storeValues) {
+        List<Object> stored = new ArrayList<>();
+        storeValues.forEach((key, storeValue) -> {
+            if (remote.putIfAbsent(key, fromStoreValue(storeValue)) == null) {
+                stored.add(key);
+            }
+        });
+        return stored;
+    }
+
+    private void cacheLocally(String localKey, Object storeValue, long expiresAtMillis) {
+        local.put(localKey, new LocalEntry(storeValue, expiresAtMillis));
+    }
+
+    /**
+     * When a copy this node just wrote to the shared tier expires there, without asking Redis.
+     */
+    private long expiryAfterWrite(Object key, Object storeValue) {
+        if (earlyRefreshBeta <= 0 || !(remote instanceof RedisCache redisCache)) {
+            return NO_EXPIRY;
+        }
+        Duration ttl = redisCache.getCacheConfiguration().getTtlFunction().getTimeToLive(key, storeValue);
+        return ttl.isZero() || ttl.isNegative() ? NO_EXPIRY : System.currentTimeMillis() + ttl.toMillis();
+    }
+
+    private boolean shouldRefreshEarly(LocalEntry entry) {
+        if (earlyRefreshBeta <= 0 || entry.expiresAtMillis() == NO_EXPIRY) {
+            return false;
+        }
+        double loadMillis = averageLoadNanos.get() / (double) TimeUnit.MILLISECONDS.toNanos(1);
+        double headStart = -loadMillis * earlyRefreshBeta * Math.log(ThreadLocalRandom.current().nextDouble());
+        return System.currentTimeMillis() + headStart >= entry.expiresAtMillis();
+    }
+
+    private void recordLoadTime(long nanos) {
+        // Exponentially weighted, so a single slow load does not skew refreshes for long
+        averageLoadNanos.getAndUpdate(average -> average == 0 ? nanos : average + (nanos - average) / 8);
+    }
+
+    private static Object await(CompletableFuture<Object> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static String localKey(Object key) {
+        return String.valueOf(key);
+    }
+
+    private Counter tierCounter(MeterRegistry meterRegistry, String tier, String result) {
+        return Counter.builder("cache.tier.gets")
+                .description("Cache lookups per tier of the two-level cache")
+                .tag("cache", name)
+                .tag("tier", tier)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private Counter loadCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("cache.loads")
+                .description("Cache misses by how they were resolved")
+                .tag("cache", name)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * L1 value together with when its shared copy expires, for early refresh.
+     */
+    private record LocalEntry(Object value, long expiresAtMillis) {
+    }
+}
@@ -0,0 +1,116 @@
+package com.emobile.springtodo.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+@Slf4j
+public class TwoLevelCacheManager implements CacheManager, MessageListener {
+
+    private final CacheManager remoteCacheManager;
+    private final CacheInvalidationPublisher publisher;
+    private final MeterRegistry meterRegistry;
+    private final long localMaximumSize;
+    private final Duration localTtl;
+    private final CacheLoadCoordinator loadCoordinator;
+    private final Duration lockWait;
+    private final double earlyRefreshBeta;
+    private final RedisCacheBatch batch;
+
+    private final ConcurrentMap<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+
+    public TwoLevelCacheManager(CacheManager remoteCacheManager,
+                                CacheInvalidationPublisher publisher,
+                                MeterRegistry meterRegistry,
+                                long localMaximumSize,
+                                Duration localTtl) {
+        this(remoteCacheManager, publisher, meterRegistry, localMaximumSize, localTtl, null, Duration.ZERO, 0, null);
+    }
+
+    /**
+     * See {@link TwoLevelCache} for the load coordination and batch parameters.
+     */
+    public TwoLevelCacheManager(CacheManager remoteCacheManager,
+                                CacheInvalidationPublisher publisher,
+                                MeterRegistry meterRegistry,
+                                long localMaximumSize,
+                                Duration localTtl,
+                                CacheLoadCoordinator loadCoordinator,
+                                Duration lockWait,
+                                double earlyRefreshBeta,
+                                RedisCacheBatch batch) {
+        this.remoteCacheManager = remoteCacheManager;
+        this.publisher = publisher;
+        this.meterRegistry = meterRegistry;
+        this.localMaximumSize = localMaximumSize;
+        this.localTtl = localTtl;
+        this.loadCoordinator = loadCoordinator;
+        this.lockWait = lockWait;
+        this.earlyRefreshBeta = earlyRefreshBeta;
+        this.batch = batch;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, this::createCache);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return Collections.unmodifiableSet(caches.keySet());
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        CacheInvalidationMessage invalidation;
+        try {
+            invalidation = CacheInvalidationMessage.decode(new String(message.getBody(), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring cache invalidation: {}", e.getMessage());
+            return;
+        }
+        if (publisher.isOwn(invalidation)) {
+            return;
+        }
+        TwoLevelCache cache = caches.get(invalidation.cacheName());
+        if (cache == null) {
+            return;
+        }
+        if (invalidation.isClear()) {
+            cache.clearLocal();
+        } else {
+            cache.evictLocal(invalidation.key());
+        }
+    }
+
+    private TwoLevelCache createCache(String name) {
+        Cache remote = remoteCacheManager.getCache(name);
+        if (remote == null) {
+            throw new IllegalStateException("No remote cache configured for name: " + name);
+        }
+        return new TwoLevelCache(
+                name,
+                Caffeine.newBuilder()
+                        .maximumSize(localMaximumSize)
+                        .expireAfterWrite(localTtl)
+                        .build(),
+                remote,
+                publisher,
+                meterRegistry,
+                loadCoordinator,
+                lockWait,
+                earlyRefreshBeta,
+                batch);
+    }
+}
@@ -0,0 +1,55 @@
+package com.emobile.springtodo.config;
+
+import com.emobile.springtodo.admission.AdaptiveConcurrencyLimiter;
+import com.emobile.springtodo.admission.ClientRateLimiter;
+import com.emobile.springtodo.admission.DatabaseAdmissionAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+
+@Configuration
+public class AdmissionConfig {
+
+    @Bean
+    @ConditionalOnProperty(value = "app.admission.rate-limit.enabled", havingValue = "true")
+    public ClientRateLimiter clientRateLimiter(
+            StringRedisTemplate stringRedisTemplate,
+            @Value("${app.admission.rate-limit.requests-per-second}") double requestsPerSecond,
+            @Value("${app.admission.rate-limit.burst}") int burst,
+            @Value("${app.admission.rate-limit.client-header:}") String clientHeader,
+            @Value("${app.admission.rate-limit.max-clients}") long maxClients,
+            @Value("${app.admission.rate-limit.idle-timeout}") Duration idleTimeout,
+            @Value("${app.admission.rate-limit.redis-sync.enabled}") boolean redisSync) {
+        return new ClientRateLimiter(requestsPerSecond, burst, clientHeader, maxClients, idleTimeout,
+                redisSync ? stringRedisTemplate : null);
+    }
+
+    @Bean
+    @ConditionalOnProperty(value = "app.admission.concurrency.enabled", havingValue = "true")
+    public AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter(
+            @Value("${app.admission.concurrency.initial-limit}") int initialLimit,
+            @Value("${app.admission.concurrency.min-limit}") int minLimit,
+            @Value("${app.admission.concurrency.max-limit}") int maxLimit,
+            @Value("${app.admission.concurrency.latency-threshold}") Duration latencyThreshold,
+            MeterRegistry meterRegistry) {
+        return new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit, latencyThreshold, meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnExpression("${app.admission.rate-limit.enabled:false} or ${app.admission.concurrency.enabled:false}")
+    public DatabaseAdmissionAspect databaseAdmissionAspect(
+            ObjectProvider<ClientRateLimiter> clientRateLimiter,
+            ObjectProvider<AdaptiveConcurrencyLimiter> adaptiveConcurrencyLimiter,
+            @Value("${app.admission.concurrency.retry-after}") Duration retryAfter,
+            MeterRegistry meterRegistry) {
+        return new DatabaseAdmissionAspect(clientRateLimiter.getIfAvailable(),
+                adaptiveConcurrencyLimiter.getIfAvailable(), retryAfter, meterRegistry);
+    }
+}
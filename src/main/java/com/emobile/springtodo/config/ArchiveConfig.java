@@ -0,0 +1,30 @@
+package com.emobile.springtodo.config;
+
+import com.emobile.springtodo.service.TodoArchiveService;
+import com.emobile.springtodo.service.TodoService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+
+@Configuration
+public class ArchiveConfig {
+
+    @Bean
+    @ConditionalOnProperty(value = "app.archive.enabled", havingValue = "true")
+    public TodoArchiveService todoArchiveService(
+            TodoService todoService,
+            JdbcTemplate jdbcTemplate,
+            @Value("${app.archive.min-age}") Duration minAge,
+            @Value("${app.archive.batch-size}") int batchSize,
+            @Value("${app.archive.max-batches}") int maxBatches,
+            @Value("${app.archive.batch-pause}") Duration batchPause,
+            MeterRegistry meterRegistry) {
+        return new TodoArchiveService(todoService, jdbcTemplate, minAge, batchSize, maxBatches, batchPause,
+                meterRegistry);
+    }
+}
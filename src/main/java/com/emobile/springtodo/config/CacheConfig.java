@@ -1,23 +1,136 @@
 package com.emobile.springtodo.config;
 
+import com.emobile.springtodo.cache.CacheGenerations;
+import com.emobile.springtodo.cache.CacheInvalidationPublisher;
+import com.emobile.springtodo.cache.CacheLoadCoordinator;
+import com.emobile.springtodo.cache.RedisCacheBatch;
+import com.emobile.springtodo.cache.ResponseBodyCache;
+import com.emobile.springtodo.cache.TodoRedisSerializer;
+import com.emobile.springtodo.cache.TwoLevelCacheManager;
+import com.emobile.springtodo.service.TodoService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializationContext.SerializationPair;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.time.Duration;
+import java.util.Set;
 
 @Configuration
 @EnableCaching
 public class CacheConfig {
 
+    public static final Duration DEFAULT_TTL = Duration.ofMinutes(10);
+
+    @Bean
+    public TodoRedisSerializer todoRedisSerializer(
+            @Value("${app.cache.codec.compression-threshold}") int compressionThreshold,
+            @Value("${app.cache.codec.baseline-sample-rate}") int baselineSampleRate,
+            MeterRegistry meterRegistry) {
+        return new TodoRedisSerializer(compressionThreshold, meterRegistry, baselineSampleRate);
+    }
+
     @Bean
-    public RedisCacheManager cacheManager(RedisConnectionFactory connectionFactory) {
+    public RedisCacheManager redisCacheManager(RedisConnectionFactory connectionFactory,
+                                               TodoRedisSerializer todoRedisSerializer,
+                                               @Value("${app.cache.search.ttl}") Duration searchTtl) {
+        RedisCacheConfiguration defaults = RedisCacheConfiguration.defaultCacheConfig()
+                .entryTtl(DEFAULT_TTL)
+                .serializeValuesWith(SerializationPair.fromSerializer(todoRedisSerializer));
         return RedisCacheManager.builder(connectionFactory)
-                .cacheDefaults(RedisCacheConfiguration.defaultCacheConfig()
-                        .entryTtl(Duration.ofMinutes(10)))
+                .cacheDefaults(defaults)
+                // Created up front so the actuator cache metrics binder sees them at startup
+                .initialCacheNames(Set.of(TodoService.TODO_CACHE, TodoService.TODOS_CACHE))
+                .withCacheConfiguration(TodoService.TODO_SEARCH_CACHE, defaults.entryTtl(searchTtl))
+                .withCacheConfiguration(TodoService.TODO_SEARCH_BODY_CACHE, defaults.entryTtl(searchTtl))
+                .enableStatistics()
                 .build();
     }
-}
\ No newline at end of file
+
+    @Bean
+    public ResponseBodyCache responseBodyCache(
+            TwoLevelCacheManager cacheManager,
+            ObjectMapper objectMapper,
+            @Value("${app.cache.response-body.enabled}") boolean enabled,
+            @Value("${app.cache.response-body.gzip-threshold}") int gzipThreshold) {
+        return new ResponseBodyCache(cacheManager, objectMapper, enabled, gzipThreshold);
+    }
+
+    @Bean
+    public CacheInvalidationPublisher cacheInvalidationPublisher(
+            StringRedisTemplate stringRedisTemplate,
+            @Value("${app.cache.invalidation-channel}") String channel) {
+        return new CacheInvalidationPublisher(stringRedisTemplate, channel);
+    }
+
+    @Bean
+    public CacheGenerations cacheGenerations(
+            StringRedisTemplate stringRedisTemplate,
+            @Value("${app.cache.generation-channel}") String channel,
+            @Value("${app.cache.local.ttl}") Duration refreshInterval) {
+        return new CacheGenerations(stringRedisTemplate, channel, refreshInterval);
+    }
+
+    @Bean
+    public CacheLoadCoordinator cacheLoadCoordinator(
+            StringRedisTemplate stringRedisTemplate,
+            @Value("${app.cache.load.lock-lease}") Duration lease) {
+        return new CacheLoadCoordinator(stringRedisTemplate, lease);
+    }
+
+    @Bean
+    public RedisCacheBatch redisCacheBatch(StringRedisTemplate stringRedisTemplate) {
+        return new RedisCacheBatch(stringRedisTemplate);
+    }
+
+    @Bean
+    @Primary
+    public TwoLevelCacheManager cacheManager(
+            RedisCacheManager redisCacheManager,
+            CacheInvalidationPublisher cacheInvalidationPublisher,
+            CacheLoadCoordinator cacheLoadCoordinator,
+            RedisCacheBatch redisCacheBatch,
+            MeterRegistry meterRegistry,
+            @Value("${app.cache.local.maximum-size}") long localMaximumSize,
+            @Value("${app.cache.local.ttl}") Duration localTtl,
+            @Value("${app.cache.load.distributed-lock.enabled}") boolean distributedLock,
+            @Value("${app.cache.load.lock-wait}") Duration lockWait,
+            @Value("${app.cache.load.early-refresh-beta}") double earlyRefreshBeta) {
+        return new TwoLevelCacheManager(
+                redisCacheManager, cacheInvalidationPublisher, meterRegistry, localMaximumSize, localTtl,
+                cacheLoadCoordinator, distributedLock ? lockWait : Duration.ZERO, earlyRefreshBeta, redisCacheBatch);
+    }
+
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(
+            RedisConnectionFactory connectionFactory,
+            TwoLevelCacheManager cacheManager,
+            CacheInvalidationPublisher cacheInvalidationPublisher,
+            CacheGenerations cacheGenerations) {
+        // A single dispatch thread keeps messages in the order Redis delivered them: evictions must not
+        // overtake each other, and the change feed relies on it for sequence order
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setThreadNamePrefix("cache-invalidation-");
+        executor.setDaemon(true);
+        executor.initialize();
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.setTaskExecutor(executor);
+        container.addMessageListener(cacheManager, new ChannelTopic(cacheInvalidationPublisher.getChannel()));
+        container.addMessageListener(cacheGenerations, new ChannelTopic(cacheGenerations.getChannel()));
+        return container;
+    }
+}
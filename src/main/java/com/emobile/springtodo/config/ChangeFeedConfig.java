@@ -0,0 +1,32 @@
+package com.emobile.springtodo.config;
+
+import com.emobile.springtodo.service.TodoChangeFeed;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+@Configuration
+public class ChangeFeedConfig {
+
+    @Bean
+    public TodoChangeFeed todoChangeFeed(
+            StringRedisTemplate stringRedisTemplate,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            RedisMessageListenerContainer cacheInvalidationListenerContainer,
+            @Value("${app.changes.channel}") String channel,
+            @Value("${app.changes.sequence-key}") String sequenceKey,
+            @Value("${app.changes.buffer-size}") int bufferSize,
+            @Value("${app.changes.subscriber-queue-size}") int subscriberQueueSize) {
+        TodoChangeFeed feed = new TodoChangeFeed(stringRedisTemplate, objectMapper, meterRegistry,
+                channel, sequenceKey, bufferSize, subscriberQueueSize);
+        // Shares the cache listener's connection; its single dispatch thread delivers changes in order
+        cacheInvalidationListenerContainer.addMessageListener(feed, new ChannelTopic(feed.getChannel()));
+        return feed;
+    }
+}
@@ -1,13 +1,24 @@
 package com.emobile.springtodo.config;
 
+import com.emobile.springtodo.cache.CacheGenerations;
+import com.emobile.springtodo.datasource.ConcurrencyLimitingDataSource;
+import com.emobile.springtodo.datasource.ReadWriteRoutingDataSource;
+import com.emobile.springtodo.datasource.ReplicaLagMonitor;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
 
 import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
 
 @Configuration
 public class DatabaseConfig {
@@ -16,16 +27,90 @@ public class DatabaseConfig {
     public DataSource dataSource(
             @Value("${spring.datasource.url}") String url,
             @Value("${spring.datasource.username}") String username,
-            @Value("${spring.datasource.password}") String password) {
+            @Value("${spring.datasource.password}") String password,
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int maximumPoolSize,
+            @Value("${spring.datasource.hikari.connection-timeout:30000}") long connectionTimeout,
+            @Value("${spring.datasource.hikari.initialization-fail-timeout:1}") long initializationFailTimeout,
+            @Value("${app.datasource.rewrite-batched-inserts:false}") boolean reWriteBatchedInserts,
+            @Value("${app.datasource.concurrency-limit.enabled:false}") boolean concurrencyLimitEnabled,
+            @Value("${app.datasource.replica.enabled:false}") boolean replicaEnabled,
+            @Value("${app.datasource.replica.url:}") String replicaUrl,
+            @Value("${app.datasource.replica.username:${spring.datasource.username}}") String replicaUsername,
+            @Value("${app.datasource.replica.password:${spring.datasource.password}}") String replicaPassword,
+            @Value("${app.datasource.replica.maximum-pool-size:${spring.datasource.hikari.maximum-pool-size:10}}")
+            int replicaMaximumPoolSize,
+            @Value("${app.datasource.replica.max-lag:5s}") Duration replicaMaxLag,
+            MeterRegistry meterRegistry) {
+        HikariConfig config = poolConfig("todo-pool", url, username, password,
+                maximumPoolSize, connectionTimeout, initializationFailTimeout, meterRegistry);
+        if (reWriteBatchedInserts) {
+            config.addDataSourceProperty("reWriteBatchedInserts", true);
+        }
+        DataSource primary = limit("primary", new HikariDataSource(config), maximumPoolSize,
+                connectionTimeout, concurrencyLimitEnabled, meterRegistry);
+        if (!replicaEnabled) {
+            return primary;
+        }
+
+        HikariConfig replicaConfig = poolConfig("todo-replica-pool", replicaUrl, replicaUsername, replicaPassword,
+                replicaMaximumPoolSize, connectionTimeout, initializationFailTimeout, meterRegistry);
+        replicaConfig.setReadOnly(true);
+        DataSource replica = limit("replica", new HikariDataSource(replicaConfig), replicaMaximumPoolSize,
+                connectionTimeout, concurrencyLimitEnabled, meterRegistry);
+        return new LazyConnectionDataSourceProxy(
+                new ReadWriteRoutingDataSource(primary, replica, replicaMaxLag, meterRegistry));
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.datasource.replica.enabled", havingValue = "true")
+    public ReplicaLagMonitor replicaLagMonitor(DataSource dataSource, CacheGenerations cacheGenerations)
+            throws SQLException {
+        ReadWriteRoutingDataSource routingDataSource = dataSource.unwrap(ReadWriteRoutingDataSource.class);
+        // Writes of other nodes show up here as list generation changes
+        cacheGenerations.addAdvanceListener(routingDataSource::recordWrite);
+        return new ReplicaLagMonitor(routingDataSource);
+    }
+
+    @Bean
+    public JdbcTemplate jdbcTemplate(DataSource dataSource) {
+        return new JdbcTemplate(dataSource);
+    }
+
+    private static HikariConfig poolConfig(String poolName, String url, String username, String password,
+                                           int maximumPoolSize, long connectionTimeout,
+                                           long initializationFailTimeout, MeterRegistry meterRegistry) {
         HikariConfig config = new HikariConfig();
         config.setJdbcUrl(url);
         config.setUsername(username);
         config.setPassword(password);
-        return new HikariDataSource(config);
+        config.setMaximumPoolSize(maximumPoolSize);
+        config.setConnectionTimeout(connectionTimeout);
+        // Negative starts the pool without a first connection, e.g. for the CDS training run of the build
+        config.setInitializationFailTimeout(initializationFailTimeout);
+        config.setPoolName(poolName);
+        // Set before the pool starts; the actuator post-processor cannot attach it to a running pool
+        config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return config;
     }
 
-    @Bean
-    public JdbcTemplate jdbcTemplate(DataSource dataSource) {
-        return new JdbcTemplate(dataSource);
+    private static DataSource limit(String route, HikariDataSource pool, int permits, long connectionTimeout,
+                                    boolean enabled, MeterRegistry meterRegistry) {
+        if (!enabled) {
+            return pool;
+        }
+
+        ConcurrencyLimitingDataSource limitingDataSource = new ConcurrencyLimitingDataSource(
+                pool, permits, Duration.ofMillis(connectionTimeout));
+        Gauge.builder("jdbc.connections.limiter.waiting", limitingDataSource,
+                        ConcurrencyLimitingDataSource::getWaitingThreads)
+                .description("Threads waiting for a connection permit")
+                .tag("route", route)
+                .register(meterRegistry);
+        Gauge.builder("jdbc.connections.limiter.available", limitingDataSource,
+                        ConcurrencyLimitingDataSource::getAvailablePermits)
+                .description("Free connection permits")
+                .tag("route", route)
+                .register(meterRegistry);
+        return limitingDataSource;
     }
-}
\ No newline at end of file
+}
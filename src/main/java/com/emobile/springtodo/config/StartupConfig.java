@@ -0,0 +1,38 @@
+package com.emobile.springtodo.config;
+
+import liquibase.integration.spring.SpringLiquibase;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.orm.jpa.AbstractEntityManagerFactoryBean;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Beans that stay eager when {@code spring.main.lazy-initialization} is on (fast-startup profile):
+ * schema migration and the JPA bootstrap, so that the first request does not pay for them, and beans
+ * that do background work, which would otherwise never be created.
+ */
+@Configuration
+public class StartupConfig {
+
+    private static final List<Class<?>> EAGER_TYPES = List.of(
+            DataSource.class, SpringLiquibase.class, AbstractEntityManagerFactoryBean.class, MessageListener.class);
+
+    @Bean
+    static LazyInitializationExcludeFilter eagerStartupBeans() {
+        return (beanName, beanDefinition, beanType) -> beanType != null
+                && (EAGER_TYPES.stream().anyMatch(type -> type.isAssignableFrom(beanType))
+                || hasScheduledMethods(beanType));
+    }
+
+    private static boolean hasScheduledMethods(Class<?> beanType) {
+        return !MethodIntrospector.selectMethods(beanType, (MethodIntrospector.MetadataLookup<Boolean>) method ->
+                AnnotatedElementUtils.hasAnnotation(method, Scheduled.class) ? Boolean.TRUE : null).isEmpty();
+    }
+}
@@ -1,36 +1,138 @@
 package com.emobile.springtodo.controller;
 
+import com.emobile.springtodo.dto.request.TodoBatchUpdateRequest;
 import com.emobile.springtodo.dto.request.TodoRequest;
+import com.emobile.springtodo.dto.response.TodoImportResponse;
+import com.emobile.springtodo.dto.response.TodoMultiGetResponse;
 import com.emobile.springtodo.dto.response.TodoResponse;
+import com.emobile.springtodo.dto.response.TodoSliceResponse;
+import com.emobile.springtodo.dto.response.TodoStatsResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.List;
 
 
 public interface TodoController {
 
-    @Operation(summary = "Get all TODOs")
+    int MAX_BATCH_SIZE = 5000;
+    int MAX_MULTI_GET_SIZE = 500;
+
+    @Operation(summary = "Get all TODOs",
+            description = "Optionally filtered by completion and creation/update time ranges "
+                    + "(lower bound inclusive, upper bound exclusive) and sorted by a field")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "List of TODOs"),
+            @ApiResponse(responseCode = "304", description = "Not modified since the ETag in If-None-Match"),
             @ApiResponse(responseCode = "400", description = "Invalid parameters")
     })
     List<TodoResponse> getAllTodos(
             @Parameter(description = "Limit number of items") @RequestParam(defaultValue = "10") int limit,
-            @Parameter(description = "Offset for pagination") @RequestParam(defaultValue = "0") int offset);
+            @Parameter(description = "Offset for pagination") @RequestParam(defaultValue = "0") int offset,
+            @Parameter(description = "Only completed or only open TODOs") @RequestParam(required = false)
+            Boolean completed,
+            @Parameter(description = "Created at or after") @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+            @Parameter(description = "Created before") @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo,
+            @Parameter(description = "Updated at or after") @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime updatedFrom,
+            @Parameter(description = "Updated before") @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime updatedTo,
+            @Parameter(description = "Sort field: createdAt, updatedAt or title")
+            @RequestParam(defaultValue = "createdAt") String sort,
+            @Parameter(description = "Sort direction: asc or desc") @RequestParam(defaultValue = "asc")
+            String direction,
+            @Parameter(description = "Also list archived TODOs") @RequestParam(defaultValue = "false")
+            boolean includeArchived,
+            @Parameter(hidden = true) ServletWebRequest request);
+
+    @Operation(summary = "Get TODOs by cursor",
+            description = "Keyset pagination ordered by creation time. Pass an empty 'after' for the first slice "
+                    + "and 'nextCursor' of the previous slice afterwards. Filter, sort and offset parameters are "
+                    + "rejected with 400")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Slice of TODOs"),
+            @ApiResponse(responseCode = "304", description = "Not modified since the ETag in If-None-Match"),
+            @ApiResponse(responseCode = "400", description = "Invalid parameters")
+    })
+    TodoSliceResponse getTodosAfter(
+            @Parameter(description = "Limit number of items") @RequestParam(defaultValue = "10") int limit,
+            @Parameter(description = "Cursor of the previous slice") @RequestParam String after,
+            @Parameter(hidden = true) ServletWebRequest request);
+
+    @Operation(summary = "Get TODOs by IDs",
+            description = "Found TODOs in the order of the requested IDs, duplicates removed, and the IDs without "
+                    + "a TODO. Archived TODOs are not returned")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Found TODOs and missing IDs"),
+            @ApiResponse(responseCode = "400", description = "No IDs or more than " + MAX_MULTI_GET_SIZE)
+    })
+    TodoMultiGetResponse getTodosByIds(
+            @Parameter(description = "Comma-separated TODO IDs")
+            @Size(min = 1, max = MAX_MULTI_GET_SIZE) @RequestParam List<@NotNull Long> ids);
+
+    @Operation(summary = "Search TODOs",
+            description = "Full-text search over title and description. Supports quoted phrases, 'or' and '-' "
+                    + "for exclusion. Results are ordered by relevance; pass 'nextCursor' of the previous slice "
+                    + "as 'after' to continue")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Slice of matching TODOs"),
+            @ApiResponse(responseCode = "304", description = "Not modified since the ETag in If-None-Match"),
+            @ApiResponse(responseCode = "400", description = "Invalid parameters")
+    })
+    TodoSliceResponse searchTodos(
+            @Parameter(description = "Search query") @RequestParam String q,
+            @Parameter(description = "Limit number of items") @RequestParam(defaultValue = "10") int limit,
+            @Parameter(description = "Cursor of the previous slice") @RequestParam(required = false) String after,
+            @Parameter(hidden = true) ServletWebRequest request);
+
+    @Operation(summary = "Get TODO totals",
+            description = "Served from incrementally maintained counters, independent of the number of TODOs")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "TODO totals")
+    })
+    TodoStatsResponse getStats();
+
+    @Operation(summary = "Stream TODO changes",
+            description = "Server-Sent Events named created, updated or deleted, each carrying a TodoChangeEvent "
+                    + "and its sequence number as the event id. Reconnecting with Last-Event-ID replays the "
+                    + "changes missed since; a reset event means they are no longer available and the client "
+                    + "should reload its TODOs")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Stream of TODO changes")
+    })
+    SseEmitter streamChanges(
+            @Parameter(description = "Sequence number of the last change received")
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId);
 
     @Operation(summary = "Get TODO by ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Found the TODO"),
+            @ApiResponse(responseCode = "304", description = "Not modified since If-None-Match or If-Modified-Since"),
             @ApiResponse(responseCode = "404", description = "TODO not found")
     })
-    TodoResponse getTodoById(@Parameter(description = "ID of TODO") @PathVariable Long id);
+    TodoResponse getTodoById(
+            @Parameter(description = "ID of TODO") @PathVariable Long id,
+            @Parameter(hidden = true) ServletWebRequest request);
 
     @Operation(summary = "Create a new TODO")
     @ApiResponses(value = {
@@ -49,10 +151,73 @@ public interface TodoController {
             @Parameter(description = "ID of TODO") @PathVariable Long id,
             @Valid @RequestBody TodoRequest request);
 
+    @Operation(summary = "Update TODO by ID in the background",
+            description = "Acknowledges the update once it is durably queued. Later deferred updates to the same "
+                    + "TODO replace earlier ones before they reach the database, so reads may briefly return the "
+                    + "previous state. Applied immediately when write-behind is disabled")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Update accepted"),
+            @ApiResponse(responseCode = "400", description = "Invalid input"),
+            @ApiResponse(responseCode = "404", description = "TODO not found"),
+            @ApiResponse(responseCode = "503", description = "Update queue is full")
+    })
+    void updateTodoDeferred(
+            @Parameter(description = "ID of TODO") @PathVariable Long id,
+            @Valid @RequestBody TodoRequest request);
+
     @Operation(summary = "Delete TODO by ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "204", description = "TODO deleted"),
             @ApiResponse(responseCode = "404", description = "TODO not found")
     })
     void deleteTodo(@Parameter(description = "ID of TODO") @PathVariable Long id);
-}
\ No newline at end of file
+
+    @Operation(summary = "Create TODOs in a batch")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "TODOs created"),
+            @ApiResponse(responseCode = "400", description = "Invalid input")
+    })
+    List<TodoResponse> createTodos(
+            @Size(min = 1, max = MAX_BATCH_SIZE) @RequestBody List<@Valid TodoRequest> requests);
+
+    @Operation(summary = "Update TODOs in a batch")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "TODOs updated"),
+            @ApiResponse(responseCode = "400", description = "Invalid input"),
+            @ApiResponse(responseCode = "404", description = "Some of the TODOs not found")
+    })
+    List<TodoResponse> updateTodos(
+            @Size(min = 1, max = MAX_BATCH_SIZE) @RequestBody List<@Valid TodoBatchUpdateRequest> requests);
+
+    @Operation(summary = "Delete TODOs in a batch", description = "Unknown IDs are ignored")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "TODOs deleted"),
+            @ApiResponse(responseCode = "400", description = "Invalid input")
+    })
+    void deleteTodos(
+            @Parameter(description = "IDs of TODOs")
+            @Size(min = 1, max = MAX_BATCH_SIZE) @RequestBody List<@NotNull Long> ids);
+
+    @Operation(summary = "Export all TODOs",
+            description = "Streams every TODO as NDJSON or CSV, gzip-compressed when the client accepts it")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Export stream"),
+            @ApiResponse(responseCode = "400", description = "Unsupported format")
+    })
+    StreamingResponseBody exportTodos(
+            @Parameter(description = "Export format: ndjson or csv") @RequestParam(defaultValue = "ndjson") String format,
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+            String acceptEncoding,
+            @Parameter(hidden = true) HttpServletResponse response);
+
+    @Operation(summary = "Import TODOs in bulk",
+            description = "Loads a CSV (header with title, description, completed columns) or NDJSON body "
+                    + "with PostgreSQL COPY. Invalid lines are skipped and reported")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Import report"),
+            @ApiResponse(responseCode = "400", description = "Unsupported content type or malformed body")
+    })
+    TodoImportResponse importTodos(
+            @Parameter(hidden = true) @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            @Parameter(hidden = true) InputStream body) throws IOException;
+}
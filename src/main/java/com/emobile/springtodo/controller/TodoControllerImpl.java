@@ -1,36 +1,157 @@
 package com.emobile.springtodo.controller;
 
+import com.emobile.springtodo.cache.ResponseBodyCache;
+import com.emobile.springtodo.dto.request.TodoBatchUpdateRequest;
 import com.emobile.springtodo.dto.request.TodoRequest;
+import com.emobile.springtodo.dto.response.TodoImportResponse;
+import com.emobile.springtodo.dto.response.TodoMultiGetResponse;
 import com.emobile.springtodo.dto.response.TodoResponse;
+import com.emobile.springtodo.dto.response.TodoSliceResponse;
+import com.emobile.springtodo.dto.response.TodoStatsResponse;
+import com.emobile.springtodo.exception.OverloadedException;
+import com.emobile.springtodo.repository.TodoFilter;
+import com.emobile.springtodo.repository.TodoSortField;
+import com.emobile.springtodo.service.ExportFormat;
+import com.emobile.springtodo.service.TodoChangeFeed;
+import com.emobile.springtodo.service.TodoExportService;
+import com.emobile.springtodo.service.TodoImportService;
 import com.emobile.springtodo.service.TodoService;
+import com.emobile.springtodo.service.TodoStatsService;
+import com.emobile.springtodo.service.TodoWriteBehindService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.List;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/todos")
+@Profile("!reactive")
 @RequiredArgsConstructor
 @Slf4j
 public class TodoControllerImpl implements TodoController {
 
+    private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
+
     private final TodoService todoService;
+    private final TodoExportService todoExportService;
+    private final TodoImportService todoImportService;
+    private final TodoStatsService todoStatsService;
+    private final TodoWriteBehindService todoWriteBehindService;
+    private final ResponseBodyCache responseBodyCache;
+    private final TodoChangeFeed todoChangeFeed;
 
     @Override
     @GetMapping
     public List<TodoResponse> getAllTodos(
             @RequestParam(defaultValue = "10") int limit,
-            @RequestParam(defaultValue = "0") int offset) {
-        return todoService.findAll(limit, offset);
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(required = false) Boolean completed,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            LocalDateTime createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            LocalDateTime createdTo,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            LocalDateTime updatedFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            LocalDateTime updatedTo,
+            @RequestParam(defaultValue = "createdAt") String sort,
+            @RequestParam(defaultValue = "asc") String direction,
+            @RequestParam(defaultValue = "false") boolean includeArchived,
+            ServletWebRequest request) {
+        TodoFilter filter = new TodoFilter(completed, createdFrom, createdTo, updatedFrom, updatedTo,
+                TodoSortField.from(sort), TodoFilter.direction(direction), includeArchived);
+        long version = todoService.listVersion();
+        if (request.checkNotModified(listETag(version))) {
+            return null;
+        }
+        return respond(request, TodoService.TODOS_BODY_CACHE, listBodyKey(version, request),
+                () -> todoService.findAll(limit, offset, filter));
+    }
+
+    @Override
+    @GetMapping(params = "after")
+    public TodoSliceResponse getTodosAfter(
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam String after,
+            ServletWebRequest request) {
+        TodoFilter.requireNoListingParameters(name -> request.getParameter(name) != null);
+        long version = todoService.listVersion();
+        if (request.checkNotModified(listETag(version))) {
+            return null;
+        }
+        return respond(request, TodoService.TODOS_BODY_CACHE, listBodyKey(version, request),
+                () -> todoService.findSlice(limit, after));
+    }
+
+    @Override
+    @GetMapping(params = "ids")
+    public TodoMultiGetResponse getTodosByIds(
+            @Size(min = 1, max = MAX_MULTI_GET_SIZE) @RequestParam List<@NotNull Long> ids) {
+        return todoService.findAllById(ids);
+    }
+
+    @Override
+    @GetMapping("/search")
+    public TodoSliceResponse searchTodos(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(required = false) String after,
+            ServletWebRequest request) {
+        long version = todoService.listVersion();
+        if (request.checkNotModified(listETag(version))) {
+            return null;
+        }
+        return respond(request, TodoService.TODO_SEARCH_BODY_CACHE, listBodyKey(version, request),
+                () -> todoService.search(q, limit, after));
+    }
+
+    @Override
+    @GetMapping("/stats")
+    public TodoStatsResponse getStats() {
+        return todoStatsService.getStats();
+    }
+
+    @Override
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return todoChangeFeed.subscribe(lastEventId);
     }
 
     @Override
     @GetMapping("/{id}")
-    public TodoResponse getTodoById(@PathVariable Long id) {
-        return todoService.findById(id);
+    public TodoResponse getTodoById(@PathVariable Long id, ServletWebRequest request) {
+        TodoResponse todo = todoService.findById(id);
+        if (todo.updatedAt() == null) {
+            return todo;
+        }
+        String version = todo.id() + "-" + todo.updatedAt();
+        if (request.checkNotModified('"' + version + '"',
+                LocalDateTime.parse(todo.updatedAt()).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli())) {
+            return null;
+        }
+        return respond(request, TodoService.TODO_BODY_CACHE, version, () -> todo);
     }
 
     @Override
@@ -48,10 +169,109 @@ public class TodoControllerImpl implements TodoController {
         return todoService.update(id, request);
     }
 
+    @Override
+    @PutMapping("/{id}/deferred")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public void updateTodoDeferred(
+            @PathVariable Long id,
+            @Valid @RequestBody TodoRequest request) {
+        todoWriteBehindService.submit(id, request);
+    }
+
     @Override
     @DeleteMapping("/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void deleteTodo(@PathVariable Long id) {
         todoService.delete(id);
     }
-}
\ No newline at end of file
+
+    @Override
+    @PostMapping("/batch")
+    @ResponseStatus(HttpStatus.CREATED)
+    public List<TodoResponse> createTodos(
+            @Size(min = 1, max = MAX_BATCH_SIZE) @RequestBody List<@Valid TodoRequest> requests) {
+        return todoService.createAll(requests);
+    }
+
+    @Override
+    @PutMapping("/batch")
+    public List<TodoResponse> updateTodos(
+            @Size(min = 1, max = MAX_BATCH_SIZE) @RequestBody List<@Valid TodoBatchUpdateRequest> requests) {
+        return todoService.updateAll(requests);
+    }
+
+    @Override
+    @DeleteMapping("/batch")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void deleteTodos(@Size(min = 1, max = MAX_BATCH_SIZE) @RequestBody List<@NotNull Long> ids) {
+        todoService.deleteAll(ids);
+    }
+
+    @Override
+    @GetMapping("/export")
+    public StreamingResponseBody exportTodos(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            HttpServletResponse response) {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        boolean gzip = ResponseBodyCache.acceptsGzip(acceptEncoding);
+
+        response.setContentType(exportFormat.contentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"todos." + exportFormat.extension() + "\"");
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+
+        return out -> {
+            OutputStream target = gzip ? new GZIPOutputStream(out, EXPORT_BUFFER_SIZE) : out;
+            long rows;
+            try {
+                rows = todoExportService.export(exportFormat, target);
+            } catch (OverloadedException e) {
+                // Shed before the first row, while the headers and any gzip preamble are still only buffered
+                response.reset();
+                throw e;
+            }
+            target.close();
+            log.debug("Exported {} todos as {}", rows, exportFormat);
+        };
+    }
+
+    @Override
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public TodoImportResponse importTodos(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) throws IOException {
+        return todoImportService.importTodos(ExportFormat.fromContentType(contentType), body);
+    }
+
+    /**
+     * Every list representation is a function of the request URL and the todos cache generation,
+     * which each write bumps, so the generation alone versions all list pages.
+     */
+    private static String listETag(long version) {
+        return "\"todos-" + version + '"';
+    }
+
+    private static String listBodyKey(long version, ServletWebRequest request) {
+        HttpServletRequest servletRequest = request.getRequest();
+        String query = servletRequest.getQueryString();
+        return version + ":" + servletRequest.getRequestURI() + (query == null ? "" : "?" + query);
+    }
+
+    /**
+     * Serves the body from the pre-serialized response cache when it is enabled; the cache key has to
+     * identify the representation version, so that entries never need to be evicted.
+     */
+    private <T> T respond(ServletWebRequest request, String cacheName, String key, Supplier<T> loader) {
+        if (!responseBodyCache.isEnabled()) {
+            return loader.get();
+        }
+        responseBodyCache.write(cacheName, key, loader,
+                request.getHeader(HttpHeaders.ACCEPT_ENCODING), request.getResponse());
+        return null;
+    }
+}
@@ -0,0 +1,177 @@
+package com.emobile.springtodo.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sends read-only transactions to the replica pool and everything else to the primary.
+ * The replica is only used while the last lag probe found it within {@code maxLag}; until
+ * the first successful probe, and whenever it falls behind or cannot be reached, reads
+ * fall back to the primary.
+ * <p>
+ * Reads also go to the primary for {@code maxLag} after a write, so that what they load, and then cache for
+ * the full cache TTL, includes it. Read-write transactions on this node open that window when they are routed
+ * and again when they complete; writes on other nodes open it through {@link #recordWrite()}, called when they
+ * are announced. Connections taken outside any transaction go to the primary without opening it; an auto-commit
+ * write opens it through the generation bump that follows.
+ * <p>
+ * The read-only flag is published by the transaction manager after the transaction has
+ * begun, so this must sit behind a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}
+ * that defers the physical connection until the first statement.
+ */
+@Slf4j
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route { PRIMARY, REPLICA }
+
+    // Zero on a primary, and on a standby streaming from it that has replayed everything it received. A standby
+    // that is not streaming has received nothing new either, so its lag is the age of the last replayed
+    // transaction, NULL if there was none. Without pg_read_all_stats the receiver status reads as NULL, and a
+    // running receiver process is taken as streaming.
+    static final String LAG_SQL = """
+            SELECT CASE
+                       WHEN NOT pg_is_in_recovery() THEN 0
+                       WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn()
+                            AND EXISTS (SELECT 1 FROM pg_stat_wal_receiver
+                                        WHERE pid IS NOT NULL AND COALESCE(status, 'streaming') = 'streaming')
+                           THEN 0
+                       ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp())
+                   END
+            """;
+
+    private final DataSource replica;
+    private final Duration maxLag;
+    private final Counter writes;
+    private final Counter reads;
+    private final Counter fallbacks;
+    private final Counter recentWrites;
+    private final Counter untransacted;
+    private final AtomicLong primaryUntilNanos = new AtomicLong(System.nanoTime());
+
+    private volatile boolean replicaUsable;
+    private volatile double replicaLagSeconds = Double.NaN;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, Duration maxLag,
+                                      MeterRegistry meterRegistry) {
+        this.replica = replica;
+        this.maxLag = maxLag;
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+
+        this.writes = routeCounter(meterRegistry, Route.PRIMARY, "write");
+        this.reads = routeCounter(meterRegistry, Route.REPLICA, "read");
+        this.fallbacks = routeCounter(meterRegistry, Route.PRIMARY, "replica-unavailable");
+        this.recentWrites = routeCounter(meterRegistry, Route.PRIMARY, "recent-write");
+        this.untransacted = routeCounter(meterRegistry, Route.PRIMARY, "non-transactional");
+        Gauge.builder("jdbc.replica.lag", this, ReadWriteRoutingDataSource::getReplicaLagSeconds)
+                .description("Replication lag seen by the last probe")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("jdbc.replica.usable", this, ds -> ds.isReplicaUsable() ? 1 : 0)
+                .description("Whether read-only transactions are currently routed to the replica")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+                // Auto-commit work may or may not write; it stays on the primary but does not hold reads there
+                untransacted.increment();
+                return Route.PRIMARY;
+            }
+            writes.increment();
+            recordWrite();
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                // A long transaction commits well after it was routed
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        recordWrite();
+                    }
+                });
+            }
+            return Route.PRIMARY;
+        }
+        if (!replicaUsable) {
+            fallbacks.increment();
+            return Route.PRIMARY;
+        }
+        if (System.nanoTime() - primaryUntilNanos.get() < 0) {
+            recentWrites.increment();
+            return Route.PRIMARY;
+        }
+        reads.increment();
+        return Route.REPLICA;
+    }
+
+    /**
+     * Keeps read-only transactions on the primary for {@code maxLag} from now, long enough for a replica that
+     * is still considered usable to have replayed a write committed by now.
+     */
+    public void recordWrite() {
+        long until = System.nanoTime() + maxLag.toNanos();
+        primaryUntilNanos.accumulateAndGet(until, (current, next) -> next - current > 0 ? next : current);
+    }
+
+    /**
+     * Measures replication lag on the replica and decides whether reads may use it.
+     * A failed probe counts as unusable.
+     */
+    public void checkReplicaLag() {
+        boolean usable;
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(LAG_SQL)) {
+            resultSet.next();
+            double lag = resultSet.getDouble(1);
+            // No transaction replayed since the standby started: how far behind it is cannot be told
+            replicaLagSeconds = resultSet.wasNull() ? Double.NaN : lag;
+            usable = replicaLagSeconds * 1000 <= maxLag.toMillis();
+        } catch (SQLException e) {
+            log.debug("Replica lag probe failed", e);
+            replicaLagSeconds = Double.NaN;
+            usable = false;
+        }
+        if (usable != replicaUsable) {
+            if (usable) {
+                log.info("Routing read-only transactions to the replica (lag {}s)", replicaLagSeconds);
+            } else {
+                log.warn("Replica lag {}s exceeds {} or replica unreachable, reading from the primary",
+                        replicaLagSeconds, maxLag);
+            }
+            replicaUsable = usable;
+        }
+    }
+
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+
+    public double getReplicaLagSeconds() {
+        return replicaLagSeconds;
+    }
+
+    private static Counter routeCounter(MeterRegistry meterRegistry, Route route, String reason) {
+        return Counter.builder("jdbc.routing.connections")
+                .description("Connections handed out per route")
+                .tag("route", route.name().toLowerCase())
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
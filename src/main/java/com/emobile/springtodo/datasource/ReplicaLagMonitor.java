@@ -0,0 +1,18 @@
+package com.emobile.springtodo.datasource;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Periodically re-evaluates whether the replica is close enough to the primary to serve reads.
+ */
+@RequiredArgsConstructor
+public class ReplicaLagMonitor {
+
+    private final ReadWriteRoutingDataSource routingDataSource;
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.lag-check-interval}")
+    public void check() {
+        routingDataSource.checkReplicaLag();
+    }
+}
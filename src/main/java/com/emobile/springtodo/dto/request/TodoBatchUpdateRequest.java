@@ -0,0 +1,23 @@
+package com.emobile.springtodo.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import static io.swagger.v3.oas.annotations.media.Schema.RequiredMode.REQUIRED;
+
+@Schema(description = "Updating task request of a batch")
+public record TodoBatchUpdateRequest(
+        @Schema(description = "Task ID", example = "1", requiredMode = REQUIRED)
+        @NotNull Long id,
+
+        @Schema(description = "Task title", example = "Купить молоко", requiredMode = REQUIRED)
+        @NotBlank @Size(max = 100) String title,
+
+        @Schema(description = "Task description", example = "2 литра")
+        @Size(max = 500) String description,
+
+        @Schema(description = "Task completed flag", example = "true/false")
+        boolean completed
+) {}
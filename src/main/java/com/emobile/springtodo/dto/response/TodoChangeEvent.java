@@ -0,0 +1,19 @@
+package com.emobile.springtodo.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Change of a task, as streamed by the change feed")
+public record TodoChangeEvent(
+        @Schema(description = "Kind of change", example = "UPDATED")
+        @JsonProperty("type")
+        TodoChangeType type,
+
+        @Schema(description = "Task ID", example = "1")
+        @JsonProperty("id")
+        long id,
+
+        @Schema(description = "Task after the change; absent for deletions and archivals")
+        @JsonProperty("todo")
+        TodoResponse todo
+) {}
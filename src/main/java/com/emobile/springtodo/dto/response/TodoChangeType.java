@@ -0,0 +1,8 @@
+package com.emobile.springtodo.dto.response;
+
+public enum TodoChangeType {
+    CREATED,
+    UPDATED,
+    DELETED,
+    ARCHIVED
+}
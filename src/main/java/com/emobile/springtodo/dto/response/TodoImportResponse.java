@@ -0,0 +1,33 @@
+package com.emobile.springtodo.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Result of a bulk import")
+public record TodoImportResponse(
+        @Schema(description = "Number of imported tasks", example = "99998")
+        @JsonProperty("imported")
+        long imported,
+
+        @Schema(description = "Number of rejected lines", example = "2")
+        @JsonProperty("rejected")
+        long rejected,
+
+        @Schema(description = "Rejected lines with reasons, truncated to the configured limit")
+        @JsonProperty("rejectedLines")
+        List<RejectedLine> rejectedLines
+) {
+
+    @Schema(description = "Line rejected during import")
+    public record RejectedLine(
+            @Schema(description = "Line number in the request body", example = "42")
+            @JsonProperty("line")
+            long line,
+
+            @Schema(description = "Validation errors of the line")
+            @JsonProperty("errors")
+            List<String> errors
+    ) {}
+}
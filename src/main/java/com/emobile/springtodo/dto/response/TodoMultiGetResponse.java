@@ -0,0 +1,17 @@
+package com.emobile.springtodo.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Tasks looked up by ID")
+public record TodoMultiGetResponse(
+        @Schema(description = "Found tasks, in the order of the requested IDs")
+        @JsonProperty("todos")
+        List<TodoResponse> todos,
+
+        @Schema(description = "Requested IDs without a task", example = "[42]")
+        @JsonProperty("missingIds")
+        List<Long> missingIds
+) {}
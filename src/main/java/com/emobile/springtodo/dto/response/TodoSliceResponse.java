@@ -0,0 +1,23 @@
+package com.emobile.springtodo.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.io.Serializable;
+import java.util.List;
+
+@Schema(description = "Cursor-paginated slice of Tasks")
+public record TodoSliceResponse(
+        @Schema(description = "Tasks of the slice")
+        @JsonProperty("content")
+        List<TodoResponse> content,
+
+        @Schema(description = "Opaque cursor of the next slice, absent on the last slice",
+                example = "MjAyNS0wNC0yNVQyMToyNTozOC40NDZ8NDI")
+        @JsonProperty("nextCursor")
+        String nextCursor,
+
+        @Schema(description = "Whether there are more tasks after this slice", example = "true/false")
+        @JsonProperty("hasNext")
+        boolean hasNext
+) implements Serializable {}
@@ -0,0 +1,23 @@
+package com.emobile.springtodo.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Task totals")
+public record TodoStatsResponse(
+        @Schema(description = "Number of tasks", example = "1200")
+        @JsonProperty("total")
+        long total,
+
+        @Schema(description = "Number of completed tasks", example = "800")
+        @JsonProperty("completed")
+        long completed,
+
+        @Schema(description = "Number of open tasks", example = "400")
+        @JsonProperty("open")
+        long open,
+
+        @Schema(description = "Number of tasks created today", example = "15")
+        @JsonProperty("createdToday")
+        long createdToday
+) {}
@@ -0,0 +1,71 @@
+package com.emobile.springtodo.repository;
+
+import com.emobile.springtodo.exception.BadRequestException;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Optional conditions and ordering for listing todos. Lower time bounds are inclusive,
+ * upper bounds exclusive; {@code null} means "no condition". Archived todos are only listed with
+ * {@code includeArchived}.
+ */
+public record TodoFilter(Boolean completed,
+                         LocalDateTime createdFrom,
+                         LocalDateTime createdTo,
+                         LocalDateTime updatedFrom,
+                         LocalDateTime updatedTo,
+                         TodoSortField sortField,
+                         Sort.Direction direction,
+                         boolean includeArchived) {
+
+    // Request parameters of offset listings; a cursor only encodes the position in creation order
+    private static final List<String> LISTING_PARAMETERS = List.of("offset", "completed", "createdFrom",
+            "createdTo", "updatedFrom", "updatedTo", "sort", "direction", "includeArchived");
+
+    public static final TodoFilter NONE =
+            new TodoFilter(null, null, null, null, null, TodoSortField.CREATED_AT, Sort.Direction.ASC, false);
+
+    public TodoFilter {
+        requireOrdered("created", createdFrom, createdTo);
+        requireOrdered("updated", updatedFrom, updatedTo);
+        if (sortField == null) {
+            sortField = TodoSortField.CREATED_AT;
+        }
+        if (direction == null) {
+            direction = Sort.Direction.ASC;
+        }
+    }
+
+    public static Sort.Direction direction(String value) {
+        return Sort.Direction.fromOptionalString(value)
+                .orElseThrow(() -> new BadRequestException("Unsupported sort direction: " + value));
+    }
+
+    /**
+     * Rejects offset-listing parameters on a cursor request instead of silently returning unfiltered slices.
+     */
+    public static void requireNoListingParameters(Predicate<String> present) {
+        List<String> given = LISTING_PARAMETERS.stream().filter(present).toList();
+        if (!given.isEmpty()) {
+            throw new BadRequestException("Cursor pagination does not support " + String.join(", ", given)
+                    + "; use offset pagination to filter or sort");
+        }
+    }
+
+    /**
+     * Compact, stable representation used in cache keys, so every combination is cached separately.
+     */
+    public String cacheKey() {
+        return completed + "|" + createdFrom + "|" + createdTo + "|" + updatedFrom + "|" + updatedTo
+                + "|" + sortField + "|" + direction + "|" + includeArchived;
+    }
+
+    private static void requireOrdered(String name, LocalDateTime from, LocalDateTime to) {
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new BadRequestException("Range " + name + "From must be before " + name + "To");
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.emobile.springtodo.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * Filtered, sorted page of todos as SQL plus positional arguments. Shared by the JDBC and R2DBC
+ * repositories, which only differ in their bind markers ({@code ?} versus {@code $1}).
+ */
+record TodoPageQuery(String sql, List<Object> args) {
+
+    // The planner pushes conditions, order and limit into both branches and merges their index scans
+    private static final String WITH_ARCHIVE = "(SELECT " + TodoRowMapper.COLUMNS + " FROM todos UNION ALL SELECT "
+            + TodoRowMapper.COLUMNS + " FROM todos_archive) todos";
+
+    static TodoPageQuery of(TodoFilter filter, int limit, long offset, IntFunction<String> bindMarker) {
+        List<String> conditions = new ArrayList<>();
+        List<Object> args = new ArrayList<>();
+        if (filter.completed() != null) {
+            // Inlined rather than bound so that generic plans can still match the partial index
+            conditions.add(filter.completed() ? "completed" : "NOT completed");
+        }
+        addCondition(conditions, args, bindMarker, "created_at >= ", filter.createdFrom());
+        addCondition(conditions, args, bindMarker, "created_at < ", filter.createdTo());
+        addCondition(conditions, args, bindMarker, "updated_at >= ", filter.updatedFrom());
+        addCondition(conditions, args, bindMarker, "updated_at < ", filter.updatedTo());
+
+        StringBuilder sql = new StringBuilder("SELECT ").append(TodoRowMapper.COLUMNS)
+                .append(filter.includeArchived() ? " FROM " + WITH_ARCHIVE : " FROM todos");
+        if (!conditions.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+        // Same direction for the tie-breaker, so one index on (..., column, id) serves both orders
+        String direction = filter.direction().isAscending() ? "ASC" : "DESC";
+        sql.append(" ORDER BY ").append(filter.sortField().column()).append(' ').append(direction)
+                .append(", id ").append(direction)
+                .append(" LIMIT ").append(bindMarker.apply(args.size()));
+        args.add(limit);
+        sql.append(" OFFSET ").append(bindMarker.apply(args.size()));
+        args.add(offset);
+        return new TodoPageQuery(sql.toString(), args);
+    }
+
+    private static void addCondition(List<String> conditions, List<Object> args, IntFunction<String> bindMarker,
+                                     String condition, Object value) {
+        if (value != null) {
+            conditions.add(condition + bindMarker.apply(args.size()));
+            args.add(value);
+        }
+    }
+}
@@ -4,11 +4,26 @@ import com.emobile.springtodo.model.Todo;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 
 
 @Repository
-public interface TodoRepository extends JpaRepository<Todo, Long> {
+public interface TodoRepository extends JpaRepository<Todo, Long>, TodoRepositoryCustom {
     Page<Todo> findAll(Pageable pageable);
-}
\ No newline at end of file
+
+    @Query(value = "SELECT * FROM todos ORDER BY created_at, id LIMIT :limit",
+            nativeQuery = true)
+    List<Todo> findFirstSlice(@Param("limit") int limit);
+
+    @Query(value = "SELECT * FROM todos WHERE (created_at, id) > (:createdAt, :id) "
+            + "ORDER BY created_at, id LIMIT :limit",
+            nativeQuery = true)
+    List<Todo> findSliceAfter(@Param("createdAt") LocalDateTime createdAt,
+                              @Param("id") long id,
+                              @Param("limit") int limit);
+}
@@ -0,0 +1,49 @@
+package com.emobile.springtodo.repository;
+
+import com.emobile.springtodo.model.Todo;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface TodoRepositoryCustom {
+
+    /**
+     * Returns one page of todos matching the filter, in the filter's order with id as the tie-breaker.
+     */
+    List<Todo> findPage(TodoFilter filter, int limit, long offset);
+
+    /**
+     * Updates the mutable columns of a todo in a single statement and returns the stored row,
+     * or an empty result when no todo has the given id.
+     */
+    Optional<Todo> updateReturning(long id, String title, String description, boolean completed,
+                                   LocalDateTime updatedAt);
+
+    /**
+     * Deletes a todo in a single statement and returns the number of deleted rows.
+     */
+    int deleteReturningCount(long id);
+
+    /**
+     * Returns the best matches of a web-search style query, ordered by rank and then id.
+     */
+    List<TodoSearchHit> search(String query, int limit);
+
+    /**
+     * Continues {@link #search(String, int)} after the hit with the given rank and id.
+     */
+    List<TodoSearchHit> searchAfter(String query, float rank, long id, int limit);
+
+    /**
+     * Returns the todos with the given ids, in no particular order, with one statement whatever the number of ids.
+     */
+    List<Todo> findAllByIdArray(Collection<Long> ids);
+
+    /**
+     * Moves up to {@code limit} completed todos last updated before the given time to the archive table
+     * in a single statement, skipping rows locked by concurrent writers, and returns their ids.
+     */
+    List<Long> archiveCompleted(LocalDateTime updatedBefore, int limit);
+}
@@ -0,0 +1,92 @@
+package com.emobile.springtodo.repository;
+
+import com.emobile.springtodo.model.Todo;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@RequiredArgsConstructor
+public class TodoRepositoryCustomImpl implements TodoRepositoryCustom {
+
+    private static final String UPDATE_RETURNING_SQL =
+            "UPDATE todos SET title = ?, description = ?, completed = ?, updated_at = ? WHERE id = ? "
+                    + "RETURNING " + TodoRowMapper.COLUMNS;
+    private static final String DELETE_SQL = "DELETE FROM todos WHERE id = ?";
+    private static final String RANKED_MATCHES_SQL =
+            "SELECT " + TodoRowMapper.COLUMNS + ", ts_rank(search_vector, query) AS search_rank "
+                    + "FROM todos, websearch_to_tsquery('simple', ?) query "
+                    + "WHERE search_vector @@ query";
+    private static final String SEARCH_SQL =
+            RANKED_MATCHES_SQL + " ORDER BY search_rank DESC, id LIMIT ?";
+    private static final String SEARCH_AFTER_SQL =
+            "SELECT * FROM (" + RANKED_MATCHES_SQL + ") ranked "
+                    + "WHERE search_rank < ? OR (search_rank = ? AND id > ?) "
+                    + "ORDER BY search_rank DESC, id LIMIT ?";
+
+    // One array parameter instead of an IN list, so every batch size shares a single prepared statement
+    private static final String FIND_BY_IDS_SQL =
+            "SELECT " + TodoRowMapper.COLUMNS + " FROM todos WHERE id = ANY(?)";
+    private static final String ARCHIVE_SQL =
+            "WITH moved AS (DELETE FROM todos WHERE id IN ("
+                    + "SELECT id FROM todos WHERE completed AND updated_at < ? "
+                    + "ORDER BY updated_at, id LIMIT ? FOR UPDATE SKIP LOCKED) "
+                    + "RETURNING " + TodoRowMapper.COLUMNS + ") "
+                    + "INSERT INTO todos_archive (" + TodoRowMapper.COLUMNS + ") "
+                    + "SELECT " + TodoRowMapper.COLUMNS + " FROM moved RETURNING id";
+
+    private static final TodoRowMapper ROW_MAPPER = new TodoRowMapper();
+
+    private static final RowMapper<TodoSearchHit> SEARCH_HIT_MAPPER = (rs, rowNum) ->
+            new TodoSearchHit(ROW_MAPPER.mapRow(rs, rowNum), rs.getFloat("search_rank"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<Todo> findPage(TodoFilter filter, int limit, long offset) {
+        TodoPageQuery query = TodoPageQuery.of(filter, limit, offset, index -> "?");
+        return jdbcTemplate.query(query.sql(), ROW_MAPPER, query.args().toArray());
+    }
+
+    @Override
+    public Optional<Todo> updateReturning(long id, String title, String description, boolean completed,
+                                          LocalDateTime updatedAt) {
+        List<Todo> rows = jdbcTemplate.query(UPDATE_RETURNING_SQL, ROW_MAPPER,
+                title, description, completed, updatedAt, id);
+        return rows.stream().findFirst();
+    }
+
+    @Override
+    public int deleteReturningCount(long id) {
+        return jdbcTemplate.update(DELETE_SQL, id);
+    }
+
+    @Override
+    public List<TodoSearchHit> search(String query, int limit) {
+        return jdbcTemplate.query(SEARCH_SQL, SEARCH_HIT_MAPPER, query, limit);
+    }
+
+    @Override
+    public List<TodoSearchHit> searchAfter(String query, float rank, long id, int limit) {
+        return jdbcTemplate.query(SEARCH_AFTER_SQL, SEARCH_HIT_MAPPER, query, rank, rank, id, limit);
+    }
+
+    @Override
+    public List<Todo> findAllByIdArray(Collection<Long> ids) {
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(FIND_BY_IDS_SQL);
+            statement.setArray(1, connection.createArrayOf("bigint", ids.toArray()));
+            return statement;
+        }, ROW_MAPPER);
+    }
+
+    @Override
+    public List<Long> archiveCompleted(LocalDateTime updatedBefore, int limit) {
+        return jdbcTemplate.queryForList(ARCHIVE_SQL, Long.class, updatedBefore, limit);
+    }
+}
@@ -0,0 +1,25 @@
+package com.emobile.springtodo.repository;
+
+import com.emobile.springtodo.model.Todo;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+
+public class TodoRowMapper implements RowMapper<Todo> {
+
+    public static final String COLUMNS = "id, title, description, completed, created_at, updated_at";
+
+    @Override
+    public Todo mapRow(ResultSet rs, int rowNum) throws SQLException {
+        return Todo.builder()
+                .id(rs.getLong("id"))
+                .title(rs.getString("title"))
+                .description(rs.getString("description"))
+                .completed(rs.getBoolean("completed"))
+                .createdAt(rs.getObject("created_at", LocalDateTime.class))
+                .updatedAt(rs.getObject("updated_at", LocalDateTime.class))
+                .build();
+    }
+}
@@ -0,0 +1,9 @@
+package com.emobile.springtodo.repository;
+
+import com.emobile.springtodo.model.Todo;
+
+/**
+ * A todo matched by a full-text query together with its {@code ts_rank}.
+ */
+public record TodoSearchHit(Todo todo, float rank) {
+}
@@ -0,0 +1,30 @@
+package com.emobile.springtodo.repository;
+
+import com.emobile.springtodo.exception.BadRequestException;
+
+public enum TodoSortField {
+    CREATED_AT("createdAt", "created_at"),
+    UPDATED_AT("updatedAt", "updated_at"),
+    TITLE("title", "title");
+
+    private final String property;
+    private final String column;
+
+    TodoSortField(String property, String column) {
+        this.property = property;
+        this.column = column;
+    }
+
+    public String column() {
+        return column;
+    }
+
+    public static TodoSortField from(String value) {
+        for (TodoSortField field : values()) {
+            if (field.property.equalsIgnoreCase(value)) {
+                return field;
+            }
+        }
+        throw new BadRequestException("Unsupported sort field: " + value);
+    }
+}
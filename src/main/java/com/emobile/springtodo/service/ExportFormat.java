@@ -0,0 +1,43 @@
+package com.emobile.springtodo.service;
+
+import com.emobile.springtodo.exception.BadRequestException;
+
+import java.util.Locale;
+
+public enum ExportFormat {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    public static ExportFormat fromContentType(String contentType) {
+        for (ExportFormat format : values()) {
+            if (contentType != null && contentType.toLowerCase(Locale.ROOT).startsWith(format.contentType)) {
+                return format;
+            }
+        }
+        throw new BadRequestException("Unsupported content type: " + contentType);
+    }
+
+    public static ExportFormat from(String value) {
+        try {
+            return valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Unsupported export format: " + value);
+        }
+    }
+}
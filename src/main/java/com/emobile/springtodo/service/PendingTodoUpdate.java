@@ -0,0 +1,9 @@
+package com.emobile.springtodo.service;
+
+import java.time.LocalDateTime;
+
+/**
+ * An acknowledged but not yet persisted update, as held by {@link TodoWriteBehindService}.
+ */
+record PendingTodoUpdate(long id, String title, String description, boolean completed, LocalDateTime updatedAt) {
+}
@@ -0,0 +1,110 @@
+package com.emobile.springtodo.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Moves completed todos that have not been updated for {@code minAge} from {@code todos} to
+ * {@code todos_archive}. Each batch is one statement in its own transaction that skips rows being written,
+ * so locks are held briefly and a pause between batches leaves room for regular traffic, vacuum and
+ * replication. A run stops after {@code maxBatches}; the rest waits for the next one.
+ * <p>
+ * Table sizes are sampled from the catalog after every run, not on every scrape.
+ */
+@Slf4j
+public class TodoArchiveService {
+
+    private static final String TABLE_SIZE_SQL = "SELECT relname, pg_total_relation_size(oid) AS bytes, "
+            + "GREATEST(reltuples, 0)::bigint AS row_estimate FROM pg_class "
+            + "WHERE oid IN ('todos'::regclass, 'todos_archive'::regclass)";
+
+    private final TodoService todoService;
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration minAge;
+    private final int batchSize;
+    private final int maxBatches;
+    private final Duration batchPause;
+    private final Counter archived;
+    private final Timer batchTimer;
+    private final Map<String, AtomicLong> tableBytes =
+            Map.of("todos", new AtomicLong(), "todos_archive", new AtomicLong());
+    private final Map<String, AtomicLong> tableRows =
+            Map.of("todos", new AtomicLong(), "todos_archive", new AtomicLong());
+
+    public TodoArchiveService(TodoService todoService,
+                              JdbcTemplate jdbcTemplate,
+                              Duration minAge,
+                              int batchSize,
+                              int maxBatches,
+                              Duration batchPause,
+                              MeterRegistry meterRegistry) {
+        this.todoService = todoService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.minAge = minAge;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+        this.batchPause = batchPause;
+        this.archived = Counter.builder("todo.archive.archived")
+                .description("Completed todos moved to the archive table")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("todo.archive.batch")
+                .description("Duration of one archival batch")
+                .register(meterRegistry);
+        tableBytes.forEach((table, bytes) -> Gauge.builder("todo.table.size", bytes, AtomicLong::get)
+                .description("Size of the table with its indexes and TOAST, as of the last archival run")
+                .baseUnit("bytes")
+                .tag("table", table)
+                .register(meterRegistry));
+        tableRows.forEach((table, rows) -> Gauge.builder("todo.table.rows", rows, AtomicLong::get)
+                .description("Planner estimate of the table's rows, as of the last archival run")
+                .tag("table", table)
+                .register(meterRegistry));
+    }
+
+    @Scheduled(fixedDelayString = "${app.archive.interval}", initialDelayString = "${app.archive.interval}")
+    public void archive() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(minAge);
+        long total = 0;
+        // Each batch is admitted as a repository call of its own; no permit is held across the pauses
+        for (int batch = 0; batch < maxBatches; batch++) {
+            int moved = batchTimer.record(() -> todoService.archiveCompleted(cutoff, batchSize).size());
+            archived.increment(moved);
+            total += moved;
+            if (moved < batchSize || !pause()) {
+                break;
+            }
+        }
+        if (total > 0) {
+            log.info("Archived {} completed todos last updated before {}", total, cutoff);
+        }
+        sampleTableSizes();
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(batchPause);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void sampleTableSizes() {
+        for (Map<String, Object> row : jdbcTemplate.queryForList(TABLE_SIZE_SQL)) {
+            String table = (String) row.get("relname");
+            tableBytes.get(table).set(((Number) row.get("bytes")).longValue());
+            tableRows.get(table).set(((Number) row.get("row_estimate")).longValue());
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.emobile.springtodo.service;
+
+/**
+ * A {@link com.emobile.springtodo.dto.response.TodoChangeEvent} as received from the change channel:
+ * its global sequence, the SSE event name and the event already serialized to JSON.
+ */
+record TodoChange(long sequence, String name, String json) {
+}
@@ -0,0 +1,63 @@
+package com.emobile.springtodo.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Fixed-size ring of the most recent changes, in sequence order. Not thread-safe; {@link TodoChangeFeed}
+ * guards it with its lock.
+ */
+final class TodoChangeBuffer {
+
+    private final TodoChange[] slots;
+    private int next;
+    private int size;
+
+    TodoChangeBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Change buffer capacity must be positive");
+        }
+        this.slots = new TodoChange[capacity];
+    }
+
+    void add(TodoChange change) {
+        slots[next] = change;
+        next = (next + 1) % slots.length;
+        if (size < slots.length) {
+            size++;
+        }
+    }
+
+    void clear() {
+        Arrays.fill(slots, null);
+        next = 0;
+        size = 0;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Changes with a sequence above the given one, oldest first, or {@code null} when some of them have
+     * already been overwritten.
+     */
+    List<TodoChange> after(long sequence) {
+        if (size == 0) {
+            return List.of();
+        }
+        int oldest = Math.floorMod(next - size, slots.length);
+        if (slots[oldest].sequence() > sequence + 1) {
+            return null;
+        }
+        List<TodoChange> changes = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            TodoChange change = slots[(oldest + i) % slots.length];
+            if (change.sequence() > sequence) {
+                changes.add(change);
+            }
+        }
+        return changes;
+    }
+}
@@ -0,0 +1,301 @@
+package com.emobile.springtodo.service;
+
+import com.emobile.springtodo.dto.response.TodoChangeEvent;
+import com.emobile.springtodo.dto.response.TodoChangeType;
+import com.emobile.springtodo.dto.response.TodoResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Server-Sent Events feed of todo changes. Writers publish through a Redis script that takes the next value
+ * of a global sequence and publishes the change in one step, so every node receives changes in sequence
+ * order, including the one that wrote them, as long as the listener container dispatches on a single
+ * thread. Each node keeps the latest changes in a {@link TodoChangeBuffer}; a client reconnecting with
+ * {@code Last-Event-ID} is replayed what it missed from there, or sent a {@code reset} event when that is
+ * no longer possible.
+ * <p>
+ * Every subscriber has a bounded queue drained by its own virtual thread, so a slow client never holds up
+ * the listener or the other clients. A subscriber whose queue overflows is disconnected and catches up
+ * on reconnect.
+ */
+@Slf4j
+public class TodoChangeFeed implements MessageListener {
+
+    private static final String SEPARATOR = "\t";
+    // KEYS[1] is the sequence, ARGV[1] the channel and ARGV[2] the payload. Reactive nodes publish through it too
+    static final RedisScript<Long> PUBLISH_SCRIPT = RedisScript.of("""
+            local sequence = redis.call('INCR', KEYS[1])
+            redis.call('PUBLISH', ARGV[1], sequence .. '\\t' .. ARGV[2])
+            return sequence
+            """, Long.class);
+    private static final byte[] PUBLISH_SCRIPT_BYTES =
+            PUBLISH_SCRIPT.getScriptAsString().getBytes(StandardCharsets.UTF_8);
+    private static final TodoChange RESET = new TodoChange(-1, "reset", "{}");
+    private static final TodoChange HEARTBEAT = new TodoChange(-1, null, null);
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final String channel;
+    private final String sequenceKey;
+    private final int subscriberQueueSize;
+    private final TodoChangeBuffer buffer;
+    private long lastSequence;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService senders =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("todo-changes-", 0).factory());
+    private final Counter droppedCounter;
+    private final Counter resetCounter;
+
+    public TodoChangeFeed(StringRedisTemplate redisTemplate,
+                          ObjectMapper objectMapper,
+                          MeterRegistry meterRegistry,
+                          String channel,
+                          String sequenceKey,
+                          int bufferSize,
+                          int subscriberQueueSize) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.channel = channel;
+        this.sequenceKey = sequenceKey;
+        this.subscriberQueueSize = subscriberQueueSize;
+        this.buffer = new TodoChangeBuffer(bufferSize);
+        this.droppedCounter = Counter.builder("todo.changes.dropped")
+                .description("Subscribers disconnected for falling behind the change feed")
+                .register(meterRegistry);
+        this.resetCounter = Counter.builder("todo.changes.resets")
+                .description("Resets sent because missed changes could not be replayed")
+                .register(meterRegistry);
+        Gauge.builder("todo.changes.subscribers", subscribers, Set::size)
+                .description("Open change feed connections")
+                .register(meterRegistry);
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+
+    public void publish(TodoChangeType type, long id, TodoResponse todo) {
+        publishAll(List.of(new TodoChangeEvent(type, id, todo)));
+    }
+
+    /**
+     * Publishes the changes in one pipelined round trip. Failures are logged rather than thrown: the write
+     * they describe has already happened, and subscribers recover through {@code reset} on reconnect.
+     */
+    public void publishAll(List<TodoChangeEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        List<String> payloads = new ArrayList<>(events.size());
+        try {
+            for (TodoChangeEvent event : events) {
+                payloads.add(payload(objectMapper, event));
+            }
+        } catch (JsonProcessingException e) {
+            log.warn("Failed to publish {} todo change(s): {}", events.size(), e.getMessage());
+            return;
+        }
+        publishPayloads(payloads);
+    }
+
+    /**
+     * Tells every subscriber to reload, for bulk writes too large to describe change by change. The reset
+     * takes a sequence like any other change, so clients reconnecting from before it are reset as well.
+     */
+    public void publishReset() {
+        publishPayloads(List.of(RESET.name() + SEPARATOR + RESET.json()));
+    }
+
+    static String payload(ObjectMapper objectMapper, TodoChangeEvent event) throws JsonProcessingException {
+        return event.type().name().toLowerCase(Locale.ROOT) + SEPARATOR + objectMapper.writeValueAsString(event);
+    }
+
+    private void publishPayloads(List<String> payloads) {
+        try {
+            byte[] key = sequenceKey.getBytes(StandardCharsets.UTF_8);
+            byte[] channelBytes = channel.getBytes(StandardCharsets.UTF_8);
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (String payload : payloads) {
+                    connection.scriptingCommands().eval(PUBLISH_SCRIPT_BYTES, ReturnType.INTEGER, 1,
+                            key, channelBytes, payload.getBytes(StandardCharsets.UTF_8));
+                }
+                return null;
+            });
+        } catch (RuntimeException e) {
+            log.warn("Failed to publish {} todo change(s): {}", payloads.size(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split(SEPARATOR, 3);
+        if (parts.length != 3) {
+            return;
+        }
+        TodoChange change;
+        try {
+            change = new TodoChange(Long.parseLong(parts[0]), parts[1], parts[2]);
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring todo change with malformed sequence: {}", parts[0]);
+            return;
+        }
+        lock.lock();
+        try {
+            if (change.sequence() <= lastSequence) {
+                // Messages arrive in order, so the counter itself was lost; replay across it is meaningless
+                log.warn("Todo change sequence went back from {} to {}; resetting subscribers",
+                        lastSequence, change.sequence());
+                buffer.clear();
+                resetCounter.increment();
+                subscribers.forEach(subscriber -> subscriber.offer(RESET));
+            }
+            lastSequence = change.sequence();
+            buffer.add(change);
+            subscribers.forEach(subscriber -> subscriber.offer(change));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Opens a feed for one client, starting with the changes after {@code lastEventId} when one is given.
+     */
+    public SseEmitter subscribe(Long lastEventId) {
+        SseEmitter emitter = new SseEmitter();
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(error -> subscriber.close());
+
+        Long published = lastEventId == null ? null : publishedSequence();
+        lock.lock();
+        try {
+            if (lastEventId != null) {
+                List<TodoChange> missed = buffer.after(lastEventId);
+                boolean unknown = published != null && (lastEventId > published
+                        || (buffer.isEmpty() && lastEventId < published));
+                if (missed == null || unknown) {
+                    resetCounter.increment();
+                    subscriber.offer(RESET);
+                } else {
+                    missed.forEach(subscriber::offer);
+                }
+            }
+            subscribers.add(subscriber);
+        } finally {
+            lock.unlock();
+        }
+        return emitter;
+    }
+
+    /**
+     * Keeps idle connections from being closed by proxies, and notices clients that went away.
+     */
+    @Scheduled(fixedDelayString = "${app.changes.heartbeat-interval}")
+    public void heartbeat() {
+        subscribers.forEach(subscriber -> subscriber.offer(HEARTBEAT));
+    }
+
+    public void close() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        senders.shutdown();
+    }
+
+    private Long publishedSequence() {
+        try {
+            String stored = redisTemplate.opsForValue().get(sequenceKey);
+            return stored == null ? 0L : Long.parseLong(stored);
+        } catch (RuntimeException e) {
+            // Without the counter only the buffer can tell whether the client missed anything
+            log.warn("Failed to read todo change sequence: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final BlockingQueue<TodoChange> queue = new ArrayBlockingQueue<>(subscriberQueueSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void offer(TodoChange change) {
+            if (closed) {
+                return;
+            }
+            if (!queue.offer(change)) {
+                close();
+                droppedCounter.increment();
+                senders.execute(emitter::complete);
+                return;
+            }
+            if (draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        void close() {
+            closed = true;
+            subscribers.remove(this);
+        }
+
+        private void drain() {
+            try {
+                TodoChange change;
+                while (!closed && (change = queue.poll()) != null) {
+                    emitter.send(event(change));
+                }
+            } catch (IOException | IllegalStateException e) {
+                close();
+                return;
+            } finally {
+                draining.set(false);
+            }
+            if (!closed && !queue.isEmpty() && draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private SseEmitter.SseEventBuilder event(TodoChange change) {
+            if (change == HEARTBEAT) {
+                return SseEmitter.event().comment("heartbeat");
+            }
+            SseEmitter.SseEventBuilder event = SseEmitter.event()
+                    .name(change.name())
+                    .data(change.json(), MediaType.APPLICATION_JSON);
+            return change.sequence() < 0 ? event : event.id(Long.toString(change.sequence()));
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.emobile.springtodo.service;
+
+import com.emobile.springtodo.admission.DatabaseWork;
+import com.emobile.springtodo.dto.response.TodoResponse;
+import com.emobile.springtodo.mapper.TodoMapper;
+import com.emobile.springtodo.repository.TodoRowMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TodoExportService {
+
+    private static final String EXPORT_SQL =
+            "SELECT " + TodoRowMapper.COLUMNS + " FROM todos ORDER BY created_at, id";
+    private static final String CSV_HEADER = "id,title,description,completed,createdAt,updatedAt";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final TodoMapper todoMapper;
+    private final ObjectMapper objectMapper;
+    private final TodoRowMapper rowMapper = new TodoRowMapper();
+
+    @Value("${app.export.fetch-size}")
+    private int fetchSize;
+
+    @DatabaseWork(bulk = true)
+    public long export(ExportFormat format, OutputStream out) throws IOException {
+        return switch (format) {
+            case NDJSON -> exportNdjson(out);
+            case CSV -> exportCsv(out);
+        };
+    }
+
+    private long exportNdjson(OutputStream out) throws IOException {
+        try (SequenceWriter writer = objectMapper.writerFor(TodoResponse.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator("\n")
+                .writeValues(out)) {
+            return streamRows(rs -> {
+                try {
+                    writer.write(todoMapper.toResponse(rowMapper.mapRow(rs, 0)));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    private long exportCsv(OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        long rows = streamRows(rs -> {
+            TodoResponse todo = todoMapper.toResponse(rowMapper.mapRow(rs, 0));
+            try {
+                writer.write(String.valueOf(todo.id()));
+                writer.write(',');
+                writeCsvField(writer, todo.title());
+                writer.write(',');
+                writeCsvField(writer, todo.description());
+                writer.write(',');
+                writer.write(String.valueOf(todo.completed()));
+                writer.write(',');
+                writer.write(todo.createdAt());
+                writer.write(',');
+                writer.write(todo.updatedAt());
+                writer.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        writer.flush();
+        return rows;
+    }
+
+    private long streamRows(RowCallbackHandler handler) throws IOException {
+        AtomicLong rows = new AtomicLong();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        try {
+            transaction.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(
+                        EXPORT_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(fetchSize);
+                return statement;
+            }, (ResultSet rs) -> {
+                handler.processRow(rs);
+                rows.incrementAndGet();
+            }));
+        } catch (UncheckedIOException e) {
+            log.warn("Export aborted after {} rows: {}", rows.get(), e.getCause().getMessage());
+            throw e.getCause();
+        }
+        return rows.get();
+    }
+
+    static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
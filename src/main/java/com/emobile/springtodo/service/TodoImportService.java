@@ -0,0 +1,274 @@
+package com.emobile.springtodo.service;
+
+import com.emobile.springtodo.admission.DatabaseWork;
+import com.emobile.springtodo.cache.CacheGenerations;
+import com.emobile.springtodo.dto.request.TodoRequest;
+import com.emobile.springtodo.dto.response.TodoImportResponse;
+import com.emobile.springtodo.dto.response.TodoImportResponse.RejectedLine;
+import com.emobile.springtodo.exception.BadRequestException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.cfg.CoercionAction;
+import com.fasterxml.jackson.databind.cfg.CoercionInputShape;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import com.fasterxml.jackson.databind.type.LogicalType;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+@Service
+@Slf4j
+public class TodoImportService {
+
+    private static final String COPY_SQL =
+            "COPY todos (title, description, completed, created_at, updated_at) FROM STDIN WITH (FORMAT csv)";
+    private static final int COPY_CHUNK_SIZE = 64 * 1024;
+    private static final String INVALID_COMPLETED = "completed: must be true or false";
+
+    private final DataSource dataSource;
+    private final Validator validator;
+    private final ObjectReader todoReader;
+    private final CacheGenerations cacheGenerations;
+    private final TodoChangeFeed changeFeed;
+
+    @Value("${app.import.max-reported-rejections}")
+    private int maxReportedRejections;
+
+    public TodoImportService(DataSource dataSource, Validator validator, ObjectMapper objectMapper,
+                             CacheGenerations cacheGenerations, TodoChangeFeed changeFeed) {
+        this.dataSource = dataSource;
+        this.validator = validator;
+        this.cacheGenerations = cacheGenerations;
+        this.changeFeed = changeFeed;
+        // 'completed' must be a JSON boolean; "yes", "true" or 1 are rejected rather than guessed at
+        ObjectMapper strictMapper = objectMapper.copy();
+        strictMapper.coercionConfigFor(LogicalType.Boolean)
+                .setCoercion(CoercionInputShape.Integer, CoercionAction.Fail)
+                .setCoercion(CoercionInputShape.Float, CoercionAction.Fail)
+                .setCoercion(CoercionInputShape.String, CoercionAction.Fail)
+                .setCoercion(CoercionInputShape.EmptyString, CoercionAction.Fail);
+        this.todoReader = strictMapper.readerFor(TodoRequest.class);
+    }
+
+    @Transactional
+    @DatabaseWork(bulk = true)
+    public TodoImportResponse importTodos(ExportFormat format, InputStream body) throws IOException {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        CopyIn copyIn;
+        try {
+            copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_SQL);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to start COPY into todos", e);
+        }
+
+        ImportRun run = new ImportRun(copyIn, LocalDateTime.now().toString());
+        try {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+            switch (format) {
+                case CSV -> readCsv(reader, run);
+                case NDJSON -> readNdjson(reader, run);
+            }
+            run.flush();
+            long imported = copyIn.endCopy();
+            // COPY does not report the new ids, and one event per row would flood subscribers anyway
+            AfterCommit.run(() -> {
+                cacheGenerations.bump("todos");
+                changeFeed.publishReset();
+            });
+            log.info("Imported {} todos, rejected {} lines", imported, run.rejected);
+            return new TodoImportResponse(imported, run.rejected, run.rejectedLines);
+        } catch (SQLException e) {
+            cancel(copyIn);
+            throw new IllegalStateException("COPY into todos failed", e);
+        } catch (IOException | RuntimeException e) {
+            cancel(copyIn);
+            throw e;
+        }
+    }
+
+    private void readCsv(BufferedReader reader, ImportRun run) throws IOException, SQLException {
+        CsvRecordReader csv = new CsvRecordReader(reader);
+        List<String> header = csv.readRecord();
+        if (header == null) {
+            return;
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            if (header.get(i) != null) {
+                columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+            }
+        }
+        Integer titleColumn = columns.get("title");
+        if (titleColumn == null) {
+            throw new BadRequestException("CSV header must contain a 'title' column");
+        }
+        Integer descriptionColumn = columns.get("description");
+        Integer completedColumn = columns.get("completed");
+
+        List<String> record;
+        while ((record = csv.readRecord()) != null) {
+            if (record.size() == 1 && record.get(0) == null) {
+                continue;
+            }
+            Boolean completed = parseCompleted(field(record, completedColumn));
+            TodoRequest request = new TodoRequest(
+                    field(record, titleColumn),
+                    field(record, descriptionColumn),
+                    Boolean.TRUE.equals(completed));
+            List<String> errors = validate(request);
+            if (completed == null) {
+                errors = new ArrayList<>(errors);
+                errors.add(INVALID_COMPLETED);
+                errors.sort(null);
+            }
+            run.accept(csv.recordLine(), request, errors);
+        }
+    }
+
+    private void readNdjson(BufferedReader reader, ImportRun run) throws IOException, SQLException {
+        String line;
+        long lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            TodoRequest request;
+            try {
+                request = todoReader.readValue(line);
+            } catch (MismatchedInputException e) {
+                run.reject(lineNumber,
+                        List.of(isCompleted(e) ? INVALID_COMPLETED : "Malformed JSON: " + e.getOriginalMessage()));
+                continue;
+            } catch (JsonProcessingException e) {
+                run.reject(lineNumber, List.of("Malformed JSON: " + e.getOriginalMessage()));
+                continue;
+            }
+            if (request == null) {
+                run.reject(lineNumber, List.of("Line must be a JSON object"));
+                continue;
+            }
+            run.accept(lineNumber, request, validate(request));
+        }
+    }
+
+    private List<String> validate(TodoRequest request) {
+        return validator.validate(request).stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .toList();
+    }
+
+    /**
+     * The CSV value of 'completed': {@code true} or {@code false} in any case, absent or empty meaning
+     * {@code false}, and {@code null} for anything else.
+     */
+    private static Boolean parseCompleted(String value) {
+        if (value == null || value.isEmpty() || value.equalsIgnoreCase("false")) {
+            return Boolean.FALSE;
+        }
+        return value.equalsIgnoreCase("true") ? Boolean.TRUE : null;
+    }
+
+    private static boolean isCompleted(MismatchedInputException e) {
+        return e.getPath().size() == 1 && "completed".equals(e.getPath().get(0).getFieldName());
+    }
+
+    private static String field(List<String> record, Integer column) {
+        return column == null || column >= record.size() ? null : record.get(column);
+    }
+
+    private static void cancel(CopyIn copyIn) {
+        try {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        } catch (SQLException e) {
+            log.warn("Failed to cancel COPY into todos: {}", e.getMessage());
+        }
+    }
+
+    private final class ImportRun {
+
+        private final CopyIn copyIn;
+        private final String timestamp;
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(COPY_CHUNK_SIZE + 1024);
+        private final StringBuilder row = new StringBuilder(256);
+        private final List<RejectedLine> rejectedLines = new ArrayList<>();
+        private long rejected;
+
+        private ImportRun(CopyIn copyIn, String timestamp) {
+            this.copyIn = copyIn;
+            this.timestamp = timestamp;
+        }
+
+        private void accept(long line, TodoRequest request, List<String> errors) throws SQLException {
+            if (!errors.isEmpty()) {
+                reject(line, errors);
+                return;
+            }
+            row.setLength(0);
+            appendQuoted(row, request.title());
+            row.append(',');
+            if (request.description() != null) {
+                appendQuoted(row, request.description());
+            }
+            row.append(',').append(request.completed() ? 't' : 'f')
+                    .append(',').append(timestamp)
+                    .append(',').append(timestamp)
+                    .append('\n');
+            buffer.writeBytes(row.toString().getBytes(StandardCharsets.UTF_8));
+            if (buffer.size() >= COPY_CHUNK_SIZE) {
+                flush();
+            }
+        }
+
+        private void reject(long line, List<String> errors) {
+            rejected++;
+            if (rejectedLines.size() < maxReportedRejections) {
+                rejectedLines.add(new RejectedLine(line, errors));
+            }
+        }
+
+        private void flush() throws SQLException {
+            if (buffer.size() > 0) {
+                copyIn.writeToCopy(buffer.toByteArray(), 0, buffer.size());
+                buffer.reset();
+            }
+        }
+
+        private static void appendQuoted(StringBuilder target, String value) {
+            target.append('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"') {
+                    target.append('"');
+                }
+                target.append(c);
+            }
+            target.append('"');
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.emobile.springtodo.service;
+
+import com.emobile.springtodo.exception.BadRequestException;
+import com.emobile.springtodo.repository.TodoSearchHit;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position of the last hit of a search slice in the {@code (rank DESC, id)} ordering,
+ * exchanged with clients as an opaque URL-safe token.
+ */
+public record TodoSearchCursor(float rank, long id) {
+
+    private static final char SEPARATOR = '|';
+
+    public static TodoSearchCursor of(TodoSearchHit hit) {
+        return new TodoSearchCursor(hit.rank(), hit.todo().getId());
+    }
+
+    public String encode() {
+        // Float.toString round-trips exactly, so the cursor compares equal to the stored rank
+        String raw = Float.toString(rank) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TodoSearchCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new BadRequestException("Invalid cursor: " + token);
+            }
+            float rank = Float.parseFloat(raw.substring(0, separator));
+            if (!Float.isFinite(rank)) {
+                throw new BadRequestException("Invalid cursor: " + token);
+            }
+            return new TodoSearchCursor(rank, Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor: " + token);
+        }
+    }
+}
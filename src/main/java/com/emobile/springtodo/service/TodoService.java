@@ -1,74 +1,354 @@
 package com.emobile.springtodo.service;
 
+import com.emobile.springtodo.admission.DatabaseWork;
+import com.emobile.springtodo.cache.CacheGenerations;
+import com.emobile.springtodo.cache.TwoLevelCache;
+import com.emobile.springtodo.dto.request.TodoBatchUpdateRequest;
 import com.emobile.springtodo.dto.request.TodoRequest;
+import com.emobile.springtodo.dto.response.TodoChangeEvent;
+import com.emobile.springtodo.dto.response.TodoChangeType;
+import com.emobile.springtodo.dto.response.TodoMultiGetResponse;
 import com.emobile.springtodo.dto.response.TodoResponse;
+import com.emobile.springtodo.dto.response.TodoSliceResponse;
+import com.emobile.springtodo.exception.BadRequestException;
 import com.emobile.springtodo.exception.ResourceNotFoundException;
 import com.emobile.springtodo.mapper.TodoMapper;
 import com.emobile.springtodo.model.Todo;
+import com.emobile.springtodo.repository.TodoFilter;
 import com.emobile.springtodo.repository.TodoRepository;
+import com.emobile.springtodo.repository.TodoSearchHit;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@Timed(value = "todo.service", description = "TodoService method latency")
 public class TodoService {
 
+    public static final String TODO_CACHE = "todo";
+    public static final String TODOS_CACHE = "todos";
+    public static final String TODO_SEARCH_CACHE = "todo-search";
+    public static final String TODO_BODY_CACHE = "todo-body";
+    public static final String TODOS_BODY_CACHE = "todos-body";
+    public static final String TODO_SEARCH_BODY_CACHE = "todo-search-body";
+
+    private static final int MAX_SEARCH_QUERY_LENGTH = 200;
+
     private final TodoRepository todoRepository;
     private final TodoMapper todoMapper;
+    private final CacheGenerations cacheGenerations;
+    private final CacheManager cacheManager;
+    private final TodoChangeFeed changeFeed;
 
-    @Cacheable(value = "todos", key = "#limit + '-' + #offset")
-    public List<TodoResponse> findAll(int limit, int offset) {
-        int pageNumber = offset / limit;
-        List<Todo> todos = todoRepository.findAll(PageRequest.of(pageNumber, limit)).getContent();
+    @Cacheable(value = "todos", sync = true,
+            key = "@cacheGenerations.current('todos') + ':' + #limit + '-' + #offset + ':' + #filter.cacheKey()")
+    @Transactional(readOnly = true)
+    public List<TodoResponse> findAll(int limit, int offset, TodoFilter filter) {
+        requirePositiveLimit(limit);
+        if (offset < 0) {
+            throw new BadRequestException("Offset must not be negative");
+        }
+        List<Todo> todos = todoRepository.findPage(filter, limit, offset);
         return todos.stream()
                 .map(todoMapper::toResponse)
                 .toList();
     }
 
-    @Cacheable(value = "todo", key = "#id")
+    @Cacheable(value = "todos", sync = true,
+            key = "@cacheGenerations.current('todos') + ':after-' + #limit + '-' + #after")
+    @Transactional(readOnly = true)
+    public TodoSliceResponse findSlice(int limit, String after) {
+        requirePositiveLimit(limit);
+        List<Todo> todos;
+        if (after == null || after.isBlank()) {
+            todos = todoRepository.findFirstSlice(limit + 1);
+        } else {
+            TodoCursor cursor = TodoCursor.decode(after);
+            todos = todoRepository.findSliceAfter(cursor.createdAt(), cursor.id(), limit + 1);
+        }
+
+        boolean hasNext = todos.size() > limit;
+        List<Todo> content = hasNext ? todos.subList(0, limit) : todos;
+        String nextCursor = hasNext ? TodoCursor.of(content.get(limit - 1)).encode() : null;
+        return new TodoSliceResponse(
+                content.stream().map(todoMapper::toResponse).toList(),
+                nextCursor,
+                hasNext);
+    }
+
+    @Cacheable(value = TODO_SEARCH_CACHE, sync = true,
+            key = "@cacheGenerations.current('todos') + ':' + #limit + '-' + #after + ':' + #query")
+    @Transactional(readOnly = true)
+    public TodoSliceResponse search(String query, int limit, String after) {
+        if (query == null || query.isBlank()) {
+            throw new BadRequestException("Search query must not be blank");
+        }
+        if (query.length() > MAX_SEARCH_QUERY_LENGTH) {
+            throw new BadRequestException("Search query must not exceed " + MAX_SEARCH_QUERY_LENGTH + " characters");
+        }
+        requirePositiveLimit(limit);
+        List<TodoSearchHit> hits;
+        if (after == null || after.isBlank()) {
+            hits = todoRepository.search(query, limit + 1);
+        } else {
+            TodoSearchCursor cursor = TodoSearchCursor.decode(after);
+            hits = todoRepository.searchAfter(query, cursor.rank(), cursor.id(), limit + 1);
+        }
+
+        boolean hasNext = hits.size() > limit;
+        List<TodoSearchHit> content = hasNext ? hits.subList(0, limit) : hits;
+        String nextCursor = hasNext ? TodoSearchCursor.of(content.get(limit - 1)).encode() : null;
+        return new TodoSliceResponse(
+                content.stream().map(hit -> todoMapper.toResponse(hit.todo())).toList(),
+                nextCursor,
+                hasNext);
+    }
+
+    /**
+     * Version of every list representation; changes whenever any todo is written.
+     */
+    public long listVersion() {
+        return cacheGenerations.current(TODOS_CACHE);
+    }
+
+    @Cacheable(value = "todo", sync = true, key = "#id")
+    @Transactional(readOnly = true)
     public TodoResponse findById(Long id) {
         return todoRepository.findById(id)
                 .map(todoMapper::toResponse)
                 .orElseThrow(() -> new ResourceNotFoundException("Todo not found with id: " + id));
     }
 
-    @CacheEvict(value = {"todos", "todo"}, allEntries = true)
+    /**
+     * Looks up todos by id: one multi-key read of the {@code todo} cache, one query for the misses and one
+     * back-fill of what it loaded. Not transactional, so no connection is held while the cache is read.
+     * Todos come back in the order of the first occurrence of their id; ids without a todo are reported.
+     */
+    public TodoMultiGetResponse findAllById(List<Long> ids) {
+        Set<Long> distinctIds = new LinkedHashSet<>(ids);
+        Cache todoCache = cacheManager.getCache(TODO_CACHE);
+        Map<Object, Object> cached = readCached(todoCache, distinctIds);
+
+        List<Long> misses = distinctIds.stream().filter(id -> !cached.containsKey(id)).toList();
+        Map<Object, Object> loaded = new LinkedHashMap<>();
+        if (!misses.isEmpty()) {
+            for (Todo todo : todoRepository.findAllByIdArray(misses)) {
+                loaded.put(todo.getId(), todoMapper.toResponse(todo));
+            }
+            backFill(todoCache, loaded);
+        }
+
+        List<TodoResponse> todos = new ArrayList<>();
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : distinctIds) {
+            Object todo = cached.containsKey(id) ? cached.get(id) : loaded.get(id);
+            if (todo != null) {
+                todos.add((TodoResponse) todo);
+            } else {
+                missingIds.add(id);
+            }
+        }
+        return new TodoMultiGetResponse(todos, missingIds);
+    }
+
     public TodoResponse create(TodoRequest request) {
         Todo todo = todoMapper.toEntity(request);
         todo.setCreatedAt(LocalDateTime.now());
         todo.setUpdatedAt(LocalDateTime.now());
         Todo savedTodo = todoRepository.save(todo);
-        return todoMapper.toResponse(savedTodo);
+        cacheGenerations.bump(TODOS_CACHE);
+        TodoResponse response = todoMapper.toResponse(savedTodo);
+        changeFeed.publish(TodoChangeType.CREATED, response.id(), response);
+        return response;
     }
 
-    @CacheEvict(value = {"todos", "todo"}, allEntries = true)
+    @CachePut(value = "todo", key = "#id")
     public TodoResponse update(Long id, TodoRequest request) {
-        Todo existingTodo = todoRepository.findById(id)
+        Todo updatedTodo = todoRepository.updateReturning(
+                        id, request.title(), request.description(), request.completed(), LocalDateTime.now())
                 .orElseThrow(() -> new ResourceNotFoundException("Todo not found with id: " + id));
-
-        existingTodo.setTitle(request.title());
-        existingTodo.setDescription(request.description());
-        existingTodo.setCompleted(request.completed());
-        existingTodo.setUpdatedAt(LocalDateTime.now());
-
-        Todo updatedTodo = todoRepository.save(existingTodo);
-        return todoMapper.toResponse(updatedTodo);
+        cacheGenerations.bump(TODOS_CACHE);
+        TodoResponse response = todoMapper.toResponse(updatedTodo);
+        changeFeed.publish(TodoChangeType.UPDATED, id, response);
+        return response;
     }
 
-    @CacheEvict(value = {"todos", "todo"}, allEntries = true)
+    @CacheEvict(value = "todo", key = "#id")
     public void delete(Long id) {
-        if (!todoRepository.existsById(id)) {
+        if (todoRepository.deleteReturningCount(id) == 0) {
             throw new ResourceNotFoundException("Todo not found with id: " + id);
         }
-        todoRepository.deleteById(id);
+        cacheGenerations.bump(TODOS_CACHE);
+        changeFeed.publish(TodoChangeType.DELETED, id, null);
+    }
+
+    @Transactional
+    @DatabaseWork
+    public List<TodoResponse> createAll(List<TodoRequest> requests) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Todo> todos = requests.stream()
+                .map(request -> {
+                    Todo todo = todoMapper.toEntity(request);
+                    todo.setCreatedAt(now);
+                    todo.setUpdatedAt(now);
+                    return todo;
+                })
+                .toList();
+        List<Todo> savedTodos = todoRepository.saveAll(todos);
+        List<TodoResponse> responses = savedTodos.stream()
+                .map(todoMapper::toResponse)
+                .toList();
+        AfterCommit.run(() -> {
+            cacheGenerations.bump(TODOS_CACHE);
+            publishAll(TodoChangeType.CREATED, responses);
+        });
+        return responses;
+    }
+
+    @Transactional
+    @DatabaseWork
+    public List<TodoResponse> updateAll(List<TodoBatchUpdateRequest> requests) {
+        Set<Long> ids = requests.stream()
+                .map(TodoBatchUpdateRequest::id)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        Map<Long, Todo> existingTodos = todoRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Todo::getId, Function.identity()));
+        if (existingTodos.size() != ids.size()) {
+            List<Long> missingIds = ids.stream()
+                    .filter(id -> !existingTodos.containsKey(id))
+                    .toList();
+            throw new ResourceNotFoundException("Todos not found with ids: " + missingIds);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        for (TodoBatchUpdateRequest request : requests) {
+            Todo todo = existingTodos.get(request.id());
+            todo.setTitle(request.title());
+            todo.setDescription(request.description());
+            todo.setCompleted(request.completed());
+            todo.setUpdatedAt(now);
+        }
+
+        List<Todo> updatedTodos = todoRepository.saveAll(existingTodos.values());
+        List<TodoResponse> responses = updatedTodos.stream()
+                .map(todoMapper::toResponse)
+                .toList();
+        AfterCommit.run(() -> {
+            invalidate(ids);
+            publishAll(TodoChangeType.UPDATED, responses);
+        });
+        return responses;
+    }
+
+    @Transactional
+    @DatabaseWork
+    public void deleteAll(List<Long> ids) {
+        todoRepository.deleteAllByIdInBatch(ids);
+        AfterCommit.run(() -> {
+            invalidate(ids);
+            changeFeed.publishAll(ids.stream()
+                    .distinct()
+                    .map(id -> new TodoChangeEvent(TodoChangeType.DELETED, id, null))
+                    .toList());
+        });
+    }
+
+    /**
+     * Moves up to {@code limit} completed todos last updated before the given time out of the hot table and
+     * returns their ids. Each call is one short statement of its own; archived todos are read-only and only
+     * listed with {@link TodoFilter#includeArchived()}.
+     */
+    public List<Long> archiveCompleted(LocalDateTime updatedBefore, int limit) {
+        List<Long> ids = todoRepository.archiveCompleted(updatedBefore, limit);
+        if (!ids.isEmpty()) {
+            invalidate(ids);
+            changeFeed.publishAll(ids.stream()
+                    .map(id -> new TodoChangeEvent(TodoChangeType.ARCHIVED, id, null))
+                    .toList());
+        }
+        return ids;
+    }
+
+    /**
+     * Announces updates written outside this service, such as write-behind flushes, with the todos as
+     * they are stored now.
+     */
+    public void publishUpdated(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        publishAll(TodoChangeType.UPDATED, todoRepository.findAllByIdArray(ids).stream()
+                .map(todoMapper::toResponse)
+                .toList());
+    }
+
+    private static Map<Object, Object> readCached(Cache todoCache, Collection<Long> ids) {
+        if (todoCache instanceof TwoLevelCache twoLevelCache) {
+            return twoLevelCache.getAll(ids);
+        }
+        Map<Object, Object> cached = new HashMap<>();
+        if (todoCache != null) {
+            for (Long id : ids) {
+                Cache.ValueWrapper wrapper = todoCache.get(id);
+                if (wrapper != null && wrapper.get() != null) {
+                    cached.put(id, wrapper.get());
+                }
+            }
+        }
+        return cached;
+    }
+
+    private static void backFill(Cache todoCache, Map<Object, Object> loaded) {
+        if (loaded.isEmpty()) {
+            return;
+        }
+        if (todoCache instanceof TwoLevelCache twoLevelCache) {
+            twoLevelCache.putAllIfAbsent(loaded);
+        } else if (todoCache != null) {
+            loaded.forEach(todoCache::putIfAbsent);
+        }
+    }
+
+    private void invalidate(Collection<Long> ids) {
+        // Announce first: nodes that hear of the write read from the primary, so they cannot re-cache
+        // an evicted todo from a lagging replica
+        cacheGenerations.bump(TODOS_CACHE);
+        Cache todoCache = cacheManager.getCache(TODO_CACHE);
+        if (todoCache != null) {
+            ids.forEach(todoCache::evict);
+        }
+    }
+
+    private void publishAll(TodoChangeType type, List<TodoResponse> todos) {
+        changeFeed.publishAll(todos.stream()
+                .map(todo -> new TodoChangeEvent(type, todo.id(), todo))
+                .toList());
+    }
+
+    private void requirePositiveLimit(int limit) {
+        if (limit <= 0) {
+            throw new BadRequestException("Limit must be positive");
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,139 @@
+package com.emobile.springtodo.service;
+
+import com.emobile.springtodo.admission.DatabaseWork;
+import com.emobile.springtodo.dto.response.TodoStatsResponse;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Serves todo totals from the {@code todo_counters} table, which triggers on {@code todos} keep up to date
+ * in the same transaction as every insert, update, delete and COPY (see the v1.5 migration).
+ * Archived todos still count (v1.6). A periodic reconciliation recounts both tables and corrects any drift
+ * without blocking writers.
+ */
+@Service
+@Slf4j
+public class TodoStatsService {
+
+    private static final String TOTAL = "total";
+    private static final String COMPLETED = "completed";
+    private static final String CREATED_PREFIX = "created:";
+
+    private static final String READ_SQL = "SELECT name, value FROM todo_counters WHERE name IN (?, ?, ?)";
+    private static final String COUNT_SQL = "SELECT count(*) AS total, "
+            + "count(*) FILTER (WHERE completed) AS completed, "
+            + "count(*) FILTER (WHERE created_at >= ? AND created_at < ?) AS created_today "
+            + "FROM (SELECT completed, created_at FROM todos "
+            + "UNION ALL SELECT completed, created_at FROM todos_archive) all_todos";
+    private static final String ADD_SQL = "INSERT INTO todo_counters AS c (name, value) VALUES (?, ?) "
+            + "ON CONFLICT (name) DO UPDATE SET value = c.value + EXCLUDED.value";
+    private static final String PRUNE_SQL = "DELETE FROM todo_counters WHERE name LIKE ? AND name <> ?";
+    // "todo_cnt" in ASCII; any constant works as long as nothing else locks it
+    private static final long RECONCILE_LOCK_KEY = 0x746F646F5F636E74L;
+    private static final String TRY_LOCK_SQL = "SELECT pg_try_advisory_xact_lock(?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate snapshotTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final DistributionSummary drift;
+
+    public TodoStatsService(JdbcTemplate jdbcTemplate,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.snapshotTemplate = new TransactionTemplate(transactionManager);
+        this.snapshotTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.snapshotTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.drift = DistributionSummary.builder("todo.stats.reconciliation.drift")
+                .description("Sum of absolute differences between counters and the recounted table")
+                .register(meterRegistry);
+    }
+
+    @DatabaseWork
+    @Transactional(readOnly = true)
+    public TodoStatsResponse getStats() {
+        String createdToday = CREATED_PREFIX + LocalDate.now();
+        Map<String, Long> counters = new HashMap<>();
+        for (Map<String, Object> row : jdbcTemplate.queryForList(READ_SQL, TOTAL, COMPLETED, createdToday)) {
+            counters.put((String) row.get("name"), ((Number) row.get("value")).longValue());
+        }
+        long total = counters.getOrDefault(TOTAL, 0L);
+        long completed = counters.getOrDefault(COMPLETED, 0L);
+        return new TodoStatsResponse(total, completed, total - completed, counters.getOrDefault(createdToday, 0L));
+    }
+
+    /**
+     * Recounts {@code todos} and {@code todos_archive} and corrects the counters by the drift found.
+     * <p>
+     * The recount and a read of the counters share one REPEATABLE READ snapshot, in which the counters match
+     * the rows exactly unless they drifted, so writers are never locked out. The difference is then added to
+     * the counters in a short transaction of its own: writes committed since the snapshot have already moved
+     * them through the triggers, and overwriting would lose those.
+     * <p>
+     * Since corrections add up, only one node may reconcile at a time: the correcting transaction takes an
+     * advisory lock before the snapshot is read and holds it until the correction commits. A node that does
+     * not get it skips the run; the next run of any node sees the corrected counters.
+     */
+    @Scheduled(fixedDelayString = "${app.stats.reconcile-interval}",
+            initialDelayString = "${app.stats.reconcile-interval}")
+    @DatabaseWork(bulk = true)
+    public void reconcile() {
+        LocalDate today = LocalDate.now();
+        String createdToday = CREATED_PREFIX + today;
+        Map<String, Long> deltas = transactionTemplate.execute(status -> {
+            if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(TRY_LOCK_SQL, Boolean.class, RECONCILE_LOCK_KEY))) {
+                log.debug("Todo counters are being reconciled by another node");
+                return null;
+            }
+            Map<String, Long> differences = snapshotTemplate.execute(snapshotStatus -> recount(today));
+            List<Object[]> corrections = differences.entrySet().stream()
+                    .filter(delta -> delta.getValue() != 0)
+                    .map(delta -> new Object[]{delta.getKey(), delta.getValue()})
+                    .toList();
+            if (!corrections.isEmpty()) {
+                jdbcTemplate.batchUpdate(ADD_SQL, corrections);
+            }
+            // Buckets of earlier days are never read again
+            jdbcTemplate.update(PRUNE_SQL, CREATED_PREFIX + "%", createdToday);
+            return differences;
+        });
+        if (deltas == null) {
+            return;
+        }
+
+        long difference = deltas.values().stream().mapToLong(Math::abs).sum();
+        drift.record(difference);
+        if (difference > 0) {
+            log.warn("Todo counters drifted by {}, corrected by {}", difference, deltas);
+        }
+    }
+
+    private Map<String, Long> recount(LocalDate today) {
+        TodoStatsResponse snapshot = getStats();
+        Map<String, Object> actual = jdbcTemplate.queryForMap(COUNT_SQL,
+                Timestamp.valueOf(today.atStartOfDay()), Timestamp.valueOf(today.plusDays(1).atStartOfDay()));
+        // Sorted by name, the order the triggers lock counter rows in
+        Map<String, Long> differences = new TreeMap<>();
+        differences.put(COMPLETED, ((Number) actual.get("completed")).longValue() - snapshot.completed());
+        differences.put(CREATED_PREFIX + today,
+                ((Number) actual.get("created_today")).longValue() - snapshot.createdToday());
+        differences.put(TOTAL, ((Number) actual.get("total")).longValue() - snapshot.total());
+        return differences;
+    }
+}
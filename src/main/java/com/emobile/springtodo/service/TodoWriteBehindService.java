@@ -0,0 +1,303 @@
+package com.emobile.springtodo.service;
+
+import com.emobile.springtodo.cache.CacheGenerations;
+import com.emobile.springtodo.dto.request.TodoRequest;
+import com.emobile.springtodo.exception.OverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Opt-in asynchronous updates for clients that rewrite the same todos at a high rate.
+ * <p>
+ * Accepted updates are appended to a local {@link TodoWriteLog} and kept in a bounded map keyed by id,
+ * so a later update to the same todo replaces the earlier one. A scheduled flush writes the map in
+ * one JDBC batch and invalidates the caches once per flush instead of once per update. When the map
+ * is full, submitters wait up to {@code app.write-behind.offer-timeout} and are then rejected with 503.
+ * <p>
+ * Every row update is guarded by {@code updated_at}, so neither a replayed log nor a stale queued
+ * update overwrites a newer synchronous write. Locks are {@link ReentrantLock}s rather than monitors so
+ * waiting virtual threads do not pin their carriers.
+ */
+@Service
+@Slf4j
+public class TodoWriteBehindService {
+
+    private static final String UPDATE_SQL = "UPDATE todos SET title = ?, description = ?, completed = ?, "
+            + "updated_at = ? WHERE id = ? AND updated_at <= ?";
+
+    private final TodoService todoService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheManager cacheManager;
+    private final CacheGenerations cacheGenerations;
+    private final int capacity;
+    private final long offerTimeoutNanos;
+    private final Duration flushInterval;
+    private final int batchSize;
+    private final TodoWriteLog writeLog;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+    private Map<Long, PendingTodoUpdate> pending = new LinkedHashMap<>();
+
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final List<Path> sealedSegments = new ArrayList<>();
+
+    private final Counter coalesced;
+    private final Counter rejected;
+    private final Counter flushed;
+    private final Counter stale;
+    private final Timer flushTimer;
+
+    public TodoWriteBehindService(TodoService todoService,
+                                  JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager,
+                                  CacheManager cacheManager,
+                                  CacheGenerations cacheGenerations,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.write-behind.enabled:false}") boolean enabled,
+                                  @Value("${app.write-behind.capacity:10000}") int capacity,
+                                  @Value("${app.write-behind.offer-timeout:100ms}") Duration offerTimeout,
+                                  @Value("${app.write-behind.flush-interval:PT0.2S}") Duration flushInterval,
+                                  @Value("${app.write-behind.batch-size:500}") int batchSize,
+                                  @Value("${app.write-behind.log-dir:data/write-behind}") Path logDirectory,
+                                  @Value("${app.write-behind.fsync:true}") boolean fsync) throws IOException {
+        this.todoService = todoService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.cacheManager = cacheManager;
+        this.cacheGenerations = cacheGenerations;
+        this.capacity = capacity;
+        this.offerTimeoutNanos = offerTimeout.toNanos();
+        this.flushInterval = flushInterval;
+        this.batchSize = batchSize;
+        this.writeLog = enabled ? new TodoWriteLog(logDirectory, fsync) : null;
+
+        this.coalesced = Counter.builder("todo.writebehind.coalesced")
+                .description("Queued updates replaced by a later update to the same todo")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("todo.writebehind.rejected")
+                .description("Updates rejected because the queue stayed full")
+                .register(meterRegistry);
+        this.flushed = Counter.builder("todo.writebehind.flushed")
+                .description("Updates written to the database")
+                .register(meterRegistry);
+        this.stale = Counter.builder("todo.writebehind.stale")
+                .description("Flushed updates that matched no row, because the todo was deleted or rewritten since")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("todo.writebehind.flush")
+                .description("Write-behind flush latency")
+                .register(meterRegistry);
+        Gauge.builder("todo.writebehind.pending", this, TodoWriteBehindService::pendingCount)
+                .description("Updates acknowledged but not yet flushed")
+                .register(meterRegistry);
+
+        if (writeLog != null) {
+            recover();
+        }
+    }
+
+    public boolean isEnabled() {
+        return writeLog != null;
+    }
+
+    /**
+     * Accepts an update for later persistence, or applies it immediately when write-behind is disabled.
+     * Once this returns, the update survives a crash.
+     */
+    public void submit(Long id, TodoRequest request) {
+        if (writeLog == null) {
+            todoService.update(id, request);
+            return;
+        }
+        // Unknown ids are rejected now rather than silently dropped by the flush
+        todoService.findById(id);
+
+        PendingTodoUpdate update = new PendingTodoUpdate(
+                id, request.title(), request.description(), request.completed(), LocalDateTime.now());
+        FileChannel segment;
+        lock.lock();
+        try {
+            awaitCapacity(id);
+            segment = writeLog.append(update);
+            if (pending.put(id, update) != null) {
+                coalesced.increment();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.unlock();
+        }
+        try {
+            writeLog.force(segment);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.write-behind.flush-interval}")
+    public void flush() {
+        if (writeLog == null) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            Map<Long, PendingTodoUpdate> batch;
+            lock.lock();
+            try {
+                if (pending.isEmpty()) {
+                    return;
+                }
+                sealedSegments.add(writeLog.rotate());
+                batch = pending;
+                pending = new LinkedHashMap<>();
+                notFull.signalAll();
+            } catch (IOException e) {
+                log.warn("Could not rotate the write-behind log, retrying on the next flush", e);
+                return;
+            } finally {
+                lock.unlock();
+            }
+
+            try {
+                flushTimer.record(() -> persist(List.copyOf(batch.values())));
+            } catch (RuntimeException e) {
+                log.warn("Write-behind flush of {} updates failed, retrying on the next flush", batch.size(), e);
+                requeue(batch);
+                return;
+            }
+            try {
+                writeLog.delete(sealedSegments);
+                sealedSegments.clear();
+            } catch (IOException e) {
+                // Replaying an applied update is harmless; deletion is retried after the next flush
+                log.warn("Could not delete flushed write-behind segments", e);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        if (writeLog == null) {
+            return;
+        }
+        flush();
+        writeLog.close();
+    }
+
+    int pendingCount() {
+        lock.lock();
+        try {
+            return pending.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void awaitCapacity(Long id) {
+        long remaining = offerTimeoutNanos;
+        try {
+            while (pending.size() >= capacity && !pending.containsKey(id)) {
+                if (remaining <= 0) {
+                    rejected.increment();
+                    throw new OverloadedException("Write-behind queue is full", flushInterval);
+                }
+                remaining = notFull.awaitNanos(remaining);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OverloadedException("Interrupted while waiting for write-behind capacity", flushInterval);
+        }
+    }
+
+    private void persist(List<PendingTodoUpdate> updates) {
+        int[][] counts = transactionTemplate.execute(status -> jdbcTemplate.batchUpdate(
+                UPDATE_SQL, updates, batchSize, (ps, update) -> {
+                    Timestamp updatedAt = Timestamp.valueOf(update.updatedAt());
+                    ps.setString(1, update.title());
+                    ps.setString(2, update.description());
+                    ps.setBoolean(3, update.completed());
+                    ps.setTimestamp(4, updatedAt);
+                    ps.setLong(5, update.id());
+                    ps.setTimestamp(6, updatedAt);
+                }));
+        // Batches are executed in order, so the flattened counts line up with the updates
+        int[] matched = counts == null ? new int[0] : Arrays.stream(counts)
+                .flatMapToInt(Arrays::stream)
+                .toArray();
+        List<Long> applied = new ArrayList<>(updates.size());
+        for (int i = 0; i < matched.length; i++) {
+            if (matched[i] > 0) {
+                applied.add(updates.get(i).id());
+            }
+        }
+        flushed.increment(updates.size());
+        stale.increment(matched.length - applied.size());
+
+        // Announced before the evictions, as in TodoService
+        cacheGenerations.bump(TodoService.TODOS_CACHE);
+        Cache todoCache = cacheManager.getCache(TodoService.TODO_CACHE);
+        if (todoCache != null) {
+            updates.forEach(update -> todoCache.evict(update.id()));
+        }
+        try {
+            // Stale updates were superseded by writes that published their own changes
+            todoService.publishUpdated(applied);
+        } catch (RuntimeException e) {
+            // The flush has committed; failing it now would only replay it
+            log.warn("Could not publish {} flushed updates to the change feed", applied.size(), e);
+        }
+    }
+
+    private void requeue(Map<Long, PendingTodoUpdate> batch) {
+        lock.lock();
+        try {
+            // Updates accepted since the swap are newer and win
+            batch.forEach(pending::putIfAbsent);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void recover() throws IOException {
+        List<Path> segments = writeLog.open();
+        for (Path segment : segments) {
+            for (PendingTodoUpdate update : TodoWriteLog.read(segment)) {
+                pending.put(update.id(), update);
+            }
+        }
+        sealedSegments.addAll(segments);
+        if (!pending.isEmpty()) {
+            log.info("Recovered {} unflushed write-behind updates from {} segments", pending.size(), segments.size());
+        }
+    }
+}
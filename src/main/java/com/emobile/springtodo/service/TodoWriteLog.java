@@ -0,0 +1,205 @@
+package com.emobile.springtodo.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of write-behind updates, split into numbered segments. Every accepted update is
+ * appended to the open segment; {@link #rotate()} seals it so the flusher can delete it once the
+ * updates it holds are committed. Segments left behind by a crash are replayed on startup.
+ * <p>
+ * Records are framed as {@code length, crc32, payload}; a torn record at the end of a segment
+ * (the process died mid-append, before the update was acknowledged) ends that segment's replay.
+ * Not thread-safe: appends and rotation happen under the owner's lock, only {@link #force} is called
+ * concurrently.
+ */
+@Slf4j
+class TodoWriteLog {
+
+    private static final String PREFIX = "segment-";
+    private static final String SUFFIX = ".log";
+    // Titles and descriptions are capped at 100 and 500 characters
+    private static final int MAX_RECORD_BYTES = 8 * 1024;
+
+    private final Path directory;
+    private final boolean fsync;
+    private long sequence;
+    private Path currentPath;
+    private FileChannel current;
+
+    TodoWriteLog(Path directory, boolean fsync) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.fsync = fsync;
+    }
+
+    /**
+     * Returns the sealed segments found on disk, oldest first, and opens a fresh one after them.
+     */
+    List<Path> open() throws IOException {
+        List<Path> segments;
+        try (Stream<Path> files = Files.list(directory)) {
+            segments = files
+                    .filter(path -> sequenceOf(path) >= 0)
+                    .sorted(Comparator.comparingLong(TodoWriteLog::sequenceOf))
+                    .toList();
+        }
+        sequence = segments.isEmpty() ? 0 : sequenceOf(segments.get(segments.size() - 1)) + 1;
+        openSegment();
+        return segments;
+    }
+
+    static List<PendingTodoUpdate> read(Path segment) throws IOException {
+        List<PendingTodoUpdate> updates = new ArrayList<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(segment)))) {
+            while (true) {
+                int length;
+                try {
+                    length = in.readInt();
+                } catch (EOFException e) {
+                    return updates;
+                }
+                byte[] payload;
+                long checksum;
+                try {
+                    checksum = in.readLong();
+                    if (length < 0 || length > MAX_RECORD_BYTES) {
+                        throw new EOFException();
+                    }
+                    payload = new byte[length];
+                    in.readFully(payload);
+                } catch (EOFException e) {
+                    log.warn("Ignoring torn record at the end of {}", segment);
+                    return updates;
+                }
+                CRC32 crc = new CRC32();
+                crc.update(payload);
+                if (crc.getValue() != checksum) {
+                    log.warn("Ignoring corrupt record at the end of {}", segment);
+                    return updates;
+                }
+                updates.add(decode(payload));
+            }
+        }
+    }
+
+    /**
+     * Writes the record to the open segment and returns that segment, to be passed to {@link #force}.
+     */
+    FileChannel append(PendingTodoUpdate update) throws IOException {
+        byte[] payload = encode(update);
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        ByteBuffer record = ByteBuffer.allocate(Integer.BYTES + Long.BYTES + payload.length)
+                .putInt(payload.length)
+                .putLong(crc.getValue())
+                .put(payload)
+                .flip();
+        while (record.hasRemaining()) {
+            current.write(record);
+        }
+        return current;
+    }
+
+    /**
+     * Makes an appended record durable. Runs outside the owner's lock so concurrent appenders share
+     * one fsync. A segment is only closed after it has been forced, so a closed channel means the
+     * record is already on disk.
+     */
+    void force(FileChannel segment) throws IOException {
+        if (!fsync) {
+            return;
+        }
+        try {
+            segment.force(false);
+        } catch (ClosedChannelException e) {
+            // sealed by rotate(), which forced it first
+        }
+    }
+
+    /**
+     * Seals the open segment and starts a new one. Returns the sealed segment's path.
+     */
+    Path rotate() throws IOException {
+        Path sealed = currentPath;
+        if (fsync) {
+            current.force(false);
+        }
+        current.close();
+        openSegment();
+        return sealed;
+    }
+
+    void delete(List<Path> segments) throws IOException {
+        for (Path segment : segments) {
+            Files.deleteIfExists(segment);
+        }
+    }
+
+    void close() throws IOException {
+        current.close();
+    }
+
+    private void openSegment() throws IOException {
+        currentPath = directory.resolve(PREFIX + sequence++ + SUFFIX);
+        current = FileChannel.open(currentPath, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+    }
+
+    private static long sequenceOf(Path path) {
+        String name = path.getFileName().toString();
+        if (!name.startsWith(PREFIX) || !name.endsWith(SUFFIX)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(name, PREFIX.length(), name.length() - SUFFIX.length(), 10);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static byte[] encode(PendingTodoUpdate update) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeLong(update.id());
+            out.writeUTF(update.updatedAt().toString());
+            out.writeUTF(update.title());
+            out.writeBoolean(update.description() != null);
+            if (update.description() != null) {
+                out.writeUTF(update.description());
+            }
+            out.writeBoolean(update.completed());
+        }
+        return bytes.toByteArray();
+    }
+
+    private static PendingTodoUpdate decode(byte[] payload) throws IOException {
+        try (InputStream bytes = new ByteArrayInputStream(payload);
+             DataInputStream in = new DataInputStream(bytes)) {
+            long id = in.readLong();
+            LocalDateTime updatedAt = LocalDateTime.parse(in.readUTF());
+            String title = in.readUTF();
+            String description = in.readBoolean() ? in.readUTF() : null;
+            boolean completed = in.readBoolean();
+            return new PendingTodoUpdate(id, title, description, completed, updatedAt);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.emobile.springtodo.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("reactive")
+class ReactiveLoadBenchmarkTest extends ThreadingModeLoadBenchmark {
+
+    @Override
+    protected String mode() {
+        return "Reactive";
+    }
+}
@@ -0,0 +1,144 @@
+package com.emobile.springtodo.unit;
+
+import com.emobile.springtodo.cache.ReactiveTodoCache;
+import com.emobile.springtodo.dto.request.TodoRequest;
+import com.emobile.springtodo.dto.response.TodoChangeType;
+import com.emobile.springtodo.dto.response.TodoResponse;
+import com.emobile.springtodo.exception.BadRequestException;
+import com.emobile.springtodo.exception.ResourceNotFoundException;
+import com.emobile.springtodo.mapper.TodoMapper;
+import com.emobile.springtodo.model.Todo;
+import com.emobile.springtodo.repository.ReactiveTodoRepository;
+import com.emobile.springtodo.service.ReactiveTodoChangePublisher;
+import com.emobile.springtodo.service.ReactiveTodoService;
+import com.emobile.springtodo.service.TodoService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveTodoServiceTest {
+
+    @Mock
+    private ReactiveTodoRepository todoRepository;
+
+    @Mock
+    private TodoMapper todoMapper;
+
+    @Mock
+    private ReactiveTodoCache todoCache;
+
+    @Mock
+    private ReactiveTodoChangePublisher changePublisher;
+
+    @InjectMocks
+    private ReactiveTodoService todoService;
+
+    private Todo todo;
+    private TodoResponse response;
+
+    @BeforeEach
+    void setUp() {
+        LocalDateTime now = LocalDateTime.of(2025, 1, 1, 0, 0);
+        todo = Todo.builder().id(1L).title("Test Todo").createdAt(now).updatedAt(now).build();
+        response = new TodoResponse(1L, "Test Todo", null, false, now.toString(), now.toString());
+        lenient().when(todoMapper.toResponse(todo)).thenReturn(response);
+        lenient().when(changePublisher.publish(any(), anyLong(), any())).thenReturn(Mono.empty());
+    }
+
+    @Test
+    @DisplayName("findById - Should load and cache the todo on a miss")
+    void findById_ShouldPopulateCacheOnMiss() {
+        when(todoCache.get(1L, TodoResponse.class)).thenReturn(Mono.empty());
+        when(todoRepository.findById(1L)).thenReturn(Mono.just(todo));
+        when(todoCache.store(1L, response)).thenReturn(Mono.empty());
+
+        StepVerifier.create(todoService.findById(1L))
+                .expectNext(response)
+                .verifyComplete();
+        verify(todoCache).store(1L, response);
+    }
+
+    @Test
+    @DisplayName("findById - Should not touch the database on a hit")
+    void findById_ShouldServeCachedTodo() {
+        when(todoCache.get(1L, TodoResponse.class)).thenReturn(Mono.just(response));
+
+        StepVerifier.create(todoService.findById(1L))
+                .expectNext(response)
+                .verifyComplete();
+        verifyNoInteractions(todoRepository);
+    }
+
+    @Test
+    @DisplayName("findById - Should signal not found when the todo is missing")
+    void findById_ShouldFailWhenMissing() {
+        when(todoCache.get(2L, TodoResponse.class)).thenReturn(Mono.empty());
+        when(todoRepository.findById(2L)).thenReturn(Mono.empty());
+
+        StepVerifier.create(todoService.findById(2L))
+                .verifyError(ResourceNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("findAll - Should reject a non-positive limit without querying")
+    void findAll_ShouldRejectInvalidLimit() {
+        StepVerifier.create(todoService.findAll(0, 0, null))
+                .verifyError(BadRequestException.class);
+        verifyNoInteractions(todoRepository);
+    }
+
+    @Test
+    @DisplayName("findSlice - Should return a cursor when more rows exist")
+    void findSlice_ShouldReturnNextCursor() {
+        Todo second = Todo.builder().id(2L).title("Second").createdAt(todo.getCreatedAt()).build();
+        when(todoRepository.findFirstSlice(2)).thenReturn(Flux.just(todo, second));
+
+        StepVerifier.create(todoService.findSlice(1, null))
+                .assertNext(slice -> {
+                    assertTrue(slice.hasNext());
+                    assertNotNull(slice.nextCursor());
+                    assertEquals(1, slice.content().size());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("update - Should refresh the cache, bump the list generation and publish the change")
+    void update_ShouldRefreshCache() {
+        when(todoRepository.updateReturning(eq(1L), eq("Test Todo"), isNull(), eq(false), any()))
+                .thenReturn(Mono.just(todo));
+        when(todoCache.put(1L, response)).thenReturn(Mono.empty());
+        when(todoCache.bumpGeneration(TodoService.TODOS_CACHE)).thenReturn(Mono.just(2L));
+
+        StepVerifier.create(todoService.update(1L, new TodoRequest("Test Todo", null, false)))
+                .expectNext(response)
+                .verifyComplete();
+        verify(todoCache).bumpGeneration(TodoService.TODOS_CACHE);
+        verify(changePublisher).publish(TodoChangeType.UPDATED, 1L, response);
+    }
+
+    @Test
+    @DisplayName("delete - Should signal not found when nothing was deleted")
+    void delete_ShouldFailWhenMissing() {
+        when(todoRepository.deleteReturningCount(2L)).thenReturn(Mono.just(0L));
+
+        StepVerifier.create(todoService.delete(2L))
+                .verifyError(ResourceNotFoundException.class);
+        verify(todoCache, never()).evict(any());
+        verifyNoInteractions(changePublisher);
+    }
+}
@@ -0,0 +1,129 @@
+package com.emobile.springtodo.web;
+
+import com.emobile.springtodo.controller.ReactiveTodoController;
+import com.emobile.springtodo.dto.request.TodoRequest;
+import com.emobile.springtodo.dto.response.TodoResponse;
+import com.emobile.springtodo.exception.ResourceNotFoundException;
+import com.emobile.springtodo.repository.TodoFilter;
+import com.emobile.springtodo.repository.TodoSortField;
+import com.emobile.springtodo.service.ReactiveTodoService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+
+@WebFluxTest(controllers = ReactiveTodoController.class)
+@ActiveProfiles("reactive")
+class ReactiveTodoControllerWebFluxTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockBean
+    private ReactiveTodoService todoService;
+
+    private final TodoResponse testResponse = new TodoResponse(
+            1L, "Test Todo", "Test Description", false, null, null);
+
+    @Test
+    void getAllTodos_ShouldStreamTodos() {
+        TodoFilter filter = new TodoFilter(true, null, null, null, null, TodoSortField.TITLE, Sort.Direction.DESC,
+                false);
+        given(todoService.findAll(10, 0, filter)).willReturn(Flux.just(testResponse, testResponse));
+
+        webTestClient.get()
+                .uri("/api/todos?completed=true&sort=title&direction=desc")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[0].title").isEqualTo("Test Todo");
+    }
+
+    @Test
+    void getAllTodos_ShouldWriteNdjsonWhenRequested() {
+        given(todoService.findAll(10, 0, TodoFilter.NONE)).willReturn(Flux.just(testResponse, testResponse));
+
+        webTestClient.get()
+                .uri("/api/todos")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBodyList(TodoResponse.class).hasSize(2);
+    }
+
+    @Test
+    void getAllTodos_ShouldReturnBadRequestForUnknownSortField() {
+        webTestClient.get()
+                .uri("/api/todos?sort=priority")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void getTodosAfter_ShouldReturnBadRequestWhenFilterGiven() {
+        webTestClient.get()
+                .uri("/api/todos?after=&includeArchived=true")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void getTodoById_ShouldReturnNotFoundWhenMissing() {
+        given(todoService.findById(99L))
+                .willReturn(Mono.error(new ResourceNotFoundException("Todo not found with id: 99")));
+
+        webTestClient.get()
+                .uri("/api/todos/{id}", 99L)
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Todo not found with id: 99");
+    }
+
+    @Test
+    void createTodo_ShouldReturnCreated() {
+        given(todoService.create(any(TodoRequest.class))).willReturn(Mono.just(testResponse));
+
+        webTestClient.post()
+                .uri("/api/todos")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new TodoRequest("Test Todo", null, false))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(1);
+    }
+
+    @Test
+    void createTodo_ShouldReturnBadRequestWhenInvalid() {
+        webTestClient.post()
+                .uri("/api/todos")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new TodoRequest("", null, false))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Validation error");
+    }
+
+    @Test
+    void deleteTodo_ShouldReturnNoContent() {
+        given(todoService.delete(1L)).willReturn(Mono.empty());
+
+        webTestClient.delete()
+                .uri("/api/todos/{id}", 1L)
+                .exchange()
+                .expectStatus().isNoContent();
+    }
+}
@@ -0,0 +1,105 @@
+package com.emobile.springtodo.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Non-blocking access to one Redis cache and to the cache generations, for the {@code reactive} profile.
+ * Keys, value codec, generation script and broadcast channels are the ones {@link TwoLevelCacheManager} and
+ * {@link CacheGenerations} use, so servlet and reactive nodes can share a Redis: writes here evict the
+ * servlet nodes' local copies and move their list generations on.
+ * <p>
+ * Read failures degrade to a cache miss; write failures propagate, as they do through {@link CacheGenerations}.
+ */
+@Slf4j
+public class ReactiveTodoCache {
+
+    private final ReactiveRedisTemplate<String, Object> redisTemplate;
+    private final ReactiveStringRedisTemplate stringRedisTemplate;
+    private final String cacheName;
+    private final Duration ttl;
+    private final String invalidationChannel;
+    private final String generationChannel;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    public ReactiveTodoCache(ReactiveRedisTemplate<String, Object> redisTemplate,
+                             ReactiveStringRedisTemplate stringRedisTemplate,
+                             String cacheName,
+                             Duration ttl,
+                             String invalidationChannel,
+                             String generationChannel) {
+        this.redisTemplate = redisTemplate;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.cacheName = cacheName;
+        this.ttl = ttl;
+        this.invalidationChannel = invalidationChannel;
+        this.generationChannel = generationChannel;
+    }
+
+    public <T> Mono<T> get(Object key, Class<T> type) {
+        return redisTemplate.opsForValue().get(redisKey(key))
+                .filter(type::isInstance)
+                .cast(type)
+                .onErrorResume(e -> {
+                    log.warn("Failed to read {} from cache {}: {}", key, cacheName, e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * Populates the cache after a miss. Nothing changed, so peers are not notified.
+     */
+    public Mono<Void> store(Object key, Object value) {
+        return redisTemplate.opsForValue().set(redisKey(key), value, ttl)
+                .onErrorResume(e -> {
+                    log.warn("Failed to store {} in cache {}: {}", key, cacheName, e.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    public Mono<Void> put(Object key, Object value) {
+        return redisTemplate.opsForValue().set(redisKey(key), value, ttl)
+                .then(publishEvict(key));
+    }
+
+    public Mono<Void> evict(Object key) {
+        return redisTemplate.delete(redisKey(key))
+                .then(publishEvict(key));
+    }
+
+    public Mono<Long> bumpGeneration(String name) {
+        return stringRedisTemplate.execute(CacheGenerations.GENERATION_SCRIPT, List.of(CacheGenerations.key(name)),
+                        List.of("1"))
+                .next()
+                .flatMap(generation -> stringRedisTemplate
+                        .convertAndSend(generationChannel, CacheGenerations.message(name, generation))
+                        .onErrorResume(e -> {
+                            log.warn("Failed to publish generation {} of cache {}: {}",
+                                    generation, name, e.getMessage());
+                            return Mono.empty();
+                        })
+                        .thenReturn(generation));
+    }
+
+    private Mono<Void> publishEvict(Object key) {
+        String message = CacheInvalidationMessage.evict(nodeId, cacheName, String.valueOf(key)).encode();
+        return stringRedisTemplate.convertAndSend(invalidationChannel, message)
+                .onErrorResume(e -> {
+                    // Peers fall back to the local TTL when the broadcast is lost
+                    log.warn("Failed to publish cache invalidation of {} in {}: {}", key, cacheName, e.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private String redisKey(Object key) {
+        return cacheName + "::" + key;
+    }
+}
@@ -0,0 +1,46 @@
+package com.emobile.springtodo.config;
+
+import com.emobile.springtodo.cache.ReactiveTodoCache;
+import com.emobile.springtodo.cache.TodoRedisSerializer;
+import com.emobile.springtodo.service.ReactiveTodoChangePublisher;
+import com.emobile.springtodo.service.TodoService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+@Configuration
+@Profile("reactive")
+public class ReactiveConfig {
+
+    @Bean
+    public ReactiveTodoCache reactiveTodoCache(
+            ReactiveRedisConnectionFactory connectionFactory,
+            ReactiveStringRedisTemplate reactiveStringRedisTemplate,
+            TodoRedisSerializer todoRedisSerializer,
+            @Value("${app.cache.invalidation-channel}") String invalidationChannel,
+            @Value("${app.cache.generation-channel}") String generationChannel) {
+        RedisSerializationContext<String, Object> context = RedisSerializationContext
+                .<String, Object>newSerializationContext(StringRedisSerializer.UTF_8)
+                .value(todoRedisSerializer)
+                .build();
+        return new ReactiveTodoCache(new ReactiveRedisTemplate<>(connectionFactory, context),
+                reactiveStringRedisTemplate, TodoService.TODO_CACHE, CacheConfig.DEFAULT_TTL,
+                invalidationChannel, generationChannel);
+    }
+
+    @Bean
+    public ReactiveTodoChangePublisher reactiveTodoChangePublisher(
+            ReactiveStringRedisTemplate reactiveStringRedisTemplate,
+            ObjectMapper objectMapper,
+            @Value("${app.changes.channel}") String channel,
+            @Value("${app.changes.sequence-key}") String sequenceKey) {
+        return new ReactiveTodoChangePublisher(reactiveStringRedisTemplate, objectMapper, channel, sequenceKey);
+    }
+}
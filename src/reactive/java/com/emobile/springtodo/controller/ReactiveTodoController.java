@@ -0,0 +1,88 @@
+package com.emobile.springtodo.controller;
+
+import com.emobile.springtodo.dto.request.TodoRequest;
+import com.emobile.springtodo.dto.response.TodoResponse;
+import com.emobile.springtodo.dto.response.TodoSliceResponse;
+import com.emobile.springtodo.repository.TodoFilter;
+import com.emobile.springtodo.repository.TodoSortField;
+import com.emobile.springtodo.service.ReactiveTodoService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * WebFlux variant of {@link TodoControllerImpl} for the {@code reactive} profile, serving the same paths,
+ * parameters and payloads for the CRUD and list endpoints. Lists are written as they are read; with
+ * {@code Accept: application/x-ndjson} each todo is flushed as its own line.
+ */
+@RestController
+@RequestMapping("/api/todos")
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveTodoController {
+
+    private final ReactiveTodoService todoService;
+
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<TodoResponse> getAllTodos(
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(required = false) Boolean completed,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            LocalDateTime createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            LocalDateTime createdTo,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            LocalDateTime updatedFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            LocalDateTime updatedTo,
+            @RequestParam(defaultValue = "createdAt") String sort,
+            @RequestParam(defaultValue = "asc") String direction,
+            @RequestParam(defaultValue = "false") boolean includeArchived) {
+        TodoFilter filter = new TodoFilter(completed, createdFrom, createdTo, updatedFrom, updatedTo,
+                TodoSortField.from(sort), TodoFilter.direction(direction), includeArchived);
+        return todoService.findAll(limit, offset, filter);
+    }
+
+    @GetMapping(params = "after")
+    public Mono<TodoSliceResponse> getTodosAfter(
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam String after,
+            ServerHttpRequest request) {
+        TodoFilter.requireNoListingParameters(request.getQueryParams()::containsKey);
+        return todoService.findSlice(limit, after);
+    }
+
+    @GetMapping("/{id}")
+    public Mono<TodoResponse> getTodoById(@PathVariable Long id) {
+        return todoService.findById(id);
+    }
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<TodoResponse> createTodo(@Valid @RequestBody TodoRequest request) {
+        return todoService.create(request);
+    }
+
+    @PutMapping("/{id}")
+    public Mono<TodoResponse> updateTodo(
+            @PathVariable Long id,
+            @Valid @RequestBody TodoRequest request) {
+        return todoService.update(id, request);
+    }
+
+    @DeleteMapping("/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public Mono<Void> deleteTodo(@PathVariable Long id) {
+        return todoService.delete(id);
+    }
+}
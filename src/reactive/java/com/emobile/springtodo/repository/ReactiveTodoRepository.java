@@ -0,0 +1,122 @@
+package com.emobile.springtodo.repository;
+
+import com.emobile.springtodo.model.Todo;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.DatabaseClient.GenericExecuteSpec;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * R2DBC counterpart of {@link TodoRepository} for the {@code reactive} profile. Multi-row reads set a
+ * fetch size, so the driver pulls rows from a server-side portal only as fast as subscribers request them.
+ */
+@Repository
+@Profile("reactive")
+public class ReactiveTodoRepository {
+
+    private static final String FIND_BY_ID_SQL = "SELECT " + TodoRowMapper.COLUMNS + " FROM todos WHERE id = $1";
+    private static final String FIRST_SLICE_SQL =
+            "SELECT " + TodoRowMapper.COLUMNS + " FROM todos ORDER BY created_at, id LIMIT $1";
+    private static final String SLICE_AFTER_SQL = "SELECT " + TodoRowMapper.COLUMNS + " FROM todos "
+            + "WHERE (created_at, id) > ($1, $2) ORDER BY created_at, id LIMIT $3";
+    // Takes a whole value of the pooled sequence; Hibernate never hands out the value nextval returned to us
+    private static final String INSERT_SQL = "INSERT INTO todos (id, title, description, completed, created_at, "
+            + "updated_at) VALUES (nextval('todos_id_seq'), $1, $2, $3, $4, $5) RETURNING " + TodoRowMapper.COLUMNS;
+    private static final String UPDATE_RETURNING_SQL =
+            "UPDATE todos SET title = $1, description = $2, completed = $3, updated_at = $4 WHERE id = $5 "
+                    + "RETURNING " + TodoRowMapper.COLUMNS;
+    private static final String DELETE_SQL = "DELETE FROM todos WHERE id = $1";
+
+    private final DatabaseClient databaseClient;
+    private final int fetchSize;
+
+    public ReactiveTodoRepository(DatabaseClient databaseClient,
+                                  @Value("${app.reactive.fetch-size}") int fetchSize) {
+        this.databaseClient = databaseClient;
+        this.fetchSize = fetchSize;
+    }
+
+    public Flux<Todo> findPage(TodoFilter filter, int limit, long offset) {
+        TodoPageQuery query = TodoPageQuery.of(filter, limit, offset, index -> "$" + (index + 1));
+        return stream(bindAll(databaseClient.sql(query.sql()), query.args()));
+    }
+
+    public Flux<Todo> findFirstSlice(int limit) {
+        return stream(databaseClient.sql(FIRST_SLICE_SQL).bind(0, limit));
+    }
+
+    public Flux<Todo> findSliceAfter(LocalDateTime createdAt, long id, int limit) {
+        return stream(databaseClient.sql(SLICE_AFTER_SQL)
+                .bind(0, createdAt)
+                .bind(1, id)
+                .bind(2, limit));
+    }
+
+    public Mono<Todo> findById(long id) {
+        return databaseClient.sql(FIND_BY_ID_SQL)
+                .bind(0, id)
+                .map(ReactiveTodoRepository::toTodo)
+                .one();
+    }
+
+    public Mono<Todo> insert(Todo todo) {
+        return bindNullable(databaseClient.sql(INSERT_SQL).bind(0, todo.getTitle()), 1, todo.getDescription())
+                .bind(2, todo.isCompleted())
+                .bind(3, todo.getCreatedAt())
+                .bind(4, todo.getUpdatedAt())
+                .map(ReactiveTodoRepository::toTodo)
+                .one();
+    }
+
+    public Mono<Todo> updateReturning(long id, String title, String description, boolean completed,
+                                      LocalDateTime updatedAt) {
+        return bindNullable(databaseClient.sql(UPDATE_RETURNING_SQL).bind(0, title), 1, description)
+                .bind(2, completed)
+                .bind(3, updatedAt)
+                .bind(4, id)
+                .map(ReactiveTodoRepository::toTodo)
+                .one();
+    }
+
+    public Mono<Long> deleteReturningCount(long id) {
+        return databaseClient.sql(DELETE_SQL)
+                .bind(0, id)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private Flux<Todo> stream(GenericExecuteSpec spec) {
+        return spec.filter((statement, next) -> next.execute(statement.fetchSize(fetchSize)))
+                .map(ReactiveTodoRepository::toTodo)
+                .all();
+    }
+
+    private static GenericExecuteSpec bindAll(GenericExecuteSpec spec, List<Object> args) {
+        for (int i = 0; i < args.size(); i++) {
+            spec = spec.bind(i, args.get(i));
+        }
+        return spec;
+    }
+
+    private static GenericExecuteSpec bindNullable(GenericExecuteSpec spec, int index, String value) {
+        return value == null ? spec.bindNull(index, String.class) : spec.bind(index, value);
+    }
+
+    private static Todo toTodo(Readable row) {
+        return Todo.builder()
+                .id(row.get("id", Long.class))
+                .title(row.get("title", String.class))
+                .description(row.get("description", String.class))
+                .completed(Boolean.TRUE.equals(row.get("completed", Boolean.class)))
+                .createdAt(row.get("created_at", LocalDateTime.class))
+                .updatedAt(row.get("updated_at", LocalDateTime.class))
+                .build();
+    }
+}
@@ -0,0 +1,55 @@
+package com.emobile.springtodo.service;
+
+import com.emobile.springtodo.dto.response.TodoChangeEvent;
+import com.emobile.springtodo.dto.response.TodoChangeType;
+import com.emobile.springtodo.dto.response.TodoResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Publishes the todo changes of the {@code reactive} profile with the sequence key, script and payload format of
+ * {@link TodoChangeFeed}, so servlet nodes sharing the Redis stream them to their subscribers in order with
+ * their own writes. Reactive nodes do not serve the feed themselves.
+ * <p>
+ * Failures are logged rather than signalled, as in {@link TodoChangeFeed#publishAll}: the write has already
+ * happened, and subscribers recover through {@code reset} on reconnect.
+ */
+@Slf4j
+public class ReactiveTodoChangePublisher {
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final String channel;
+    private final String sequenceKey;
+
+    public ReactiveTodoChangePublisher(ReactiveStringRedisTemplate redisTemplate,
+                                       ObjectMapper objectMapper,
+                                       String channel,
+                                       String sequenceKey) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.channel = channel;
+        this.sequenceKey = sequenceKey;
+    }
+
+    public Mono<Void> publish(TodoChangeType type, long id, TodoResponse todo) {
+        String payload;
+        try {
+            payload = TodoChangeFeed.payload(objectMapper, new TodoChangeEvent(type, id, todo));
+        } catch (JsonProcessingException e) {
+            log.warn("Failed to publish todo change {} of {}: {}", type, id, e.getMessage());
+            return Mono.empty();
+        }
+        return redisTemplate.execute(TodoChangeFeed.PUBLISH_SCRIPT, List.of(sequenceKey), List.of(channel, payload))
+                .then()
+                .onErrorResume(e -> {
+                    log.warn("Failed to publish todo change {} of {}: {}", type, id, e.getMessage());
+                    return Mono.empty();
+                });
+    }
+}
@@ -0,0 +1,117 @@
+package com.emobile.springtodo.service;
+
+import com.emobile.springtodo.cache.ReactiveTodoCache;
+import com.emobile.springtodo.dto.request.TodoRequest;
+import com.emobile.springtodo.dto.response.TodoChangeType;
+import com.emobile.springtodo.dto.response.TodoResponse;
+import com.emobile.springtodo.dto.response.TodoSliceResponse;
+import com.emobile.springtodo.exception.BadRequestException;
+import com.emobile.springtodo.exception.ResourceNotFoundException;
+import com.emobile.springtodo.mapper.TodoMapper;
+import com.emobile.springtodo.model.Todo;
+import com.emobile.springtodo.repository.ReactiveTodoRepository;
+import com.emobile.springtodo.repository.TodoFilter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Non-blocking {@link TodoService} for the {@code reactive} profile. Single todos go through the shared
+ * Redis cache; lists are streamed straight from the database rather than cached, so that demand from
+ * the client reaches the query. Writes are published to the change feed of the servlet nodes.
+ */
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveTodoService {
+
+    private final ReactiveTodoRepository todoRepository;
+    private final TodoMapper todoMapper;
+    private final ReactiveTodoCache todoCache;
+    private final ReactiveTodoChangePublisher changePublisher;
+
+    public Flux<TodoResponse> findAll(int limit, int offset, TodoFilter filter) {
+        if (limit <= 0) {
+            return Flux.error(new BadRequestException("Limit must be positive"));
+        }
+        if (offset < 0) {
+            return Flux.error(new BadRequestException("Offset must not be negative"));
+        }
+        return todoRepository.findPage(filter, limit, offset)
+                .map(todoMapper::toResponse);
+    }
+
+    public Mono<TodoSliceResponse> findSlice(int limit, String after) {
+        if (limit <= 0) {
+            return Mono.error(new BadRequestException("Limit must be positive"));
+        }
+        Flux<Todo> todos;
+        if (after == null || after.isBlank()) {
+            todos = todoRepository.findFirstSlice(limit + 1);
+        } else {
+            TodoCursor cursor;
+            try {
+                cursor = TodoCursor.decode(after);
+            } catch (BadRequestException e) {
+                return Mono.error(e);
+            }
+            todos = todoRepository.findSliceAfter(cursor.createdAt(), cursor.id(), limit + 1);
+        }
+
+        return todos.collectList().map(rows -> {
+            boolean hasNext = rows.size() > limit;
+            List<Todo> content = hasNext ? rows.subList(0, limit) : rows;
+            String nextCursor = hasNext ? TodoCursor.of(content.get(limit - 1)).encode() : null;
+            return new TodoSliceResponse(
+                    content.stream().map(todoMapper::toResponse).toList(),
+                    nextCursor,
+                    hasNext);
+        });
+    }
+
+    public Mono<TodoResponse> findById(Long id) {
+        return todoCache.get(id, TodoResponse.class)
+                .switchIfEmpty(Mono.defer(() -> todoRepository.findById(id)
+                        .map(todoMapper::toResponse)
+                        .flatMap(todo -> todoCache.store(id, todo).thenReturn(todo))))
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Todo not found with id: " + id)));
+    }
+
+    public Mono<TodoResponse> create(TodoRequest request) {
+        Todo todo = todoMapper.toEntity(request);
+        LocalDateTime now = LocalDateTime.now();
+        todo.setCreatedAt(now);
+        todo.setUpdatedAt(now);
+        return todoRepository.insert(todo)
+                .map(todoMapper::toResponse)
+                .flatMap(created -> todoCache.bumpGeneration(TodoService.TODOS_CACHE)
+                        .then(changePublisher.publish(TodoChangeType.CREATED, created.id(), created))
+                        .thenReturn(created));
+    }
+
+    public Mono<TodoResponse> update(Long id, TodoRequest request) {
+        return todoRepository.updateReturning(
+                        id, request.title(), request.description(), request.completed(), LocalDateTime.now())
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Todo not found with id: " + id)))
+                .map(todoMapper::toResponse)
+                .flatMap(updated -> todoCache.put(id, updated)
+                        .then(todoCache.bumpGeneration(TodoService.TODOS_CACHE))
+                        .then(changePublisher.publish(TodoChangeType.UPDATED, id, updated))
+                        .thenReturn(updated));
+    }
+
+    public Mono<Void> delete(Long id) {
+        return todoRepository.deleteReturningCount(id)
+                .flatMap(deleted -> deleted == 0
+                        ? Mono.error(new ResourceNotFoundException("Todo not found with id: " + id))
+                        : todoCache.evict(id)
+                                .then(todoCache.bumpGeneration(TodoService.TODOS_CACHE))
+                                .then(changePublisher.publish(TodoChangeType.DELETED, id, null)))
+                .then();
+    }
+}
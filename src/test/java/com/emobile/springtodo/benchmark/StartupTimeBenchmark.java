@@ -0,0 +1,149 @@
+package com.emobile.springtodo.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time from launching the JVM to the first successful {@code GET /api/todos}: the packaged jar as is, then
+ * the extracted jar with the fast-startup profile, AOT classes and CDS archive. Run by
+ * {@code mvn -Pfast-startup verify}, which builds them. An unmeasured first start migrates the schema, as
+ * the previous release would have, and warms the file cache.
+ * <p>
+ * Arguments: packaged jar, directory with the extracted {@code application.jar} and {@code application.jsa},
+ * starts per mode, and the fast-startup median in milliseconds above which to fail, {@code 0} to only report.
+ */
+@Slf4j
+public final class StartupTimeBenchmark {
+
+    private static final Duration READY_TIMEOUT = Duration.ofMinutes(3);
+    private static final long POLL_MILLIS = 10;
+
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+    private static final GenericContainer<?> redis = new GenericContainer<>("redis:7").withExposedPorts(6379);
+
+    private StartupTimeBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path jar = Path.of(args[0]);
+        Path cdsDirectory = Path.of(args[1]);
+        int runs = Integer.parseInt(args[2]);
+        long maxMillis = Long.parseLong(args[3]);
+        Path extractedJar = cdsDirectory.resolve("application.jar");
+        Path outputDirectory = jar.toAbsolutePath().getParent();
+
+        postgres.start();
+        redis.start();
+        Map<String, Object> results = new LinkedHashMap<>();
+        long fastStartupMedian;
+        try {
+            List<String> defaultLaunch = List.of("-jar", jar.toString());
+            timeToFirstResponse("warm-up", 0, defaultLaunch, outputDirectory);
+            results.put("default", measure("default", runs, defaultLaunch, outputDirectory));
+            Map<String, Object> fastStartup = measure("fast-startup", runs, List.of(
+                    "-XX:SharedArchiveFile=" + cdsDirectory.resolve("application.jsa"),
+                    "-Dspring.aot.enabled=true",
+                    "-jar", extractedJar.toString(),
+                    "--spring.profiles.active=fast-startup"), outputDirectory);
+            results.put("fast-startup", fastStartup);
+            fastStartupMedian = (long) fastStartup.get("medianMillis");
+        } finally {
+            redis.stop();
+            postgres.stop();
+        }
+
+        File report = outputDirectory.resolve("startup-benchmark.json").toFile();
+        new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(report, results);
+        log.info("Startup results written to {}", report);
+        if (maxMillis > 0 && fastStartupMedian > maxMillis) {
+            log.error("fast-startup median of {} ms exceeds the budget of {} ms", fastStartupMedian, maxMillis);
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, Object> measure(String mode, int runs, List<String> launch,
+                                               Path outputDirectory) throws Exception {
+        List<Long> millis = new ArrayList<>();
+        for (int run = 0; run < runs; run++) {
+            millis.add(timeToFirstResponse(mode, run, launch, outputDirectory));
+        }
+        List<Long> sorted = millis.stream().sorted().toList();
+        long median = sorted.get(sorted.size() / 2);
+        log.info("[{}] time to first GET /api/todos: {} ms, median {} ms", mode, millis, median);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("runsMillis", millis);
+        result.put("medianMillis", median);
+        return result;
+    }
+
+    private static long timeToFirstResponse(String mode, int run, List<String> launch,
+                                            Path outputDirectory) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(launch);
+        command.add("--server.port=" + port);
+        command.add("--spring.datasource.url=" + postgres.getJdbcUrl());
+        command.add("--spring.datasource.username=" + postgres.getUsername());
+        command.add("--spring.datasource.password=" + postgres.getPassword());
+        command.add("--spring.data.redis.host=" + redis.getHost());
+        command.add("--spring.data.redis.port=" + redis.getMappedPort(6379));
+        File output = outputDirectory.resolve("startup-" + mode + "-" + run + ".log").toFile();
+
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/todos"))
+                .timeout(Duration.ofSeconds(5))
+                .build();
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(output)
+                .start();
+        try {
+            long deadline = start + READY_TIMEOUT.toNanos();
+            while (System.nanoTime() < deadline) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException(mode + " start failed, see " + output);
+                }
+                try {
+                    if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    }
+                } catch (IOException e) {
+                    // Not listening yet
+                }
+                Thread.sleep(POLL_MILLIS);
+            }
+            throw new IllegalStateException(mode + " not ready within " + READY_TIMEOUT + ", see " + output);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
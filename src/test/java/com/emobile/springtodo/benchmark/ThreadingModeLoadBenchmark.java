@@ -0,0 +1,137 @@
+package com.emobile.springtodo.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Mixed create / read-by-id load with many more concurrent clients than connections. Reads pick among todos
+ * created before the run, and any response other than 2xx counts as an error.
+ * Subclasses boot the application in platform-thread, virtual-thread and reactive mode; the reactive one is
+ * only built with {@code -Preactive}.
+ */
+@Slf4j
+abstract class ThreadingModeLoadBenchmark {
+
+    private static final int CLIENTS = 400;
+    private static final int REQUESTS = 20_000;
+    private static final int SEEDED = 1_000;
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+    static final GenericContainer<?> redis = new GenericContainer<>("redis:7").withExposedPorts(6379);
+
+    static {
+        postgres.start();
+        redis.start();
+    }
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.r2dbc.url", () -> "r2dbc:postgresql://" + postgres.getHost() + ":"
+                + postgres.getMappedPort(PostgreSQLContainer.POSTGRESQL_PORT) + "/" + postgres.getDatabaseName());
+        registry.add("spring.data.redis.host", redis::getHost);
+        registry.add("spring.data.redis.port", () -> redis.getMappedPort(6379));
+        registry.add("spring.jpa.show-sql", () -> false);
+    }
+
+    @LocalServerPort
+    private int port;
+
+    protected abstract String mode();
+
+    @Test
+    @DisplayName("Mixed create/read load")
+    void mixedLoad() throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        String baseUrl = "http://localhost:" + port + "/api/todos";
+        long[] seededIds = seed(client, baseUrl);
+        AtomicInteger errors = new AtomicInteger();
+        long[] latencies = new long[REQUESTS];
+        AtomicInteger next = new AtomicInteger();
+
+        long start = System.nanoTime();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int c = 0; c < CLIENTS; c++) {
+                futures.add(clients.submit(() -> {
+                    int i;
+                    while ((i = next.getAndIncrement()) < REQUESTS) {
+                        HttpRequest request = i % 2 == 0
+                                ? HttpRequest.newBuilder(URI.create(baseUrl))
+                                        .header("Content-Type", "application/json")
+                                        .POST(HttpRequest.BodyPublishers.ofString("{\"title\":\"Load " + i + "\"}"))
+                                        .build()
+                                : HttpRequest.newBuilder(URI.create(baseUrl + "/"
+                                        + seededIds[ThreadLocalRandom.current().nextInt(SEEDED)])).GET().build();
+                        long requestStart = System.nanoTime();
+                        try {
+                            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                            if (response.statusCode() / 100 != 2) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                        latencies[i] = System.nanoTime() - requestStart;
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        Arrays.sort(latencies);
+        log.info("{} threads: {} req/s, p50={}ms, p99={}ms, max={}ms, errors={}",
+                mode(),
+                Math.round(REQUESTS / seconds),
+                latencies[REQUESTS / 2] / 1_000_000,
+                latencies[REQUESTS * 99 / 100] / 1_000_000,
+                latencies[REQUESTS - 1] / 1_000_000,
+                errors.get());
+        assertThat(errors.get()).isLessThan(REQUESTS / 100);
+    }
+
+    // Ids come from the sequence in blocks, so reads sample ids the server handed out rather than counting up
+    private static long[] seed(HttpClient client, String baseUrl) throws Exception {
+        long[] ids = new long[SEEDED];
+        for (int i = 0; i < SEEDED; i++) {
+            HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"title\":\"Seed " + i + "\"}"))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            assertThat(response.statusCode()).isEqualTo(201);
+            ids[i] = OBJECT_MAPPER.readTree(response.body()).get("id").asLong();
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,107 @@
+package com.emobile.springtodo.benchmark;
+
+import com.emobile.springtodo.dto.request.TodoRequest;
+import com.emobile.springtodo.service.ExportFormat;
+import com.emobile.springtodo.service.TodoImportService;
+import com.emobile.springtodo.service.TodoService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest
+@Testcontainers
+class TodoImportBenchmarkTest {
+
+    private static final int COPY_ROWS = 200_000;
+    private static final int BATCH_ROWS = 20_000;
+    private static final int JPA_ROWS = 2_000;
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @Container
+    static GenericContainer<?> redis = new GenericContainer<>("redis:7").withExposedPorts(6379);
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.data.redis.host", redis::getHost);
+        registry.add("spring.data.redis.port", () -> redis.getMappedPort(6379));
+        registry.add("spring.jpa.show-sql", () -> false);
+    }
+
+    @Autowired
+    private TodoImportService todoImportService;
+
+    @Autowired
+    private TodoService todoService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("TRUNCATE TABLE todos");
+    }
+
+    @Test
+    @DisplayName("Bulk import - COPY vs JDBC batch vs per-row JPA create")
+    void compareImportPaths() throws Exception {
+        StringBuilder csv = new StringBuilder("title,description,completed\n");
+        for (int i = 0; i < COPY_ROWS; i++) {
+            csv.append("Todo ").append(i).append(",Description ").append(i).append(',').append(i % 2 == 0).append('\n');
+        }
+        byte[] body = csv.toString().getBytes(StandardCharsets.UTF_8);
+
+        long start = System.nanoTime();
+        var report = todoImportService.importTodos(ExportFormat.CSV, new ByteArrayInputStream(body));
+        double copyRate = rate(COPY_ROWS, System.nanoTime() - start);
+        assertThat(report.imported()).isEqualTo(COPY_ROWS);
+
+        List<TodoRequest> requests = new ArrayList<>(BATCH_ROWS);
+        for (int i = 0; i < BATCH_ROWS; i++) {
+            requests.add(new TodoRequest("Todo " + i, "Description " + i, i % 2 == 0));
+        }
+        start = System.nanoTime();
+        for (int from = 0; from < BATCH_ROWS; from += 5000) {
+            todoService.createAll(requests.subList(from, Math.min(from + 5000, BATCH_ROWS)));
+        }
+        double batchRate = rate(BATCH_ROWS, System.nanoTime() - start);
+
+        start = System.nanoTime();
+        for (int i = 0; i < JPA_ROWS; i++) {
+            todoService.create(requests.get(i));
+        }
+        double jpaRate = rate(JPA_ROWS, System.nanoTime() - start);
+
+        log.info("Import throughput, rows/s: COPY={} ({} rows), JPA batch={} ({} rows), JPA per row={} ({} rows)",
+                Math.round(copyRate), COPY_ROWS, Math.round(batchRate), BATCH_ROWS, Math.round(jpaRate), JPA_ROWS);
+        assertThat(copyRate).isGreaterThan(jpaRate);
+    }
+
+    private static double rate(int rows, long nanos) {
+        return rows / (nanos / 1_000_000_000.0);
+    }
+}
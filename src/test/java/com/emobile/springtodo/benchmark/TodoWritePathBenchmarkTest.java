@@ -0,0 +1,130 @@
+package com.emobile.springtodo.benchmark;
+
+import com.emobile.springtodo.model.Todo;
+import com.emobile.springtodo.repository.TodoRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.LongConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the former read-modify-write update/delete paths with the single-statement ones
+ * while more writers than pooled connections compete for the pool.
+ */
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest
+@Testcontainers
+class TodoWritePathBenchmarkTest {
+
+    private static final int ROWS = 20_000;
+    private static final int WRITERS = 32;
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @Container
+    static GenericContainer<?> redis = new GenericContainer<>("redis:7").withExposedPorts(6379);
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.data.redis.host", redis::getHost);
+        registry.add("spring.data.redis.port", () -> redis.getMappedPort(6379));
+        registry.add("spring.jpa.show-sql", () -> false);
+    }
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("TRUNCATE TABLE todos");
+    }
+
+    @Test
+    @DisplayName("Update/delete - read-modify-write vs single statement under concurrent writers")
+    void compareWritePaths() throws Exception {
+        List<Long> ids = seed();
+        double legacyUpdateRate = run(ids, id -> {
+            Todo todo = todoRepository.findById(id).orElseThrow();
+            todo.setTitle("Legacy " + id);
+            todo.setUpdatedAt(LocalDateTime.now());
+            todoRepository.save(todo);
+        });
+        double updateRate = run(ids, id -> todoRepository
+                .updateReturning(id, "Single " + id, null, true, LocalDateTime.now())
+                .orElseThrow());
+
+        List<Long> legacyIds = ids.subList(0, ROWS / 2);
+        List<Long> singleIds = ids.subList(ROWS / 2, ROWS);
+        double legacyDeleteRate = run(legacyIds, id -> {
+            if (todoRepository.existsById(id)) {
+                todoRepository.deleteById(id);
+            }
+        });
+        double deleteRate = run(singleIds, id -> assertThat(todoRepository.deleteReturningCount(id)).isEqualTo(1));
+
+        log.info("Write throughput with {} writers, ops/s: update legacy={} single={}, delete legacy={} single={}",
+                WRITERS, Math.round(legacyUpdateRate), Math.round(updateRate),
+                Math.round(legacyDeleteRate), Math.round(deleteRate));
+        assertThat(todoRepository.count()).isZero();
+        assertThat(updateRate).isGreaterThan(legacyUpdateRate);
+    }
+
+    private List<Long> seed() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Todo> todos = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            todos.add(Todo.builder().title("Todo " + i).createdAt(now).updatedAt(now).build());
+        }
+        return todoRepository.saveAll(todos).stream().map(Todo::getId).toList();
+    }
+
+    private static double run(List<Long> ids, LongConsumer write) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+        try {
+            long start = System.nanoTime();
+            List<Future<?>> futures = new ArrayList<>(WRITERS);
+            for (int w = 0; w < WRITERS; w++) {
+                int writer = w;
+                futures.add(executor.submit(() -> {
+                    for (int i = writer; i < ids.size(); i += WRITERS) {
+                        write.accept(ids.get(i));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            return ids.size() / ((System.nanoTime() - start) / 1_000_000_000.0);
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.emobile.springtodo.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@Tag("benchmark")
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.threads.virtual.enabled=true")
+class VirtualThreadLoadBenchmarkTest extends ThreadingModeLoadBenchmark {
+
+    @Override
+    protected String mode() {
+        return "Virtual";
+    }
+}
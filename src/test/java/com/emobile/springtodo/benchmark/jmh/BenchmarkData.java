@@ -0,0 +1,41 @@
+package com.emobile.springtodo.benchmark.jmh;
+
+import com.emobile.springtodo.dto.response.TodoResponse;
+import com.emobile.springtodo.model.Todo;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+final class BenchmarkData {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2025, 4, 25, 21, 25, 38, 446_425_700);
+
+    private BenchmarkData() {
+    }
+
+    static Todo todo(long id) {
+        return Todo.builder()
+                .id(id)
+                .title("Решить контест " + id)
+                .description("Решить контест до 22 числа, задача " + id)
+                .completed(id % 2 == 0)
+                .createdAt(CREATED_AT.plusSeconds(id))
+                .updatedAt(CREATED_AT.plusSeconds(id * 2))
+                .build();
+    }
+
+    static TodoResponse response(long id) {
+        Todo todo = todo(id);
+        return new TodoResponse(todo.getId(), todo.getTitle(), todo.getDescription(), todo.isCompleted(),
+                todo.getCreatedAt().toString(), todo.getUpdatedAt().toString());
+    }
+
+    static List<TodoResponse> page(int size) {
+        List<TodoResponse> page = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            page.add(response(i));
+        }
+        return page;
+    }
+}
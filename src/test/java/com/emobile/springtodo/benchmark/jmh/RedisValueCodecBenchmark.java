@@ -0,0 +1,74 @@
+package com.emobile.springtodo.benchmark.jmh;
+
+import com.emobile.springtodo.cache.TodoRedisSerializer;
+import com.emobile.springtodo.dto.response.TodoResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RedisValueCodecBenchmark {
+
+    @Param({"jdk", "json", "binary"})
+    private String codec;
+
+    private RedisSerializer<Object> serializer;
+    private TodoResponse todo;
+    private List<TodoResponse> page;
+    private byte[] encodedTodo;
+    private byte[] encodedPage;
+
+    @Setup
+    public void setUp() {
+        serializer = switch (codec) {
+            case "jdk" -> new JdkSerializationRedisSerializer();
+            case "json" -> new GenericJackson2JsonRedisSerializer();
+            case "binary" -> new TodoRedisSerializer(1024, new SimpleMeterRegistry(), 0);
+            default -> throw new IllegalArgumentException("Unknown codec: " + codec);
+        };
+        todo = BenchmarkData.response(42);
+        page = BenchmarkData.page(100);
+        encodedTodo = serializer.serialize(todo);
+        encodedPage = serializer.serialize(page);
+    }
+
+    @Benchmark
+    public byte[] encodeTodo() {
+        return serializer.serialize(todo);
+    }
+
+    @Benchmark
+    public Object decodeTodo() {
+        return serializer.deserialize(encodedTodo);
+    }
+
+    @Benchmark
+    public byte[] encodePage() {
+        return serializer.serialize(page);
+    }
+
+    @Benchmark
+    public Object decodePage() {
+        return serializer.deserialize(encodedPage);
+    }
+}
@@ -0,0 +1,40 @@
+package com.emobile.springtodo.benchmark.jmh;
+
+import com.emobile.springtodo.dto.response.TodoResponse;
+import com.emobile.springtodo.mapper.TodoMapper;
+import com.emobile.springtodo.mapper.TodoMapperImpl;
+import com.emobile.springtodo.model.Todo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TodoMapperBenchmark {
+
+    private final TodoMapper todoMapper = new TodoMapperImpl();
+    private Todo todo;
+
+    @Setup
+    public void setUp() {
+        todo = BenchmarkData.todo(42);
+    }
+
+    @Benchmark
+    public TodoResponse toResponse() {
+        return todoMapper.toResponse(todo);
+    }
+}
@@ -0,0 +1,118 @@
+package com.emobile.springtodo.integration;
+
+import com.emobile.springtodo.datasource.ReadWriteRoutingDataSource;
+import com.emobile.springtodo.dto.request.TodoRequest;
+import com.emobile.springtodo.dto.response.TodoResponse;
+import com.emobile.springtodo.repository.TodoFilter;
+import com.emobile.springtodo.service.TodoService;
+import liquibase.integration.spring.SpringLiquibase;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the application against two independent Postgres instances standing in for a primary
+ * and its replica. They are deliberately not replicating, so each row shows which side served it.
+ */
+@SpringBootTest
+@Testcontainers
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class ReadWriteRoutingIntegrationTest {
+
+    @Container
+    static PostgreSQLContainer<?> primary = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @Container
+    static PostgreSQLContainer<?> replica = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @Container
+    static GenericContainer<?> redis = new GenericContainer<>("redis:7").withExposedPorts(6379);
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", primary::getJdbcUrl);
+        registry.add("spring.datasource.username", primary::getUsername);
+        registry.add("spring.datasource.password", primary::getPassword);
+        registry.add("spring.datasource.hikari.connection-timeout", () -> 2000);
+        registry.add("app.datasource.replica.enabled", () -> true);
+        registry.add("app.datasource.replica.url", replica::getJdbcUrl);
+        registry.add("app.datasource.replica.username", replica::getUsername);
+        registry.add("app.datasource.replica.password", replica::getPassword);
+        registry.add("app.datasource.replica.lag-check-interval", () -> "PT1H");
+        registry.add("spring.data.redis.host", redis::getHost);
+        registry.add("spring.data.redis.port", () -> redis.getMappedPort(6379));
+    }
+
+    @Autowired
+    private TodoService todoService;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @BeforeAll
+    static void prepareReplica() throws Exception {
+        DataSource replicaDataSource = new DriverManagerDataSource(
+                replica.getJdbcUrl(), replica.getUsername(), replica.getPassword());
+        SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(replicaDataSource);
+        liquibase.setChangeLog("classpath:db/migration/changelog-master.xml");
+        liquibase.setResourceLoader(new DefaultResourceLoader());
+        liquibase.afterPropertiesSet();
+
+        LocalDateTime now = LocalDateTime.now();
+        new JdbcTemplate(replicaDataSource).update(
+                "INSERT INTO todos (title, completed, created_at, updated_at) VALUES (?, false, ?, ?)",
+                "replica-only", now, now);
+    }
+
+    @Test
+    @Order(1)
+    void readOnlyTransactions_ShouldBeServedByReplica() throws SQLException {
+        routing().checkReplicaLag();
+        assertThat(routing().isReplicaUsable()).isTrue();
+
+        todoService.create(new TodoRequest("written", null, false));
+
+        assertThat(titles(todoService.findAll(10, 0, TodoFilter.NONE))).containsExactly("replica-only");
+        assertThat(new JdbcTemplate(dataSource).queryForList("SELECT title FROM todos", String.class))
+                .containsExactly("written");
+    }
+
+    @Test
+    @Order(2)
+    void readOnlyTransactions_ShouldFallBackToPrimaryWhenReplicaIsDown() throws SQLException {
+        replica.stop();
+        routing().checkReplicaLag();
+
+        assertThat(routing().isReplicaUsable()).isFalse();
+        assertThat(titles(todoService.findAll(20, 0, TodoFilter.NONE))).containsExactly("written");
+    }
+
+    private ReadWriteRoutingDataSource routing() throws SQLException {
+        return dataSource.unwrap(ReadWriteRoutingDataSource.class);
+    }
+
+    private static List<String> titles(List<TodoResponse> todos) {
+        return todos.stream().map(TodoResponse::title).toList();
+    }
+}
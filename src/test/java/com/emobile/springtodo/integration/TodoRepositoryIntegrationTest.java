@@ -1,12 +1,16 @@
 package com.emobile.springtodo.integration;
 
 import com.emobile.springtodo.model.Todo;
+import com.emobile.springtodo.repository.TodoFilter;
 import com.emobile.springtodo.repository.TodoRepository;
+import com.emobile.springtodo.repository.TodoSearchHit;
+import com.emobile.springtodo.repository.TodoSortField;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.testcontainers.containers.PostgreSQLContainer;
@@ -14,6 +18,7 @@ import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -89,4 +94,113 @@ class TodoRepositoryIntegrationTest {
 
         assertThat(todoRepository.findById(savedTodo.getId())).isEmpty();
     }
-}
\ No newline at end of file
+
+    @Test
+    void updateReturning_ShouldUpdateAndReturnStoredRow() {
+        Todo savedTodo = todoRepository.saveAndFlush(
+                Todo.builder()
+                        .title("Test Todo")
+                        .createdAt(LocalDateTime.of(2025, 1, 1, 0, 0))
+                        .updatedAt(LocalDateTime.of(2025, 1, 1, 0, 0))
+                        .build());
+        LocalDateTime updatedAt = LocalDateTime.of(2025, 1, 2, 0, 0);
+
+        Optional<Todo> updatedTodo = todoRepository.updateReturning(
+                savedTodo.getId(), "Updated", "Description", true, updatedAt);
+
+        assertThat(updatedTodo).isPresent();
+        assertThat(updatedTodo.get().getTitle()).isEqualTo("Updated");
+        assertThat(updatedTodo.get().isCompleted()).isTrue();
+        assertThat(updatedTodo.get().getCreatedAt()).isEqualTo(LocalDateTime.of(2025, 1, 1, 0, 0));
+        assertThat(updatedTodo.get().getUpdatedAt()).isEqualTo(updatedAt);
+    }
+
+    @Test
+    void updateReturning_ShouldReturnEmptyWhenMissing() {
+        assertThat(todoRepository.updateReturning(-1L, "Updated", null, false, LocalDateTime.now())).isEmpty();
+    }
+
+    @Test
+    void deleteReturningCount_ShouldReportAffectedRows() {
+        Todo savedTodo = todoRepository.saveAndFlush(
+                Todo.builder()
+                        .title("Test Todo")
+                        .createdAt(LocalDateTime.of(2025, 1, 1, 0, 0))
+                        .updatedAt(LocalDateTime.of(2025, 1, 1, 0, 0))
+                        .build());
+
+        assertThat(todoRepository.deleteReturningCount(savedTodo.getId())).isEqualTo(1);
+        assertThat(todoRepository.deleteReturningCount(savedTodo.getId())).isZero();
+    }
+
+    @Test
+    void search_ShouldRankTitleMatchesFirstAndContinueAfterCursor() {
+        LocalDateTime createdAt = LocalDateTime.of(2025, 1, 1, 0, 0);
+        Todo inTitle = todoRepository.saveAndFlush(Todo.builder()
+                .title("Buy milk").createdAt(createdAt).updatedAt(createdAt).build());
+        Todo inDescription = todoRepository.saveAndFlush(Todo.builder()
+                .title("Groceries").description("milk and bread").createdAt(createdAt).updatedAt(createdAt).build());
+        todoRepository.saveAndFlush(Todo.builder()
+                .title("Call mom").createdAt(createdAt).updatedAt(createdAt).build());
+
+        List<TodoSearchHit> first = todoRepository.search("milk", 1);
+        assertThat(first).extracting(hit -> hit.todo().getId()).containsExactly(inTitle.getId());
+
+        TodoSearchHit last = first.get(0);
+        List<TodoSearchHit> next = todoRepository.searchAfter("milk", last.rank(), last.todo().getId(), 10);
+        assertThat(next).extracting(hit -> hit.todo().getId()).containsExactly(inDescription.getId());
+    }
+
+    @Test
+    void findPage_ShouldApplyFilterAndSortDirection() {
+        LocalDateTime day = LocalDateTime.of(2025, 1, 1, 0, 0);
+        Todo oldOpen = todoRepository.saveAndFlush(Todo.builder()
+                .title("Old open").createdAt(day).updatedAt(day).build());
+        Todo newOpen = todoRepository.saveAndFlush(Todo.builder()
+                .title("New open").createdAt(day.plusDays(2)).updatedAt(day.plusDays(2)).build());
+        todoRepository.saveAndFlush(Todo.builder()
+                .title("Done").completed(true).createdAt(day.plusDays(1)).updatedAt(day.plusDays(1)).build());
+
+        List<Todo> openNewestFirst = todoRepository.findPage(
+                new TodoFilter(false, null, null, null, null, TodoSortField.CREATED_AT, Sort.Direction.DESC, false),
+                10, 0);
+        assertThat(openNewestFirst).extracting(Todo::getId).containsExactly(newOpen.getId(), oldOpen.getId());
+
+        List<Todo> createdInRange = todoRepository.findPage(
+                new TodoFilter(null, day, day.plusDays(2), null, null, null, null, false), 10, 0);
+        assertThat(createdInRange).extracting(Todo::getTitle).containsExactly("Old open", "Done");
+    }
+
+    @Test
+    void findAllByIdArray_ShouldReturnExistingTodosOnly() {
+        LocalDateTime day = LocalDateTime.of(2025, 1, 1, 0, 0);
+        Todo first = todoRepository.saveAndFlush(Todo.builder().title("First").createdAt(day).updatedAt(day).build());
+        Todo second = todoRepository.saveAndFlush(Todo.builder()
+                .title("Second").createdAt(day).updatedAt(day).build());
+
+        List<Todo> found = todoRepository.findAllByIdArray(List.of(second.getId(), first.getId(), -1L));
+
+        assertThat(found).extracting(Todo::getTitle).containsExactlyInAnyOrder("First", "Second");
+    }
+
+    @Test
+    void archiveCompleted_ShouldMoveOldCompletedTodosOutOfHotSet() {
+        LocalDateTime day = LocalDateTime.of(2025, 1, 1, 0, 0);
+        Todo oldDone = todoRepository.saveAndFlush(Todo.builder()
+                .title("Old done").completed(true).createdAt(day).updatedAt(day).build());
+        todoRepository.saveAndFlush(Todo.builder()
+                .title("Old open").createdAt(day).updatedAt(day).build());
+        todoRepository.saveAndFlush(Todo.builder()
+                .title("New done").completed(true).createdAt(day).updatedAt(day.plusDays(10)).build());
+
+        List<Long> archived = todoRepository.archiveCompleted(day.plusDays(5), 10);
+
+        assertThat(archived).containsExactly(oldDone.getId());
+        assertThat(todoRepository.findPage(TodoFilter.NONE, 10, 0))
+                .extracting(Todo::getTitle).containsExactly("Old open", "New done");
+        TodoFilter withArchive = new TodoFilter(true, null, null, null, null, TodoSortField.UPDATED_AT,
+                Sort.Direction.ASC, true);
+        assertThat(todoRepository.findPage(withArchive, 10, 0))
+                .extracting(Todo::getTitle).containsExactly("Old done", "New done");
+    }
+}
@@ -0,0 +1,76 @@
+package com.emobile.springtodo.unit;
+
+import com.emobile.springtodo.cache.CacheGenerations;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CacheGenerationsTest {
+
+    private static final String CHANNEL = "cache-generations";
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    private CacheGenerations generations;
+
+    @BeforeEach
+    void setUp() {
+        generations = new CacheGenerations(redisTemplate, CHANNEL, Duration.ofHours(1));
+    }
+
+    @Test
+    @DisplayName("bump - Should increment the counter in Redis and announce the new generation")
+    void bump_ShouldIncrementAndPublish() {
+        when(redisTemplate.execute(any(RedisScript.class), eq(List.of("cache-generation::todos")), eq("1")))
+                .thenReturn(1_760_000_000_000_001L);
+
+        assertEquals(1_760_000_000_000_001L, generations.bump("todos"));
+        assertEquals(1_760_000_000_000_001L, generations.current("todos"));
+        verify(redisTemplate).convertAndSend(CHANNEL, "todos\t1760000000000001");
+    }
+
+    @Test
+    @DisplayName("onMessage - Should ignore announcements older than the known generation")
+    void onMessage_ShouldKeepNewestGeneration() {
+        generations.onMessage(message("todos\t7"), null);
+        generations.onMessage(message("todos\t5"), null);
+
+        assertEquals(7L, generations.current("todos"));
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    @DisplayName("addAdvanceListener - Should be told when a generation moves forward, not when it repeats")
+    void addAdvanceListener_ShouldRunOnNewerGenerations() {
+        Runnable listener = mock(Runnable.class);
+        generations.addAdvanceListener(listener);
+
+        generations.onMessage(message("todos\t7"), null);
+        generations.onMessage(message("todos\t8"), null);
+        generations.onMessage(message("todos\t8"), null);
+        generations.onMessage(message("todos\t6"), null);
+
+        verify(listener, times(1)).run();
+    }
+
+    private static DefaultMessage message(String body) {
+        return new DefaultMessage(CHANNEL.getBytes(StandardCharsets.UTF_8), body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,102 @@
+package com.emobile.springtodo.unit;
+
+import com.emobile.springtodo.admission.ClientRateLimiter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ClientRateLimiterTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Test
+    @DisplayName("tryAcquire - Should admit a burst and then ask to retry after the refill time")
+    void tryAcquire_ShouldRejectAfterBurst() {
+        ClientRateLimiter limiter = limiter(null);
+
+        assertNull(limiter.tryAcquire("10.0.0.1"));
+        assertNull(limiter.tryAcquire("10.0.0.1"));
+        Duration retryAfter = limiter.tryAcquire("10.0.0.1");
+
+        assertNotNull(retryAfter);
+        assertTrue(retryAfter.compareTo(Duration.ofMillis(500)) > 0);
+        assertTrue(retryAfter.compareTo(Duration.ofSeconds(1)) <= 0);
+    }
+
+    @Test
+    @DisplayName("tryAcquire - Should keep separate budgets per client")
+    void tryAcquire_ShouldLimitClientsIndependently() {
+        ClientRateLimiter limiter = limiter(null);
+        limiter.tryAcquire("10.0.0.1");
+        limiter.tryAcquire("10.0.0.1");
+
+        assertNotNull(limiter.tryAcquire("10.0.0.1"));
+        assertNull(limiter.tryAcquire("10.0.0.2"));
+    }
+
+    @Test
+    @DisplayName("clientOf - Should prefer the first address of the configured header")
+    void clientOf_ShouldUseConfiguredHeader() {
+        ClientRateLimiter limiter = new ClientRateLimiter(1, 2, "X-Forwarded-For", 100, Duration.ofMinutes(1), null);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr("10.0.0.9");
+
+        assertEquals("10.0.0.9", limiter.clientOf(request));
+
+        request.addHeader("X-Forwarded-For", "203.0.113.7, 10.0.0.9");
+        assertEquals("203.0.113.7", limiter.clientOf(request));
+    }
+
+    @Test
+    @DisplayName("synchronize - Should charge usage of other nodes to the local bucket")
+    @SuppressWarnings("unchecked")
+    void synchronize_ShouldDrainUsageOfOtherNodes() {
+        ClientRateLimiter limiter = new ClientRateLimiter(1, 3, "", 100, Duration.ofMinutes(1), redisTemplate);
+        when(redisTemplate.executePipelined(any(RedisCallback.class)))
+                .thenReturn(List.of(1L, true))
+                .thenReturn(List.of(3L, true));
+
+        assertNull(limiter.tryAcquire("10.0.0.1"));
+        limiter.synchronize();
+        assertNull(limiter.tryAcquire("10.0.0.1"));
+        // Another node took the third token in the meantime
+        limiter.synchronize();
+
+        assertNotNull(limiter.tryAcquire("10.0.0.1"));
+    }
+
+    @Test
+    @DisplayName("synchronize - Should keep local usage for the next round when Redis fails")
+    @SuppressWarnings("unchecked")
+    void synchronize_ShouldRetryUsageAfterRedisFailure() {
+        ClientRateLimiter limiter = limiter(redisTemplate);
+        when(redisTemplate.executePipelined(any(RedisCallback.class)))
+                .thenThrow(new RedisConnectionFailureException("down"))
+                .thenReturn(List.of(1L, true));
+
+        limiter.tryAcquire("10.0.0.1");
+        assertDoesNotThrow(limiter::synchronize);
+        limiter.synchronize();
+
+        verify(redisTemplate, times(2)).executePipelined(any(RedisCallback.class));
+    }
+
+    private static ClientRateLimiter limiter(StringRedisTemplate redisTemplate) {
+        return new ClientRateLimiter(1, 2, "", 100, Duration.ofMinutes(1), redisTemplate);
+    }
+}
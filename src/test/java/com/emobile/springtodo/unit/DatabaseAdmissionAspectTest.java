@@ -0,0 +1,243 @@
+package com.emobile.springtodo.unit;
+
+import com.emobile.springtodo.admission.AdaptiveConcurrencyLimiter;
+import com.emobile.springtodo.admission.ClientRateLimiter;
+import com.emobile.springtodo.admission.DatabaseAdmissionAspect;
+import com.emobile.springtodo.admission.DatabaseWork;
+import com.emobile.springtodo.exception.OverloadedException;
+import com.emobile.springtodo.exception.TooManyRequestsException;
+import com.emobile.springtodo.repository.TodoRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DatabaseAdmissionAspectTest {
+
+    @Mock
+    private TodoRepository todoRepository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    @DisplayName("admit - Should charge the client once per request and reject it when its bucket is empty")
+    void admit_ShouldChargeClientOncePerRequest() {
+        ClientRateLimiter rateLimiter = new ClientRateLimiter(1, 1, "", 100, Duration.ofMinutes(1), null);
+        TodoRepository repository = advised(rateLimiter, null);
+
+        startRequest();
+        repository.findById(1L);
+        repository.findById(2L);
+
+        startRequest();
+        TooManyRequestsException ex = assertThrows(TooManyRequestsException.class, () -> repository.findById(1L));
+        assertFalse(ex.getRetryAfter().isNegative());
+        verify(todoRepository, times(2)).findById(anyLong());
+        assertEquals(1, meterRegistry.get("admission.rejected").tag("reason", "rate-limit").counter().count());
+    }
+
+    @Test
+    @DisplayName("admit - Should not rate limit calls made outside a request")
+    void admit_ShouldNotRateLimitOutsideRequest() {
+        ClientRateLimiter rateLimiter = new ClientRateLimiter(1, 1, "", 100, Duration.ofMinutes(1), null);
+        TodoRepository repository = advised(rateLimiter, null);
+
+        repository.findById(1L);
+        repository.findById(2L);
+
+        verify(todoRepository, times(2)).findById(anyLong());
+    }
+
+    @Test
+    @DisplayName("admit - Should shed calls over the concurrency limit without waiting")
+    void admit_ShouldShedCallsOverConcurrencyLimit() throws Exception {
+        AdaptiveConcurrencyLimiter limiter =
+                new AdaptiveConcurrencyLimiter(1, 1, 1, Duration.ofSeconds(10), meterRegistry);
+        TodoRepository repository = advised(null, limiter);
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(todoRepository.findById(1L)).thenAnswer(invocation -> {
+            entered.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.empty();
+        });
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> holder = executor.submit(() -> repository.findById(1L));
+            assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+            OverloadedException ex = assertThrows(OverloadedException.class, () -> repository.findById(2L));
+            assertEquals(Duration.ofSeconds(1), ex.getRetryAfter());
+
+            release.countDown();
+            holder.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(0, limiter.getInFlight());
+        repository.findById(2L);
+        verify(todoRepository).findById(2L);
+    }
+
+    @Test
+    @DisplayName("admit - Should hold a permit for bulk work without letting its duration shrink the limit")
+    void admit_ShouldKeepBulkWorkOutOfTheLimit() {
+        AdaptiveConcurrencyLimiter limiter =
+                new AdaptiveConcurrencyLimiter(4, 1, 8, Duration.ofNanos(1), meterRegistry);
+        AspectJProxyFactory factory = new AspectJProxyFactory(new BulkJob());
+        factory.addAspect(new DatabaseAdmissionAspect(null, limiter, Duration.ofSeconds(1), meterRegistry));
+        BulkJob job = factory.getProxy();
+
+        job.run(() -> assertEquals(1, limiter.getInFlight()));
+
+        assertEquals(0, limiter.getInFlight());
+        assertEquals(4, limiter.getLimit());
+    }
+
+    @Test
+    @DisplayName("admit - Should reject transactional work before the transaction takes a connection")
+    void admit_ShouldRejectBeforeTransactionBegins() throws Exception {
+        try (AnnotationConfigApplicationContext context =
+                     new AnnotationConfigApplicationContext(TransactionalWorkConfig.class)) {
+            AdaptiveConcurrencyLimiter limiter = context.getBean(AdaptiveConcurrencyLimiter.class);
+            DataSource dataSource = context.getBean(DataSource.class);
+            TransactionalJob job = context.getBean(TransactionalJob.class);
+            assertTrue(limiter.tryAcquire());
+
+            assertThrows(OverloadedException.class, () -> job.run(() -> fail("should not run")));
+            verify(dataSource, never()).getConnection();
+
+            limiter.release();
+            when(dataSource.getConnection()).thenReturn(mock(Connection.class));
+            job.run(() -> assertEquals(1, limiter.getInFlight()));
+            verify(dataSource).getConnection();
+        }
+    }
+
+    @Test
+    @DisplayName("release - Should shrink the limit on slow calls and grow it on fast calls under load")
+    void release_ShouldAdaptLimitToLatency() {
+        AdaptiveConcurrencyLimiter limiter =
+                new AdaptiveConcurrencyLimiter(20, 5, 40, Duration.ofMillis(100), meterRegistry);
+
+        assertTrue(limiter.tryAcquire());
+        limiter.release(Duration.ofMillis(500).toNanos());
+        assertEquals(18, limiter.getLimit());
+
+        for (int round = 0; round < 20 && limiter.getLimit() == 18; round++) {
+            int admitted = 0;
+            while (limiter.tryAcquire()) {
+                admitted++;
+            }
+            assertEquals(limiter.getLimit(), admitted);
+            for (int i = 0; i < admitted; i++) {
+                limiter.release(Duration.ofMillis(1).toNanos());
+            }
+        }
+        assertEquals(19, limiter.getLimit());
+
+        for (int i = 0; i < 50; i++) {
+            limiter.tryAcquire();
+            limiter.release(Duration.ofSeconds(1).toNanos());
+        }
+        assertEquals(5, limiter.getLimit());
+    }
+
+    private TodoRepository advised(ClientRateLimiter rateLimiter, AdaptiveConcurrencyLimiter concurrencyLimiter) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(todoRepository);
+        factory.addInterface(TodoRepository.class);
+        factory.addAspect(new DatabaseAdmissionAspect(
+                rateLimiter, concurrencyLimiter, Duration.ofSeconds(1), meterRegistry));
+        return factory.getProxy();
+    }
+
+    static class BulkJob {
+
+        @DatabaseWork(bulk = true)
+        public void run(Runnable body) {
+            body.run();
+        }
+    }
+
+    static class TransactionalJob {
+
+        @Transactional
+        @DatabaseWork
+        public void run(Runnable body) {
+            body.run();
+        }
+    }
+
+    @Configuration
+    @EnableAspectJAutoProxy(proxyTargetClass = true)
+    @EnableTransactionManagement
+    static class TransactionalWorkConfig {
+
+        @Bean
+        DataSource dataSource() {
+            return mock(DataSource.class);
+        }
+
+        @Bean
+        PlatformTransactionManager transactionManager(DataSource dataSource) {
+            return new DataSourceTransactionManager(dataSource);
+        }
+
+        @Bean
+        AdaptiveConcurrencyLimiter concurrencyLimiter() {
+            return new AdaptiveConcurrencyLimiter(1, 1, 1, Duration.ofSeconds(10), new SimpleMeterRegistry());
+        }
+
+        @Bean
+        DatabaseAdmissionAspect databaseAdmissionAspect(AdaptiveConcurrencyLimiter concurrencyLimiter) {
+            return new DatabaseAdmissionAspect(
+                    null, concurrencyLimiter, Duration.ofSeconds(1), new SimpleMeterRegistry());
+        }
+
+        @Bean
+        TransactionalJob transactionalJob() {
+            return new TransactionalJob();
+        }
+    }
+
+    private static void startRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr("10.0.0.1");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+}
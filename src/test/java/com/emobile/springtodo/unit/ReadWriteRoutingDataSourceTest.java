@@ -0,0 +1,190 @@
+package com.emobile.springtodo.unit;
+
+import com.emobile.springtodo.datasource.ReadWriteRoutingDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReadWriteRoutingDataSourceTest {
+
+    @Mock
+    private DataSource primary;
+
+    @Mock
+    private DataSource replica;
+
+    @Mock
+    private Connection primaryConnection;
+
+    @Mock
+    private Connection replicaConnection;
+
+    @Mock
+    private Statement statement;
+
+    @Mock
+    private ResultSet resultSet;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ReadWriteRoutingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        meterRegistry = new SimpleMeterRegistry();
+        dataSource = new ReadWriteRoutingDataSource(primary, replica, Duration.ofSeconds(5), meterRegistry);
+        lenient().when(primary.getConnection()).thenReturn(primaryConnection);
+        lenient().when(replica.getConnection()).thenReturn(replicaConnection);
+        lenient().when(replicaConnection.createStatement()).thenReturn(statement);
+        lenient().when(statement.executeQuery(anyString())).thenReturn(resultSet);
+        lenient().when(resultSet.next()).thenReturn(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    @Test
+    @DisplayName("getConnection - Should route writes to the primary")
+    void getConnection_ShouldRouteWritesToPrimary() throws SQLException {
+        givenLag(0);
+        dataSource.checkReplicaLag();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        assertSame(primaryConnection, dataSource.getConnection());
+        assertEquals(1, routed("primary", "write"));
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertSame(primaryConnection, dataSource.getConnection());
+        assertEquals(1, routed("primary", "recent-write"));
+    }
+
+    @Test
+    @DisplayName("getConnection - Should keep reads on the replica after a connection outside a transaction")
+    void getConnection_ShouldNotTreatNonTransactionalWorkAsWrite() throws SQLException {
+        givenLag(0);
+        dataSource.checkReplicaLag();
+
+        assertSame(primaryConnection, dataSource.getConnection());
+        assertEquals(1, routed("primary", "non-transactional"));
+        assertEquals(0, routed("primary", "write"));
+
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertSame(replicaConnection, dataSource.getConnection());
+    }
+
+    @Test
+    @DisplayName("getConnection - Should route read-only transactions to a healthy replica")
+    void getConnection_ShouldRouteReadsToReplica() throws SQLException {
+        givenLag(1.5);
+        dataSource.checkReplicaLag();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertSame(replicaConnection, dataSource.getConnection());
+        assertEquals(1, routed("replica", "read"));
+        assertEquals(1.5, meterRegistry.get("jdbc.replica.lag").gauge().value());
+    }
+
+    @Test
+    @DisplayName("getConnection - Should read from the primary before the first probe")
+    void getConnection_ShouldFallBackBeforeFirstProbe() throws SQLException {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertSame(primaryConnection, dataSource.getConnection());
+        assertEquals(1, routed("primary", "replica-unavailable"));
+    }
+
+    @Test
+    @DisplayName("checkReplicaLag - Should fall back to the primary when the replica lags too far")
+    void checkReplicaLag_ShouldFallBackWhenLagging() throws SQLException {
+        givenLag(0);
+        dataSource.checkReplicaLag();
+        givenLag(30);
+        dataSource.checkReplicaLag();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertFalse(dataSource.isReplicaUsable());
+        assertSame(primaryConnection, dataSource.getConnection());
+    }
+
+    @Test
+    @DisplayName("checkReplicaLag - Should fall back to the primary when the probe fails")
+    void checkReplicaLag_ShouldFallBackWhenUnreachable() throws SQLException {
+        givenLag(0);
+        dataSource.checkReplicaLag();
+        when(replica.getConnection()).thenThrow(new SQLException("connection refused"));
+        dataSource.checkReplicaLag();
+
+        assertFalse(dataSource.isReplicaUsable());
+        assertTrue(Double.isNaN(dataSource.getReplicaLagSeconds()));
+    }
+
+    @Test
+    @DisplayName("getConnection - Should keep reads on the primary for max-lag after a write")
+    void getConnection_ShouldReadFromPrimaryAfterWrite() throws SQLException {
+        givenLag(0);
+        dataSource.checkReplicaLag();
+        dataSource.recordWrite();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertSame(primaryConnection, dataSource.getConnection());
+        assertEquals(1, routed("primary", "recent-write"));
+    }
+
+    @Test
+    @DisplayName("getConnection - Should return to the replica once the write window has passed")
+    void getConnection_ShouldReadFromReplicaAfterWindow() throws Exception {
+        ReadWriteRoutingDataSource shortWindow =
+                new ReadWriteRoutingDataSource(primary, replica, Duration.ofMillis(20), meterRegistry);
+        givenLag(0);
+        shortWindow.checkReplicaLag();
+        shortWindow.recordWrite();
+        Thread.sleep(50);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertSame(replicaConnection, shortWindow.getConnection());
+    }
+
+    @Test
+    @DisplayName("checkReplicaLag - Should not use a replica whose lag cannot be told")
+    void checkReplicaLag_ShouldFallBackWhenLagUnknown() throws SQLException {
+        givenLag(0);
+        when(resultSet.wasNull()).thenReturn(true);
+        dataSource.checkReplicaLag();
+
+        assertFalse(dataSource.isReplicaUsable());
+        assertTrue(Double.isNaN(dataSource.getReplicaLagSeconds()));
+    }
+
+    private void givenLag(double seconds) throws SQLException {
+        when(resultSet.getDouble(1)).thenReturn(seconds);
+    }
+
+    private double routed(String route, String reason) {
+        return meterRegistry.get("jdbc.routing.connections")
+                .tag("route", route)
+                .tag("reason", reason)
+                .counter()
+                .count();
+    }
+}
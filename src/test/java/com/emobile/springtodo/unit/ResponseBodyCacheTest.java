@@ -0,0 +1,121 @@
+package com.emobile.springtodo.unit;
+
+import com.emobile.springtodo.cache.ResponseBodyCache;
+import com.emobile.springtodo.dto.response.TodoResponse;
+import com.emobile.springtodo.exception.ResourceNotFoundException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseBodyCacheTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private ResponseBodyCache responseBodyCache;
+
+    private final TodoResponse todo = new TodoResponse(1L, "Test Todo", null, false, null, null);
+
+    @BeforeEach
+    void setUp() {
+        responseBodyCache = new ResponseBodyCache(new ConcurrentMapCacheManager(), objectMapper, true, 1024);
+    }
+
+    @Test
+    @DisplayName("write - Should serialize once and serve later hits from the cached bytes")
+    void write_ShouldServeHitsFromCachedBytes() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        responseBodyCache.write("todo-body", "1-v1", () -> {
+            loads.incrementAndGet();
+            return todo;
+        }, null, first);
+        MockHttpServletResponse second = new MockHttpServletResponse();
+        responseBodyCache.write("todo-body", "1-v1", () -> {
+            loads.incrementAndGet();
+            return todo;
+        }, "gzip", second);
+
+        assertEquals(1, loads.get());
+        assertEquals(objectMapper.writeValueAsString(todo), second.getContentAsString());
+        assertEquals("application/json", second.getContentType());
+        assertNull(second.getHeader("Content-Encoding"));
+    }
+
+    @Test
+    @DisplayName("write - Should send large bodies gzip-compressed to clients that accept gzip")
+    void write_ShouldSendGzipToAcceptingClients() throws Exception {
+        List<TodoResponse> page = largePage();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        response.setHeader("ETag", "\"todos-3\"");
+
+        responseBodyCache.write("todos-body", "3:/api/todos", () -> page, "gzip, deflate", response);
+
+        assertEquals("gzip", response.getHeader("Content-Encoding"));
+        assertEquals("W/\"todos-3\"", response.getHeader("ETag"));
+        assertEquals("Accept-Encoding", response.getHeader("Vary"));
+        assertEquals(objectMapper.writeValueAsString(page), gunzip(response.getContentAsByteArray()));
+    }
+
+    @Test
+    @DisplayName("write - Should inflate stored gzip bodies for clients that do not accept gzip")
+    void write_ShouldInflateForIdentityClients() throws Exception {
+        List<TodoResponse> page = largePage();
+        responseBodyCache.write("todos-body", "3:/api/todos", () -> page, "gzip", new MockHttpServletResponse());
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        responseBodyCache.write("todos-body", "3:/api/todos", () -> page, null, response);
+
+        assertNull(response.getHeader("Content-Encoding"));
+        assertEquals(objectMapper.writeValueAsString(page), response.getContentAsString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("acceptsGzip - Should honour q-values, with q=0 refusing gzip")
+    void acceptsGzip_ShouldHonourQualityValues() {
+        assertTrue(ResponseBodyCache.acceptsGzip("gzip, deflate"));
+        assertTrue(ResponseBodyCache.acceptsGzip("deflate;q=1, GZIP;q=0.5"));
+        assertTrue(ResponseBodyCache.acceptsGzip("*"));
+        assertFalse(ResponseBodyCache.acceptsGzip("gzip;q=0"));
+        assertFalse(ResponseBodyCache.acceptsGzip("gzip; q=0.0, *"));
+        assertFalse(ResponseBodyCache.acceptsGzip("identity, *;q=0"));
+        assertFalse(ResponseBodyCache.acceptsGzip("br"));
+        assertFalse(ResponseBodyCache.acceptsGzip(null));
+    }
+
+    @Test
+    @DisplayName("write - Should rethrow loader exceptions unwrapped")
+    void write_ShouldRethrowLoaderExceptions() {
+        assertThrows(ResourceNotFoundException.class, () -> responseBodyCache.write("todo-body", "2-v1",
+                () -> {
+                    throw new ResourceNotFoundException("Todo not found with id: 2");
+                }, null, new MockHttpServletResponse()));
+    }
+
+    private static List<TodoResponse> largePage() {
+        List<TodoResponse> page = new ArrayList<>();
+        for (long i = 0; i < 100; i++) {
+            page.add(new TodoResponse(i, "Todo " + i, "Description " + i, false,
+                    "2025-01-01T00:00", "2025-01-01T00:00"));
+        }
+        return page;
+    }
+
+    private static String gunzip(byte[] body) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.emobile.springtodo.unit;
+
+import com.emobile.springtodo.service.TodoArchiveService;
+import com.emobile.springtodo.service.TodoService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TodoArchiveServiceTest {
+
+    @Mock
+    private TodoService todoService;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("archive - Should move batches until one comes back short and count the archived todos")
+    void archive_ShouldStopAfterShortBatch() {
+        TodoArchiveService archiveService = archiveService(10);
+        when(todoService.archiveCompleted(any(), eq(2)))
+                .thenReturn(List.of(1L, 2L))
+                .thenReturn(List.of(3L));
+
+        LocalDateTime before = LocalDateTime.now().minusDays(30);
+        archiveService.archive();
+
+        ArgumentCaptor<LocalDateTime> cutoff = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(todoService, times(2)).archiveCompleted(cutoff.capture(), eq(2));
+        assertFalse(cutoff.getValue().isBefore(before));
+        assertFalse(cutoff.getValue().isAfter(LocalDateTime.now().minusDays(30)));
+        assertEquals(3, meterRegistry.get("todo.archive.archived").counter().count());
+        assertEquals(2, meterRegistry.get("todo.archive.batch").timer().count());
+    }
+
+    @Test
+    @DisplayName("archive - Should leave the rest for the next run after the maximum number of batches")
+    void archive_ShouldStopAfterMaxBatches() {
+        TodoArchiveService archiveService = archiveService(3);
+        when(todoService.archiveCompleted(any(), eq(2))).thenReturn(List.of(1L, 2L));
+
+        archiveService.archive();
+
+        verify(todoService, times(3)).archiveCompleted(any(), eq(2));
+        assertEquals(6, meterRegistry.get("todo.archive.archived").counter().count());
+    }
+
+    @Test
+    @DisplayName("archive - Should publish the sampled table sizes as gauges")
+    void archive_ShouldSampleTableSizes() {
+        TodoArchiveService archiveService = archiveService(10);
+        when(todoService.archiveCompleted(any(), eq(2))).thenReturn(List.of());
+        when(jdbcTemplate.queryForList(anyString())).thenReturn(List.of(
+                Map.of("relname", "todos", "bytes", 8192L, "row_estimate", 10L),
+                Map.of("relname", "todos_archive", "bytes", 65536L, "row_estimate", 1000L)));
+
+        archiveService.archive();
+
+        assertEquals(8192, meterRegistry.get("todo.table.size").tag("table", "todos").gauge().value());
+        assertEquals(65536, meterRegistry.get("todo.table.size").tag("table", "todos_archive").gauge().value());
+        assertEquals(1000, meterRegistry.get("todo.table.rows").tag("table", "todos_archive").gauge().value());
+    }
+
+    private TodoArchiveService archiveService(int maxBatches) {
+        return new TodoArchiveService(todoService, jdbcTemplate, Duration.ofDays(30), 2, maxBatches,
+                Duration.ZERO, meterRegistry);
+    }
+}
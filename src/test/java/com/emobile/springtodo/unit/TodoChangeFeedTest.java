@@ -0,0 +1,178 @@
+package com.emobile.springtodo.unit;
+
+import com.emobile.springtodo.controller.TodoControllerImpl;
+import com.emobile.springtodo.dto.response.TodoChangeType;
+import com.emobile.springtodo.dto.response.TodoResponse;
+import com.emobile.springtodo.service.TodoChangeFeed;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@ExtendWith(MockitoExtension.class)
+class TodoChangeFeedTest {
+
+    private static final String CHANNEL = "todo-changes";
+    private static final String SEQUENCE_KEY = "todo-changes:sequence";
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private TodoChangeFeed changeFeed;
+
+    @AfterEach
+    void tearDown() {
+        if (changeFeed != null) {
+            changeFeed.close();
+        }
+    }
+
+    @Test
+    @DisplayName("subscribe - Should push changes received after subscribing")
+    void subscribe_ShouldPushLiveChanges() throws Exception {
+        MockMvc mockMvc = mockMvc(16);
+        MvcResult result = mockMvc.perform(get("/api/todos/changes"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        changeFeed.onMessage(message(1, "created", "{\"id\":1}"), null);
+
+        String content = awaitContent(result, "id:1");
+        assertTrue(content.contains("event:created"));
+        assertTrue(content.contains("data:{\"id\":1}"));
+    }
+
+    @Test
+    @DisplayName("subscribe - Should replay only the changes after Last-Event-ID, in order")
+    void subscribe_ShouldReplayChangesAfterLastEventId() throws Exception {
+        MockMvc mockMvc = mockMvc(16);
+        publishedSequence("3");
+        changeFeed.onMessage(message(1, "created", "{\"id\":1}"), null);
+        changeFeed.onMessage(message(2, "updated", "{\"id\":1}"), null);
+        changeFeed.onMessage(message(3, "deleted", "{\"id\":1}"), null);
+
+        MvcResult result = mockMvc.perform(get("/api/todos/changes").header("Last-Event-ID", "1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String content = awaitContent(result, "id:3");
+        assertFalse(content.contains("id:1\n"));
+        assertTrue(content.indexOf("id:2") < content.indexOf("id:3"));
+        assertFalse(content.contains("event:reset"));
+    }
+
+    @Test
+    @DisplayName("subscribe - Should send reset when the missed changes were evicted")
+    void subscribe_ShouldResetWhenChangesEvicted() throws Exception {
+        MockMvc mockMvc = mockMvc(2);
+        publishedSequence("4");
+        for (int sequence = 1; sequence <= 4; sequence++) {
+            changeFeed.onMessage(message(sequence, "updated", "{\"id\":1}"), null);
+        }
+
+        MvcResult result = mockMvc.perform(get("/api/todos/changes").header("Last-Event-ID", "1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String content = awaitContent(result, "event:reset");
+        assertFalse(content.contains("id:3"));
+    }
+
+    @Test
+    @DisplayName("subscribe - Should send reset when changes were published before this node started")
+    void subscribe_ShouldResetWhenBufferCannotCoverGap() throws Exception {
+        MockMvc mockMvc = mockMvc(16);
+        publishedSequence("7");
+
+        MvcResult result = mockMvc.perform(get("/api/todos/changes").header("Last-Event-ID", "5"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        awaitContent(result, "event:reset");
+    }
+
+    @Test
+    @DisplayName("onMessage - Should reset subscribers when the sequence goes back")
+    void onMessage_ShouldResetWhenSequenceGoesBack() throws Exception {
+        MockMvc mockMvc = mockMvc(16);
+        MvcResult result = mockMvc.perform(get("/api/todos/changes"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        changeFeed.onMessage(message(5, "created", "{\"id\":5}"), null);
+        changeFeed.onMessage(message(1, "created", "{\"id\":6}"), null);
+
+        String content = awaitContent(result, "id:1");
+        assertTrue(content.indexOf("id:5") < content.indexOf("event:reset"));
+        assertTrue(content.indexOf("event:reset") < content.indexOf("id:1"));
+    }
+
+    @Test
+    @DisplayName("publish - Should not fail the write when Redis is unavailable")
+    @SuppressWarnings("unchecked")
+    void publish_ShouldSwallowRedisFailure() {
+        changeFeed = changeFeed(16);
+        when(redisTemplate.executePipelined(any(RedisCallback.class)))
+                .thenThrow(new RedisConnectionFailureException("down"));
+
+        assertDoesNotThrow(() -> changeFeed.publish(TodoChangeType.UPDATED, 1L,
+                new TodoResponse(1L, "Test Todo", null, false, null, null)));
+        verify(redisTemplate).executePipelined(any(RedisCallback.class));
+    }
+
+    private MockMvc mockMvc(int bufferSize) {
+        changeFeed = changeFeed(bufferSize);
+        TodoControllerImpl controller = new TodoControllerImpl(null, null, null, null, null, null, changeFeed);
+        return MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    private TodoChangeFeed changeFeed(int bufferSize) {
+        return new TodoChangeFeed(redisTemplate, new ObjectMapper(), new SimpleMeterRegistry(),
+                CHANNEL, SEQUENCE_KEY, bufferSize, 16);
+    }
+
+    private void publishedSequence(String sequence) {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get(SEQUENCE_KEY)).thenReturn(sequence);
+    }
+
+    private static DefaultMessage message(long sequence, String name, String json) {
+        return new DefaultMessage(CHANNEL.getBytes(StandardCharsets.UTF_8),
+                (sequence + "\t" + name + "\t" + json).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String awaitContent(MvcResult result, String expected) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        String content = result.getResponse().getContentAsString();
+        while (!content.contains(expected) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            content = result.getResponse().getContentAsString();
+        }
+        assertTrue(content.contains(expected), () -> "Expected " + expected + " in " + result.getResponse());
+        return content;
+    }
+}
@@ -1,7 +1,9 @@
 package com.emobile.springtodo.unit;
 
+import com.emobile.springtodo.cache.ResponseBodyCache;
 import com.emobile.springtodo.controller.TodoControllerImpl;
 import com.emobile.springtodo.dto.response.TodoResponse;
+import com.emobile.springtodo.repository.TodoFilter;
 import com.emobile.springtodo.service.TodoService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -10,6 +12,9 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.util.List;
 
@@ -22,6 +27,9 @@ class TodoControllerTest {
     @Mock
     private TodoService todoService;
 
+    @Mock
+    private ResponseBodyCache responseBodyCache;
+
     @InjectMocks
     private TodoControllerImpl todoControllerImpl;
 
@@ -36,13 +44,14 @@ class TodoControllerTest {
     @Test
     @DisplayName("getAllTodos - Should return list of todos")
     void getAllTodos_ShouldReturnTodoList() {
-        when(todoService.findAll(10, 0)).thenReturn(List.of(testTodo));
+        when(todoService.findAll(10, 0, TodoFilter.NONE)).thenReturn(List.of(testTodo));
 
-        var response = todoControllerImpl.getAllTodos(10, 0);
+        var response = todoControllerImpl.getAllTodos(
+                10, 0, null, null, null, null, null, "createdAt", "asc", false, webRequest());
 
         assertEquals(1, response.size());
         assertEquals("Test Todo", response.get(0).title());
-        verify(todoService, times(1)).findAll(10, 0);
+        verify(todoService, times(1)).findAll(10, 0, TodoFilter.NONE);
     }
 
     @Test
@@ -50,9 +59,13 @@ class TodoControllerTest {
     void getTodoById_ShouldReturnTodoWhenExists() {
         when(todoService.findById(1L)).thenReturn(testTodo);
 
-        var response = todoControllerImpl.getTodoById(1L);
+        var response = todoControllerImpl.getTodoById(1L, webRequest());
 
         assertEquals("Test Todo", response.title());
         verify(todoService, times(1)).findById(1L);
     }
-}
\ No newline at end of file
+
+    private static ServletWebRequest webRequest() {
+        return new ServletWebRequest(new MockHttpServletRequest(), new MockHttpServletResponse());
+    }
+}
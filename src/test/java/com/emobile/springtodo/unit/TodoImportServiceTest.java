@@ -0,0 +1,170 @@
+package com.emobile.springtodo.unit;
+
+import com.emobile.springtodo.cache.CacheGenerations;
+import com.emobile.springtodo.service.ExportFormat;
+import com.emobile.springtodo.service.TodoChangeFeed;
+import com.emobile.springtodo.service.TodoImportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.sql.Connection;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TodoImportServiceTest {
+
+    @Mock
+    private DataSource dataSource;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private PGConnection pgConnection;
+
+    @Mock
+    private CopyManager copyManager;
+
+    @Mock
+    private CopyIn copyIn;
+
+    @Mock
+    private CacheGenerations cacheGenerations;
+
+    @Mock
+    private TodoChangeFeed changeFeed;
+
+    private final ByteArrayOutputStream copied = new ByteArrayOutputStream();
+
+    private TodoImportService todoImportService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        todoImportService = new TodoImportService(
+                dataSource,
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                new ObjectMapper(),
+                cacheGenerations,
+                changeFeed);
+        ReflectionTestUtils.setField(todoImportService, "maxReportedRejections", 10);
+
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.unwrap(PGConnection.class)).thenReturn(pgConnection);
+        when(pgConnection.getCopyAPI()).thenReturn(copyManager);
+        when(copyManager.copyIn(anyString())).thenReturn(copyIn);
+        lenient().doAnswer(invocation -> {
+            copied.write(invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2));
+            return null;
+        }).when(copyIn).writeToCopy(any(byte[].class), anyInt(), anyInt());
+    }
+
+    @Test
+    @DisplayName("importTodos - Should copy valid CSV rows and report invalid ones")
+    void importTodos_ShouldCopyValidCsvRowsAndReportInvalid() throws Exception {
+        when(copyIn.endCopy()).thenReturn(2L);
+        String csv = "title,description,completed\n"
+                + "Buy milk,\"2 liters, \"\"fresh\"\"\",true\n"
+                + ",no title,false\n"
+                + "\"Multi\nline\",,false\n";
+
+        var result = todoImportService.importTodos(ExportFormat.CSV, stream(csv));
+
+        assertEquals(2, result.imported());
+        assertEquals(1, result.rejected());
+        assertEquals(3, result.rejectedLines().get(0).line());
+        assertEquals("title: must not be blank", result.rejectedLines().get(0).errors().get(0));
+
+        String[] rows = copied.toString(StandardCharsets.UTF_8).split("\n(?=\")");
+        assertEquals(2, rows.length);
+        assertTrue(rows[0].startsWith("\"Buy milk\",\"2 liters, \"\"fresh\"\"\",t,"));
+        assertTrue(rows[1].startsWith("\"Multi\nline\",,f,"));
+        verify(cacheGenerations).bump("todos");
+        verify(changeFeed).publishReset();
+    }
+
+    @Test
+    @DisplayName("importTodos - Should reject malformed and oversized NDJSON lines")
+    void importTodos_ShouldRejectMalformedNdjsonLines() throws Exception {
+        when(copyIn.endCopy()).thenReturn(1L);
+        String ndjson = "{\"title\":\"Ok\",\"completed\":false}\n"
+                + "{not json}\n"
+                + "{\"title\":\"" + "x".repeat(101) + "\"}\n";
+
+        var result = todoImportService.importTodos(ExportFormat.NDJSON, stream(ndjson));
+
+        assertEquals(1, result.imported());
+        assertEquals(2, result.rejected());
+        assertEquals(2, result.rejectedLines().get(0).line());
+        assertEquals(3, result.rejectedLines().get(1).line());
+        assertTrue(result.rejectedLines().get(1).errors().get(0).startsWith("title: size must be"));
+    }
+
+    @Test
+    @DisplayName("importTodos - Should reject null NDJSON lines and non-boolean completed values")
+    void importTodos_ShouldRejectNullLinesAndNonBooleanCompleted() throws Exception {
+        when(copyIn.endCopy()).thenReturn(1L);
+        String ndjson = "{\"title\":\"Ok\",\"completed\":true}\n"
+                + "null\n"
+                + "{\"title\":\"Yes\",\"completed\":\"yes\"}\n"
+                + "{\"title\":\"One\",\"completed\":1}\n";
+
+        var result = todoImportService.importTodos(ExportFormat.NDJSON, stream(ndjson));
+
+        assertEquals(1, result.imported());
+        assertEquals(3, result.rejected());
+        assertEquals(List.of("Line must be a JSON object"), result.rejectedLines().get(0).errors());
+        assertEquals(List.of("completed: must be true or false"), result.rejectedLines().get(1).errors());
+        assertEquals(List.of("completed: must be true or false"), result.rejectedLines().get(2).errors());
+        assertTrue(copied.toString(StandardCharsets.UTF_8).startsWith("\"Ok\",,t,"));
+    }
+
+    @Test
+    @DisplayName("importTodos - Should reject CSV rows whose completed is not true or false")
+    void importTodos_ShouldRejectInvalidCsvCompleted() throws Exception {
+        when(copyIn.endCopy()).thenReturn(2L);
+        String csv = "title,completed\nDone,TRUE\nOpen,\nMaybe,yes\n";
+
+        var result = todoImportService.importTodos(ExportFormat.CSV, stream(csv));
+
+        assertEquals(1, result.rejected());
+        assertEquals(4, result.rejectedLines().get(0).line());
+        assertEquals(List.of("completed: must be true or false"), result.rejectedLines().get(0).errors());
+        String[] rows = copied.toString(StandardCharsets.UTF_8).split("\n");
+        assertTrue(rows[0].startsWith("\"Done\",,t,"));
+        assertTrue(rows[1].startsWith("\"Open\",,f,"));
+    }
+
+    @Test
+    @DisplayName("importTodos - Should cancel COPY when the body cannot be parsed")
+    void importTodos_ShouldCancelCopyOnParseFailure() throws Exception {
+        when(copyIn.isActive()).thenReturn(true);
+
+        assertThrows(Exception.class,
+                () -> todoImportService.importTodos(ExportFormat.CSV, stream("title\n\"unterminated\n")));
+
+        verify(copyIn).cancelCopy();
+        verifyNoInteractions(cacheGenerations, changeFeed);
+    }
+
+    private static ByteArrayInputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,100 @@
+package com.emobile.springtodo.unit;
+
+import com.emobile.springtodo.cache.TodoRedisSerializer;
+import com.emobile.springtodo.dto.response.TodoResponse;
+import com.emobile.springtodo.dto.response.TodoSliceResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.support.NullValue;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TodoRedisSerializerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private TodoRedisSerializer serializer;
+
+    private final TodoResponse todo = new TodoResponse(42L, "Решить контест", "До 22 числа", true,
+            "2025-04-25T21:25:38.446425700", "2025-04-26T00:00");
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        serializer = new TodoRedisSerializer(1024, meterRegistry, 1);
+    }
+
+    @Test
+    @DisplayName("serialize - Should round-trip a todo with null fields")
+    void serialize_ShouldRoundTripTodoWithNulls() {
+        TodoResponse sparse = new TodoResponse(1L, "Test Todo", null, false, null, null);
+
+        assertEquals(sparse, serializer.deserialize(serializer.serialize(sparse)));
+        assertEquals(todo, serializer.deserialize(serializer.serialize(todo)));
+    }
+
+    @Test
+    @DisplayName("serialize - Should store pre-serialized bodies as raw bytes")
+    void serialize_ShouldRoundTripRawBytes() {
+        byte[] body = "{\"id\":1}".getBytes(java.nio.charset.StandardCharsets.UTF_8);
+
+        byte[] encoded = serializer.serialize(body);
+
+        assertEquals(body.length + 3, encoded.length);
+        assertArrayEquals(body, (byte[]) serializer.deserialize(encoded));
+    }
+
+    @Test
+    @DisplayName("serialize - Should round-trip every LocalDateTime.toString shape")
+    void serialize_ShouldRoundTripTimestampShapes() {
+        for (String timestamp : List.of("2025-04-26T00:00", "2025-04-26T00:00:01", "2025-04-26T00:00:01.500",
+                "2025-04-26T00:00:01.123456", "2025-04-26T00:00:01.123456789", "1969-12-31T23:59:59.999")) {
+            TodoResponse value = new TodoResponse(1L, "t", null, false, timestamp, timestamp);
+            assertEquals(value, serializer.deserialize(serializer.serialize(value)), timestamp);
+        }
+    }
+
+    @Test
+    @DisplayName("serialize - Should round-trip pages and compress large ones")
+    void serialize_ShouldRoundTripAndCompressLargePages() {
+        List<TodoResponse> page = new ArrayList<>();
+        for (long i = 0; i < 200; i++) {
+            page.add(new TodoResponse(i, "Todo " + i, "Description", i % 2 == 0,
+                    "2025-04-25T21:25:38.446", "2025-04-25T21:25:38.446"));
+        }
+        TodoSliceResponse slice = new TodoSliceResponse(page, "cursor", true);
+
+        byte[] encodedPage = serializer.serialize(page);
+        byte[] encodedSlice = serializer.serialize(slice);
+
+        assertEquals(page, serializer.deserialize(encodedPage));
+        assertEquals(slice, serializer.deserialize(encodedSlice));
+        assertEquals(1, encodedPage[2], "large pages should be LZ4 compressed");
+    }
+
+    @Test
+    @DisplayName("serialize - Should be several times smaller than JDK serialization")
+    void serialize_ShouldBeSmallerThanJdkSerialization() {
+        byte[] binary = serializer.serialize(todo);
+        byte[] jdk = new JdkSerializationRedisSerializer().serialize(todo);
+
+        assertTrue(binary.length * 4 < jdk.length, binary.length + " vs " + jdk.length);
+        var summary = meterRegistry.get("cache.codec.entry.size").tag("codec", "binary").summary();
+        assertEquals(binary.length, summary.totalAmount());
+    }
+
+    @Test
+    @DisplayName("deserialize - Should fall back to JDK serialization for other values and legacy entries")
+    void deserialize_ShouldFallBackToJdkSerialization() {
+        byte[] legacy = new JdkSerializationRedisSerializer().serialize(todo);
+
+        assertEquals(todo, serializer.deserialize(legacy));
+        assertSame(NullValue.INSTANCE, serializer.deserialize(serializer.serialize(NullValue.INSTANCE)));
+        assertEquals(List.of(), serializer.deserialize(serializer.serialize(List.of())));
+    }
+}
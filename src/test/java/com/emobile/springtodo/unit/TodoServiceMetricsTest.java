@@ -0,0 +1,111 @@
+package com.emobile.springtodo.unit;
+
+import com.emobile.springtodo.cache.CacheGenerations;
+import com.emobile.springtodo.dto.response.TodoResponse;
+import com.emobile.springtodo.exception.ResourceNotFoundException;
+import com.emobile.springtodo.mapper.TodoMapper;
+import com.emobile.springtodo.model.Todo;
+import com.emobile.springtodo.repository.TodoRepository;
+import com.emobile.springtodo.service.TodoChangeFeed;
+import com.emobile.springtodo.service.TodoService;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.boot.actuate.autoconfigure.metrics.MetricsProperties;
+import org.springframework.boot.actuate.autoconfigure.metrics.ServiceLevelObjectiveBoundary;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+
+import java.util.Optional;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TodoServiceMetricsTest {
+
+    @Mock
+    private TodoRepository todoRepository;
+
+    @Mock
+    private TodoMapper todoMapper;
+
+    @Mock
+    private CacheGenerations cacheGenerations;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private TodoChangeFeed changeFeed;
+
+    private SimpleMeterRegistry meterRegistry;
+    private TodoService todoService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        AspectJProxyFactory factory = new AspectJProxyFactory(
+                new TodoService(todoRepository, todoMapper, cacheGenerations, cacheManager, changeFeed));
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new TimedAspect(meterRegistry));
+        todoService = factory.getProxy();
+    }
+
+    @Test
+    @DisplayName("TodoService - Should time each method call by method name")
+    void service_ShouldRecordTimerPerMethod() {
+        Todo todo = Todo.builder().id(1L).title("Test Todo").build();
+        when(todoRepository.findById(1L)).thenReturn(Optional.of(todo));
+        when(todoMapper.toResponse(todo)).thenReturn(new TodoResponse(1L, "Test Todo", null, false, null, null));
+
+        todoService.findById(1L);
+        todoService.findById(1L);
+
+        Timer timer = meterRegistry.get("todo.service")
+                .tag("method", "findById")
+                .tag("exception", "none")
+                .timer();
+        assertEquals(2, timer.count());
+    }
+
+    @Test
+    @DisplayName("TodoService - Should tag failed calls with the exception type")
+    void service_ShouldTagExceptions() {
+        when(todoRepository.findById(2L)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> todoService.findById(2L));
+
+        Timer timer = meterRegistry.get("todo.service")
+                .tag("method", "findById")
+                .tag("exception", "ResourceNotFoundException")
+                .timer();
+        assertEquals(1, timer.count());
+    }
+
+    @Test
+    @DisplayName("application.properties - Should bind every metrics distribution setting")
+    void applicationProperties_ShouldBindMetricsDistribution() throws Exception {
+        Properties properties = PropertiesLoaderUtils.loadProperties(new ClassPathResource("application.properties"));
+
+        MetricsProperties metrics = new Binder(new MapConfigurationPropertySource(properties))
+                .bind("management.metrics", MetricsProperties.class)
+                .get();
+
+        ServiceLevelObjectiveBoundary[] httpSlo = metrics.getDistribution().getSlo().get("http.server.requests");
+        assertEquals(2_500_000_000.0, httpSlo[httpSlo.length - 1].getValue(Meter.Type.TIMER));
+        assertEquals(4, metrics.getDistribution().getSlo().size());
+    }
+}
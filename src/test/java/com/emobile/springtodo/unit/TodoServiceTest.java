@@ -1,11 +1,24 @@
 package com.emobile.springtodo.unit;
 
 
+import com.emobile.springtodo.cache.CacheGenerations;
+import com.emobile.springtodo.cache.TwoLevelCache;
+import com.emobile.springtodo.dto.request.TodoBatchUpdateRequest;
 import com.emobile.springtodo.dto.request.TodoRequest;
+import com.emobile.springtodo.dto.response.TodoChangeEvent;
+import com.emobile.springtodo.dto.response.TodoChangeType;
+import com.emobile.springtodo.dto.response.TodoMultiGetResponse;
 import com.emobile.springtodo.dto.response.TodoResponse;
+import com.emobile.springtodo.exception.BadRequestException;
+import com.emobile.springtodo.exception.ResourceNotFoundException;
 import com.emobile.springtodo.mapper.TodoMapper;
 import com.emobile.springtodo.model.Todo;
+import com.emobile.springtodo.repository.TodoFilter;
 import com.emobile.springtodo.repository.TodoRepository;
+import com.emobile.springtodo.repository.TodoSearchHit;
+import com.emobile.springtodo.service.TodoChangeFeed;
+import com.emobile.springtodo.service.TodoCursor;
+import com.emobile.springtodo.service.TodoSearchCursor;
 import com.emobile.springtodo.service.TodoService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -14,15 +27,22 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -34,6 +54,15 @@ class TodoServiceTest {
     @Mock
     private TodoMapper todoMapper;
 
+    @Mock
+    private CacheGenerations cacheGenerations;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private TodoChangeFeed changeFeed;
+
     @InjectMocks
     private TodoService todoService;
 
@@ -55,14 +84,102 @@ class TodoServiceTest {
     @DisplayName("findAll - Should return paginated todos")
     void findAll_ShouldReturnPaginatedTodos() {
 
-        when(todoRepository.findAll(PageRequest.of(0, 10))).thenReturn(new PageImpl<>(List.of(testTodo)));
+        when(todoRepository.findPage(TodoFilter.NONE, 10, 0)).thenReturn(List.of(testTodo));
         when(todoMapper.toResponse(any(Todo.class))).thenReturn(testResponse);
 
-        var result = todoService.findAll(10, 0);
+        var result = todoService.findAll(10, 0, TodoFilter.NONE);
 
         assertEquals(1, result.size());
         assertEquals("Test Todo", result.get(0).title());
-        verify(todoRepository, times(1)).findAll(PageRequest.of(0, 10));
+        verify(todoRepository, times(1)).findPage(TodoFilter.NONE, 10, 0);
+    }
+
+    @Test
+    @DisplayName("findAll - Should use the exact offset when it is not a multiple of the limit")
+    void findAll_ShouldUseExactOffset() {
+        when(todoRepository.findPage(TodoFilter.NONE, 10, 15)).thenReturn(List.of(testTodo));
+        when(todoMapper.toResponse(any(Todo.class))).thenReturn(testResponse);
+
+        todoService.findAll(10, 15, TodoFilter.NONE);
+
+        verify(todoRepository, times(1)).findPage(TodoFilter.NONE, 10, 15);
+    }
+
+    @Test
+    @DisplayName("findAll - Should reject non-positive limit")
+    void findAll_ShouldRejectNonPositiveLimit() {
+        assertThrows(BadRequestException.class, () -> todoService.findAll(0, 0, TodoFilter.NONE));
+    }
+
+    @Test
+    @DisplayName("findSlice - Should return cursor of the last item when there is a next slice")
+    void findSlice_ShouldReturnNextCursor() {
+        LocalDateTime createdAt = LocalDateTime.of(2025, 1, 1, 0, 0);
+        Todo first = Todo.builder().id(1L).title("First").createdAt(createdAt).build();
+        Todo second = Todo.builder().id(2L).title("Second").createdAt(createdAt).build();
+        when(todoRepository.findFirstSlice(2)).thenReturn(List.of(first, second));
+        when(todoMapper.toResponse(any(Todo.class))).thenReturn(testResponse);
+
+        var result = todoService.findSlice(1, "");
+
+        assertEquals(1, result.content().size());
+        assertTrue(result.hasNext());
+        assertEquals(new TodoCursor(createdAt, 1L), TodoCursor.decode(result.nextCursor()));
+    }
+
+    @Test
+    @DisplayName("findSlice - Should seek after the decoded cursor")
+    void findSlice_ShouldSeekAfterCursor() {
+        LocalDateTime createdAt = LocalDateTime.of(2025, 1, 1, 0, 0);
+        String after = new TodoCursor(createdAt, 5L).encode();
+        when(todoRepository.findSliceAfter(createdAt, 5L, 11)).thenReturn(List.of(testTodo));
+        when(todoMapper.toResponse(testTodo)).thenReturn(testResponse);
+
+        var result = todoService.findSlice(10, after);
+
+        assertEquals(1, result.content().size());
+        assertFalse(result.hasNext());
+        assertNull(result.nextCursor());
+    }
+
+    @Test
+    @DisplayName("findSlice - Should reject malformed cursor")
+    void findSlice_ShouldRejectMalformedCursor() {
+        assertThrows(BadRequestException.class, () -> todoService.findSlice(10, "not-a-cursor"));
+    }
+
+    @Test
+    @DisplayName("search - Should return ranked hits with the cursor of the last one")
+    void search_ShouldReturnNextCursor() {
+        Todo second = Todo.builder().id(2L).title("Second").build();
+        when(todoRepository.search("todo", 2)).thenReturn(List.of(
+                new TodoSearchHit(testTodo, 0.6f), new TodoSearchHit(second, 0.3f)));
+        when(todoMapper.toResponse(testTodo)).thenReturn(testResponse);
+
+        var result = todoService.search("todo", 1, null);
+
+        assertEquals(1, result.content().size());
+        assertTrue(result.hasNext());
+        assertEquals(new TodoSearchCursor(0.6f, 1L), TodoSearchCursor.decode(result.nextCursor()));
+    }
+
+    @Test
+    @DisplayName("search - Should seek after the decoded cursor")
+    void search_ShouldSeekAfterCursor() {
+        String after = new TodoSearchCursor(0.0607927f, 5L).encode();
+        when(todoRepository.searchAfter("todo", 0.0607927f, 5L, 11)).thenReturn(List.of());
+
+        var result = todoService.search("todo", 10, after);
+
+        assertTrue(result.content().isEmpty());
+        assertFalse(result.hasNext());
+    }
+
+    @Test
+    @DisplayName("search - Should reject blank query")
+    void search_ShouldRejectBlankQuery() {
+        assertThrows(BadRequestException.class, () -> todoService.search("  ", 10, null));
+        verifyNoInteractions(todoRepository);
     }
 
     @Test
@@ -88,31 +205,167 @@ class TodoServiceTest {
 
         assertEquals("Test Todo", result.title());
         verify(todoRepository, times(1)).save(testTodo);
+        verify(cacheGenerations, times(1)).bump("todos");
+        verify(changeFeed).publish(TodoChangeType.CREATED, 1L, testResponse);
     }
 
     @Test
-    @DisplayName("update - Should update and return existing todo")
-    void update_ShouldSaveAndReturnExistingTodo() {
-        when(todoRepository.findById(1L)).thenReturn(Optional.of(testTodo));
-        when(todoRepository.save(testTodo)).thenReturn(testTodo);
+    @DisplayName("update - Should update in one statement and return the stored row")
+    void update_ShouldUpdateReturningStoredRow() {
+        when(todoRepository.updateReturning(eq(1L), eq("Test Todo"), isNull(), eq(false), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(testTodo));
         when(todoMapper.toResponse(testTodo)).thenReturn(testResponse);
 
         var result = todoService.update(1L, testRequest);
 
         assertEquals("Test Todo", result.title());
-        verify(todoRepository, times(1)).save(testTodo);
+        verify(todoRepository, never()).findById(any());
+        verify(todoRepository, never()).save(any());
+        verify(cacheGenerations, times(1)).bump("todos");
+        verify(changeFeed).publish(TodoChangeType.UPDATED, 1L, testResponse);
+    }
+
+    @Test
+    @DisplayName("update - Should throw when no row was updated")
+    void update_ShouldThrowWhenNoRowUpdated() {
+        when(todoRepository.updateReturning(eq(1L), any(), any(), anyBoolean(), any()))
+                .thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> todoService.update(1L, testRequest));
+        verify(cacheGenerations, never()).bump(any());
+        verifyNoInteractions(changeFeed);
     }
 
     @Test
     @DisplayName("delete - should delete existing todo")
     void delete_ShouldDeleteWhenTodoExists() {
         Long todoId = 1L;
-        when(todoRepository.existsById(todoId)).thenReturn(true);
-        doNothing().when(todoRepository).deleteById(todoId);
+        when(todoRepository.deleteReturningCount(todoId)).thenReturn(1);
 
         todoService.delete(todoId);
 
-        verify(todoRepository, times(1)).existsById(todoId);
-        verify(todoRepository, times(1)).deleteById(todoId);
+        verify(todoRepository, times(1)).deleteReturningCount(todoId);
+        verify(todoRepository, never()).existsById(any());
+        verify(cacheGenerations, times(1)).bump("todos");
+        verify(changeFeed).publish(TodoChangeType.DELETED, todoId, null);
+    }
+
+    @Test
+    @DisplayName("delete - Should throw when no row was deleted")
+    void delete_ShouldThrowWhenNoRowDeleted() {
+        when(todoRepository.deleteReturningCount(1L)).thenReturn(0);
+
+        assertThrows(ResourceNotFoundException.class, () -> todoService.delete(1L));
+        verify(cacheGenerations, never()).bump(any());
+    }
+
+    @Test
+    @DisplayName("createAll - Should save all todos and bump the list generation once")
+    void createAll_ShouldSaveAllAndBumpOnce() {
+        when(todoMapper.toEntity(testRequest)).thenReturn(testTodo);
+        when(todoRepository.saveAll(anyList())).thenReturn(List.of(testTodo, testTodo));
+        when(todoMapper.toResponse(testTodo)).thenReturn(testResponse);
+
+        var result = todoService.createAll(List.of(testRequest, testRequest));
+
+        assertEquals(2, result.size());
+        verify(todoRepository, times(1)).saveAll(anyList());
+        verify(cacheGenerations, times(1)).bump("todos");
+        verify(changeFeed, times(1)).publishAll(List.of(
+                new TodoChangeEvent(TodoChangeType.CREATED, 1L, testResponse),
+                new TodoChangeEvent(TodoChangeType.CREATED, 1L, testResponse)));
+    }
+
+    @Test
+    @DisplayName("updateAll - Should throw when some of the todos do not exist")
+    void updateAll_ShouldThrowWhenTodoMissing() {
+        when(todoRepository.findAllById(any())).thenReturn(List.of(testTodo));
+        List<TodoBatchUpdateRequest> requests = List.of(
+                new TodoBatchUpdateRequest(1L, "Updated", null, true),
+                new TodoBatchUpdateRequest(2L, "Updated", null, true));
+
+        assertThrows(ResourceNotFoundException.class, () -> todoService.updateAll(requests));
+        verify(todoRepository, never()).saveAll(any());
+        verifyNoInteractions(cacheGenerations);
+    }
+
+    @Test
+    @DisplayName("deleteAll - Should delete in one statement and evict every id")
+    void deleteAll_ShouldDeleteInBatchAndEvictEveryId() {
+        Cache todoCache = mock(Cache.class);
+        when(cacheManager.getCache("todo")).thenReturn(todoCache);
+
+        todoService.deleteAll(List.of(1L, 2L));
+
+        verify(todoRepository, times(1)).deleteAllByIdInBatch(List.of(1L, 2L));
+        verify(todoCache).evict(1L);
+        verify(todoCache).evict(2L);
+        verify(cacheGenerations, times(1)).bump("todos");
+        verify(changeFeed, times(1)).publishAll(List.of(
+                new TodoChangeEvent(TodoChangeType.DELETED, 1L, null),
+                new TodoChangeEvent(TodoChangeType.DELETED, 2L, null)));
+    }
+
+    @Test
+    @DisplayName("findAllById - Should load only cache misses in one query and back-fill them")
+    void findAllById_ShouldLoadMissesInOneQueryAndBackFill() {
+        TwoLevelCache todoCache = mock(TwoLevelCache.class);
+        when(cacheManager.getCache("todo")).thenReturn(todoCache);
+        TodoResponse cached = new TodoResponse(2L, "Cached", null, false, null, null);
+        when(todoCache.getAll(Set.of(2L, 1L, 3L))).thenReturn(Map.of(2L, cached));
+        when(todoRepository.findAllByIdArray(List.of(1L, 3L))).thenReturn(List.of(testTodo));
+        when(todoMapper.toResponse(testTodo)).thenReturn(testResponse);
+
+        TodoMultiGetResponse result = todoService.findAllById(List.of(2L, 1L, 3L, 2L));
+
+        assertEquals(List.of(cached, testResponse), result.todos());
+        assertEquals(List.of(3L), result.missingIds());
+        verify(todoRepository, times(1)).findAllByIdArray(anyCollection());
+        verify(todoCache).putAllIfAbsent(Map.of(1L, testResponse));
+    }
+
+    @Test
+    @DisplayName("findAllById - Should not query the database when every todo is cached")
+    void findAllById_ShouldSkipDatabaseWhenAllCached() {
+        TwoLevelCache todoCache = mock(TwoLevelCache.class);
+        when(cacheManager.getCache("todo")).thenReturn(todoCache);
+        when(todoCache.getAll(Set.of(1L))).thenReturn(Map.of(1L, testResponse));
+
+        TodoMultiGetResponse result = todoService.findAllById(List.of(1L));
+
+        assertEquals(List.of(testResponse), result.todos());
+        assertTrue(result.missingIds().isEmpty());
+        verifyNoInteractions(todoRepository);
+        verify(todoCache, never()).putAllIfAbsent(any());
+    }
+
+    @Test
+    @DisplayName("archiveCompleted - Should evict archived todos and announce them on the change feed")
+    void archiveCompleted_ShouldEvictAndPublishArchivedIds() {
+        LocalDateTime cutoff = LocalDateTime.of(2025, 1, 1, 0, 0);
+        Cache todoCache = mock(Cache.class);
+        when(cacheManager.getCache("todo")).thenReturn(todoCache);
+        when(todoRepository.archiveCompleted(cutoff, 100)).thenReturn(List.of(1L, 2L));
+
+        List<Long> archived = todoService.archiveCompleted(cutoff, 100);
+
+        assertEquals(List.of(1L, 2L), archived);
+        verify(todoCache).evict(1L);
+        verify(todoCache).evict(2L);
+        verify(cacheGenerations, times(1)).bump("todos");
+        verify(changeFeed, times(1)).publishAll(List.of(
+                new TodoChangeEvent(TodoChangeType.ARCHIVED, 1L, null),
+                new TodoChangeEvent(TodoChangeType.ARCHIVED, 2L, null)));
+    }
+
+    @Test
+    @DisplayName("archiveCompleted - Should leave caches alone when nothing was archived")
+    void archiveCompleted_ShouldNotInvalidateWhenNothingMoved() {
+        LocalDateTime cutoff = LocalDateTime.of(2025, 1, 1, 0, 0);
+        when(todoRepository.archiveCompleted(cutoff, 100)).thenReturn(List.of());
+
+        assertTrue(todoService.archiveCompleted(cutoff, 100).isEmpty());
+
+        verifyNoInteractions(cacheManager, cacheGenerations, changeFeed);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,186 @@
+package com.emobile.springtodo.unit;
+
+import com.emobile.springtodo.service.TodoStatsService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TodoStatsServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private TodoStatsService todoStatsService;
+    private String createdToday;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        todoStatsService = new TodoStatsService(jdbcTemplate, transactionManager, meterRegistry);
+        createdToday = "created:" + LocalDate.now();
+    }
+
+    @Test
+    @DisplayName("getStats - Should derive open todos from the counters")
+    void getStats_ShouldReadCounters() {
+        when(jdbcTemplate.queryForList(anyString(), eq("total"), eq("completed"), eq(createdToday)))
+                .thenReturn(List.of(
+                        Map.of("name", "total", "value", 10L),
+                        Map.of("name", "completed", "value", 4L),
+                        Map.of("name", createdToday, "value", 2L)));
+
+        var stats = todoStatsService.getStats();
+
+        assertEquals(10, stats.total());
+        assertEquals(4, stats.completed());
+        assertEquals(6, stats.open());
+        assertEquals(2, stats.createdToday());
+    }
+
+    @Test
+    @DisplayName("getStats - Should report zero for counters that do not exist yet")
+    void getStats_ShouldDefaultMissingCountersToZero() {
+        when(jdbcTemplate.queryForList(anyString(), eq("total"), eq("completed"), eq(createdToday))).thenReturn(List.of());
+
+        var stats = todoStatsService.getStats();
+
+        assertEquals(0, stats.total());
+        assertEquals(0, stats.open());
+        assertEquals(0, stats.createdToday());
+    }
+
+    @Test
+    @DisplayName("reconcile - Should add the drift found in one snapshot to the counters without locking tables")
+    void reconcile_ShouldCorrectCountersByDriftAndRecordIt() {
+        when(jdbcTemplate.queryForList(anyString(), eq("total"), eq("completed"), eq(createdToday))).thenReturn(List.of(
+                Map.of("name", "total", "value", 10L),
+                Map.of("name", "completed", "value", 4L)));
+        when(jdbcTemplate.queryForMap(anyString(), any(Timestamp.class), any(Timestamp.class)))
+                .thenReturn(Map.of("total", 12L, "completed", 4L, "created_today", 1L));
+        grantReconcileLock();
+
+        todoStatsService.reconcile();
+
+        ArgumentCaptor<List<Object[]>> corrections = ArgumentCaptor.captor();
+        verify(jdbcTemplate).batchUpdate(anyString(), corrections.capture());
+        assertEquals(List.of(List.of(createdToday, 1L), List.of("total", 2L)),
+                corrections.getValue().stream().map(List::of).toList());
+        verify(jdbcTemplate).update(anyString(), eq("created:%"), eq(createdToday));
+        verify(jdbcTemplate, never()).execute(anyString());
+        assertEquals(3, meterRegistry.get("todo.stats.reconciliation.drift").summary().totalAmount());
+    }
+
+    @Test
+    @DisplayName("reconcile - Should leave counters that match the recount untouched")
+    void reconcile_ShouldNotWriteWithoutDrift() {
+        when(jdbcTemplate.queryForList(anyString(), eq("total"), eq("completed"), eq(createdToday))).thenReturn(List.of(
+                Map.of("name", "total", "value", 10L),
+                Map.of("name", "completed", "value", 4L)));
+        when(jdbcTemplate.queryForMap(anyString(), any(Timestamp.class), any(Timestamp.class)))
+                .thenReturn(Map.of("total", 10L, "completed", 4L, "created_today", 0L));
+        grantReconcileLock();
+
+        todoStatsService.reconcile();
+
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+        assertEquals(0, meterRegistry.get("todo.stats.reconciliation.drift").summary().totalAmount());
+    }
+
+    @Test
+    @DisplayName("reconcile - Should apply the drift once when two nodes reconcile at the same time")
+    void reconcile_ShouldApplyDriftOnceAcrossConcurrentRuns() throws Exception {
+        // Stands in for the advisory lock: taken by the correcting transaction, released when it commits
+        Semaphore advisoryLock = new Semaphore(1);
+        Map<TransactionStatus, Boolean> lockHolders = new ConcurrentHashMap<>();
+        ThreadLocal<TransactionStatus> correcting = new ThreadLocal<>();
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> {
+            TransactionStatus status = new SimpleTransactionStatus();
+            TransactionDefinition definition = invocation.getArgument(0);
+            if (definition.getPropagationBehavior() == TransactionDefinition.PROPAGATION_REQUIRED) {
+                correcting.set(status);
+            }
+            return status;
+        });
+        doAnswer(invocation -> {
+            if (lockHolders.remove(invocation.<TransactionStatus>getArgument(0)) != null) {
+                advisoryLock.release();
+            }
+            return null;
+        }).when(transactionManager).commit(any());
+        when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class), anyLong())).thenAnswer(invocation -> {
+            boolean granted = advisoryLock.tryAcquire();
+            if (granted) {
+                lockHolders.put(correcting.get(), Boolean.TRUE);
+            }
+            return granted;
+        });
+
+        CountDownLatch recounting = new CountDownLatch(1);
+        CountDownLatch finishRecount = new CountDownLatch(1);
+        when(jdbcTemplate.queryForList(anyString(), eq("total"), eq("completed"), eq(createdToday))).thenReturn(List.of(
+                Map.of("name", "total", "value", 10L),
+                Map.of("name", "completed", "value", 4L)));
+        when(jdbcTemplate.queryForMap(anyString(), any(Timestamp.class), any(Timestamp.class)))
+                .thenAnswer(invocation -> {
+                    recounting.countDown();
+                    assertTrue(finishRecount.await(5, TimeUnit.SECONDS));
+                    return Map.of("total", 12L, "completed", 4L, "created_today", 0L);
+                });
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> first = executor.submit(todoStatsService::reconcile);
+            assertTrue(recounting.await(5, TimeUnit.SECONDS));
+            todoStatsService.reconcile();
+            finishRecount.countDown();
+            first.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), anyList());
+        verify(jdbcTemplate, times(1)).queryForMap(anyString(), any(Timestamp.class), any(Timestamp.class));
+        assertEquals(1, meterRegistry.get("todo.stats.reconciliation.drift").summary().count());
+        assertEquals(1, advisoryLock.availablePermits());
+    }
+
+    private void grantReconcileLock() {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class), anyLong())).thenReturn(true);
+    }
+}
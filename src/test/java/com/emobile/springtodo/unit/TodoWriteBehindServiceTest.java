@@ -0,0 +1,224 @@
+package com.emobile.springtodo.unit;
+
+import com.emobile.springtodo.cache.CacheGenerations;
+import com.emobile.springtodo.dto.request.TodoRequest;
+import com.emobile.springtodo.exception.OverloadedException;
+import com.emobile.springtodo.exception.ResourceNotFoundException;
+import com.emobile.springtodo.service.TodoService;
+import com.emobile.springtodo.service.TodoWriteBehindService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TodoWriteBehindServiceTest {
+
+    @TempDir
+    Path logDirectory;
+
+    @Mock
+    private TodoService todoService;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private CacheGenerations cacheGenerations;
+
+    @Mock
+    private PreparedStatement preparedStatement;
+
+    private ConcurrentMapCacheManager cacheManager;
+    private final List<List<Object[]>> flushedBatches = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new ConcurrentMapCacheManager(TodoService.TODO_CACHE);
+        lenient().when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(),
+                        any(ParameterizedPreparedStatementSetter.class)))
+                .thenAnswer(invocation -> {
+                    Collection<?> updates = invocation.getArgument(1);
+                    recordBatch(updates, invocation.getArgument(3));
+                    int[] counts = new int[updates.size()];
+                    Arrays.fill(counts, 1);
+                    return new int[][]{counts};
+                });
+    }
+
+    @Test
+    @DisplayName("submit - Should keep only the latest update per todo")
+    void submit_ShouldCoalesceUpdatesToSameTodo() throws IOException {
+        TodoWriteBehindService service = service(10);
+
+        service.submit(1L, new TodoRequest("first", null, true));
+        service.submit(1L, new TodoRequest("second", null, false));
+        service.submit(2L, new TodoRequest("other", "desc", true));
+        service.flush();
+
+        assertEquals(1, flushedBatches.size());
+        List<Object[]> rows = flushedBatches.get(0);
+        assertEquals(2, rows.size());
+        assertEquals("second", rows.get(0)[0]);
+        assertEquals(false, rows.get(0)[2]);
+        assertEquals(1L, rows.get(0)[4]);
+        assertEquals("other", rows.get(1)[0]);
+        verify(cacheGenerations, times(1)).bump(TodoService.TODOS_CACHE);
+        verify(todoService).publishUpdated(List.of(1L, 2L));
+    }
+
+    @Test
+    @DisplayName("flush - Should publish only the updates that matched a row")
+    void flush_ShouldNotPublishStaleUpdates() throws IOException {
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class)))
+                .thenReturn(new int[][]{{0, 1}});
+        TodoWriteBehindService service = service(10);
+
+        service.submit(1L, new TodoRequest("overwritten since", null, false));
+        service.submit(2L, new TodoRequest("applied", null, true));
+        service.flush();
+
+        verify(todoService).publishUpdated(List.of(2L));
+    }
+
+    @Test
+    @DisplayName("submit - Should reject unknown todos synchronously")
+    void submit_ShouldRejectUnknownTodo() throws IOException {
+        TodoWriteBehindService service = service(10);
+        when(todoService.findById(99L)).thenThrow(new ResourceNotFoundException("Todo not found with id: 99"));
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> service.submit(99L, new TodoRequest("title", null, false)));
+        service.flush();
+
+        assertTrue(flushedBatches.isEmpty());
+    }
+
+    @Test
+    @DisplayName("submit - Should reject new todos once the queue is full")
+    void submit_ShouldApplyBackpressureWhenFull() throws IOException {
+        TodoWriteBehindService service = service(1);
+        service.submit(1L, new TodoRequest("first", null, false));
+
+        assertThrows(OverloadedException.class,
+                () -> service.submit(2L, new TodoRequest("second", null, false)));
+        assertDoesNotThrow(() -> service.submit(1L, new TodoRequest("again", null, false)));
+
+        service.flush();
+        assertDoesNotThrow(() -> service.submit(2L, new TodoRequest("second", null, false)));
+    }
+
+    @Test
+    @DisplayName("flush - Should keep updates queued when the database write fails")
+    void flush_ShouldRetryFailedBatch() throws IOException {
+        TodoWriteBehindService service = service(10);
+        service.submit(1L, new TodoRequest("title", null, true));
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class)))
+                .thenThrow(new IllegalStateException("database down"))
+                .thenAnswer(invocation -> {
+                    recordBatch(invocation.getArgument(1), invocation.getArgument(3));
+                    return new int[][]{{1}};
+                });
+
+        service.flush();
+        service.flush();
+
+        assertEquals(1, flushedBatches.size());
+        assertEquals("title", flushedBatches.get(0).get(0)[0]);
+    }
+
+    @Test
+    @DisplayName("recover - Should replay acknowledged updates left by a crash")
+    void recover_ShouldReplayUnflushedUpdates() throws IOException {
+        TodoWriteBehindService crashed = service(10);
+        crashed.submit(1L, new TodoRequest("first", null, false));
+        crashed.submit(1L, new TodoRequest("latest", "kept", true));
+        // A record torn by the crash must not hide the acknowledged ones before it
+        try (Stream<Path> segments = Files.list(logDirectory)) {
+            Files.write(segments.findFirst().orElseThrow(), new byte[]{0, 0, 0, 42, 1, 2},
+                    StandardOpenOption.APPEND);
+        }
+
+        TodoWriteBehindService restarted = service(10);
+        restarted.flush();
+
+        assertEquals(1, flushedBatches.size());
+        Object[] row = flushedBatches.get(0).get(0);
+        assertEquals("latest", row[0]);
+        assertEquals("kept", row[1]);
+        assertEquals(true, row[2]);
+        try (Stream<Path> segments = Files.list(logDirectory)) {
+            assertEquals(1, segments.count());
+        }
+    }
+
+    @Test
+    @DisplayName("submit - Should update synchronously when write-behind is disabled")
+    void submit_ShouldDelegateWhenDisabled() throws IOException {
+        TodoWriteBehindService service = new TodoWriteBehindService(todoService, jdbcTemplate, transactionManager,
+                cacheManager, cacheGenerations, new SimpleMeterRegistry(), false, 10, Duration.ofMillis(10),
+                Duration.ofMillis(200), 500, logDirectory, false);
+        TodoRequest request = new TodoRequest("title", null, false);
+
+        service.submit(1L, request);
+
+        verify(todoService).update(1L, request);
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    private TodoWriteBehindService service(int capacity) throws IOException {
+        return new TodoWriteBehindService(todoService, jdbcTemplate, transactionManager, cacheManager,
+                cacheGenerations, new SimpleMeterRegistry(), true, capacity, Duration.ofMillis(10),
+                Duration.ofMillis(200), 500, logDirectory, false);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void recordBatch(Collection<?> updates, ParameterizedPreparedStatementSetter<Object> setter)
+            throws SQLException {
+        List<Object[]> rows = new ArrayList<>();
+        for (Object update : updates) {
+            reset(preparedStatement);
+            setter.setValues(preparedStatement, update);
+            ArgumentCaptor<String> strings = ArgumentCaptor.forClass(String.class);
+            ArgumentCaptor<Boolean> booleans = ArgumentCaptor.forClass(Boolean.class);
+            ArgumentCaptor<Long> longs = ArgumentCaptor.forClass(Long.class);
+            verify(preparedStatement, times(2)).setString(anyInt(), strings.capture());
+            verify(preparedStatement).setBoolean(eq(3), booleans.capture());
+            verify(preparedStatement).setLong(eq(5), longs.capture());
+            rows.add(new Object[]{strings.getAllValues().get(0), strings.getAllValues().get(1),
+                    booleans.getValue(), null, longs.getValue()});
+        }
+        flushedBatches.add(rows);
+    }
+}
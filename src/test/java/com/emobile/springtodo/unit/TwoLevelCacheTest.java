@@ -0,0 +1,415 @@
+package com.emobile.springtodo.unit;
+
+import com.emobile.springtodo.cache.CacheInvalidationMessage;
+import com.emobile.springtodo.cache.CacheInvalidationPublisher;
+import com.emobile.springtodo.cache.CacheLoadCoordinator;
+import com.emobile.springtodo.cache.RedisCacheBatch;
+import com.emobile.springtodo.cache.TwoLevelCache;
+import com.emobile.springtodo.cache.TwoLevelCacheManager;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisKeyCommands;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.AdditionalMatchers.aryEq;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TwoLevelCacheTest {
+
+    @Mock
+    private CacheInvalidationPublisher publisher;
+
+    @Mock
+    private CacheLoadCoordinator loadCoordinator;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    private ConcurrentMapCacheManager remoteCacheManager;
+    private SimpleMeterRegistry meterRegistry;
+    private TwoLevelCacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        remoteCacheManager = new ConcurrentMapCacheManager();
+        meterRegistry = new SimpleMeterRegistry();
+        cacheManager = new TwoLevelCacheManager(
+                remoteCacheManager, publisher, meterRegistry, 100, Duration.ofMinutes(1));
+    }
+
+    @Test
+    @DisplayName("get - Should serve repeated reads from the local tier")
+    void get_ShouldServeRepeatedReadsLocally() {
+        remoteCacheManager.getCache("todo").put(1L, "value");
+        Cache cache = cacheManager.getCache("todo");
+
+        assertEquals("value", cache.get(1L).get());
+        assertEquals("value", cache.get(1L).get());
+
+        assertEquals(1.0, tierCount("l1", "hit"));
+        assertEquals(1.0, tierCount("l1", "miss"));
+        assertEquals(1.0, tierCount("l2", "hit"));
+    }
+
+    @Test
+    @DisplayName("evict - Should clear both tiers and broadcast the key")
+    void evict_ShouldClearBothTiersAndBroadcast() {
+        Cache cache = cacheManager.getCache("todo");
+        cache.put(1L, "value");
+
+        cache.evict(1L);
+
+        assertNull(cache.get(1L));
+        assertNull(remoteCacheManager.getCache("todo").get(1L));
+        verify(publisher, times(2)).publishEvict("todo", "1");
+        assertEquals(1.0, tierCount("l2", "miss"));
+    }
+
+    @Test
+    @DisplayName("onMessage - Should drop the local copy when a peer evicts")
+    void onMessage_ShouldDropLocalCopyOnPeerEvict() {
+        Cache cache = cacheManager.getCache("todo");
+        cache.put(1L, "value");
+        remoteCacheManager.getCache("todo").evict(1L);
+        when(publisher.isOwn(any())).thenReturn(false);
+
+        cacheManager.onMessage(message(CacheInvalidationMessage.evict("peer", "todo", "1")), null);
+
+        assertNull(cache.get(1L));
+    }
+
+    @Test
+    @DisplayName("onMessage - Should ignore own broadcasts")
+    void onMessage_ShouldIgnoreOwnBroadcasts() {
+        Cache cache = cacheManager.getCache("todo");
+        cache.put(1L, "value");
+        remoteCacheManager.getCache("todo").evict(1L);
+        when(publisher.isOwn(any())).thenReturn(true);
+
+        cacheManager.onMessage(message(CacheInvalidationMessage.clear("self", "todo")), null);
+
+        assertEquals("value", cache.get(1L).get());
+    }
+
+    @Test
+    @DisplayName("get with loader - Should run one load for concurrent misses of the same key")
+    void getWithLoader_ShouldCoalesceConcurrentMisses() throws Exception {
+        Cache cache = cacheManager.getCache("todo");
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Callable<String> loader = () -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return "value";
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            results.add(executor.submit(() -> cache.get(1L, loader)));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            for (int i = 0; i < 7; i++) {
+                results.add(executor.submit(() -> cache.get(1L, loader)));
+            }
+            while (loadCount("coalesced") < 7) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+            for (Future<String> result : results) {
+                assertEquals("value", result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, loads.get());
+        assertEquals("value", remoteCacheManager.getCache("todo").get(1L).get());
+        verify(publisher, never()).publishEvict(any(), any());
+    }
+
+    @Test
+    @DisplayName("get with loader - Should hand the loader's failure to every waiting caller")
+    void getWithLoader_ShouldPropagateFailureToWaiters() throws Exception {
+        Cache cache = cacheManager.getCache("todo");
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Callable<String> loader = () -> {
+            loading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            throw new IllegalStateException("database down");
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> leader = executor.submit(() -> cache.get(1L, loader));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            Future<String> follower = executor.submit(() -> cache.get(1L, loader));
+            while (loadCount("coalesced") < 1) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            ExecutionException leaderFailure =
+                    assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS));
+            ExecutionException followerFailure =
+                    assertThrows(ExecutionException.class, () -> follower.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(Cache.ValueRetrievalException.class, leaderFailure.getCause());
+            assertSame(leaderFailure.getCause(), followerFailure.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        assertNull(cache.get(1L));
+    }
+
+    @Test
+    @DisplayName("get with loader - Should hand an Error from the loader to waiting callers too")
+    void getWithLoader_ShouldPropagateErrorToWaiters() throws Exception {
+        Cache cache = cacheManager.getCache("todo");
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Callable<String> loader = () -> {
+            loading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            throw new AssertionError("loader broke");
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> leader = executor.submit(() -> cache.get(1L, loader));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            Future<String> follower = executor.submit(() -> cache.get(1L, loader));
+            while (loadCount("coalesced") < 1) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            ExecutionException leaderFailure =
+                    assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS));
+            ExecutionException followerFailure =
+                    assertThrows(ExecutionException.class, () -> follower.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(AssertionError.class, leaderFailure.getCause());
+            assertSame(leaderFailure.getCause(), followerFailure.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("get with loader - Should wait for the node holding the lease instead of loading")
+    void getWithLoader_ShouldUsePeerLoadWhenLeaseHeld() throws Exception {
+        TwoLevelCacheManager coordinated = new TwoLevelCacheManager(remoteCacheManager, publisher, meterRegistry,
+                100, Duration.ofMinutes(1), loadCoordinator, Duration.ofSeconds(5), 0, null);
+        when(loadCoordinator.tryLock("todo", "1")).thenReturn(null);
+        Cache cache = coordinated.getCache("todo");
+
+        Thread peer = Thread.ofVirtual().start(() -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            remoteCacheManager.getCache("todo").put(1L, "from peer");
+        });
+        String value = cache.get(1L, () -> fail("Must not load while a peer holds the lease"));
+        peer.join();
+
+        assertEquals("from peer", value);
+        assertEquals(1.0, loadCount("peer"));
+    }
+
+    @Test
+    @DisplayName("get with loader - Should release the lease after loading")
+    void getWithLoader_ShouldReleaseLeaseAfterLoading() {
+        TwoLevelCacheManager coordinated = new TwoLevelCacheManager(remoteCacheManager, publisher, meterRegistry,
+                100, Duration.ofMinutes(1), loadCoordinator, Duration.ofSeconds(5), 0, null);
+        when(loadCoordinator.tryLock("todo", "1")).thenReturn("token");
+
+        assertEquals("value", coordinated.getCache("todo").get(1L, () -> "value"));
+
+        verify(loadCoordinator).unlock("todo", "1", "token");
+    }
+
+    @Test
+    @DisplayName("get with loader - Should refresh an entry whose shared copy is about to expire")
+    @SuppressWarnings("unchecked")
+    void getWithLoader_ShouldRefreshEarlyNearExpiry() throws Exception {
+        when(redisTemplate.executePipelined(any(RedisCallback.class), any(RedisSerializer.class)))
+                .thenReturn(Arrays.asList(null, -2L));
+        Cache cache = refreshingRedisCache((key, value) ->
+                "v1".equals(value) ? Duration.ofMillis(1) : Duration.ofMinutes(10)).getCache("todo");
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals("v1", cache.get(1L, () -> "v" + loads.incrementAndGet()));
+        Thread.sleep(5);
+        assertEquals("v2", cache.get(1L, () -> "v" + loads.incrementAndGet()));
+        assertEquals("v2", cache.get(1L, () -> "v" + loads.incrementAndGet()));
+
+        assertEquals(2, loads.get());
+        assertEquals(1.0, loadCount("early-refresh"));
+        // The expiry of written entries follows from the TTL; only the initial miss went to Redis
+        verify(redisTemplate, times(1)).executePipelined(any(RedisCallback.class), any(RedisSerializer.class));
+    }
+
+    @Test
+    @DisplayName("get with loader - Should take the expiry of a shared entry from the round trip that read it")
+    @SuppressWarnings("unchecked")
+    void getWithLoader_ShouldReadExpiryWithSharedEntry() throws Exception {
+        RedisConnection connection = mock(RedisConnection.class);
+        RedisStringCommands stringCommands = mock(RedisStringCommands.class);
+        RedisKeyCommands keyCommands = mock(RedisKeyCommands.class);
+        when(connection.stringCommands()).thenReturn(stringCommands);
+        when(connection.keyCommands()).thenReturn(keyCommands);
+        when(redisTemplate.executePipelined(any(RedisCallback.class), any(RedisSerializer.class)))
+                .thenAnswer(invocation -> {
+                    invocation.<RedisCallback<?>>getArgument(0).doInRedis(connection);
+                    return Arrays.asList(RedisSerializer.java().serialize("shared"), 1L);
+                });
+        Cache cache = refreshingRedisCache((key, value) -> Duration.ofMinutes(10)).getCache("todo");
+
+        assertEquals("shared", cache.get(1L, () -> fail("Must not load what the shared tier has")));
+        Thread.sleep(5);
+        assertEquals("fresh", cache.get(1L, () -> "fresh"));
+
+        verify(stringCommands).get(aryEq(bytes("todo::1")));
+        verify(keyCommands).pTtl(aryEq(bytes("todo::1")));
+        assertEquals(1.0, loadCount("early-refresh"));
+    }
+
+    @Test
+    @DisplayName("getAll - Should serve local hits locally and look up only the misses in the shared tier")
+    void getAll_ShouldReadLocalMissesFromSharedTier() {
+        TwoLevelCache cache = (TwoLevelCache) cacheManager.getCache("todo");
+        cache.put(1L, "one");
+        remoteCacheManager.getCache("todo").put(2L, "two");
+
+        Map<Object, Object> found = cache.getAll(List.of(1L, 2L, 3L));
+
+        assertEquals(Map.of(1L, "one", 2L, "two"), found);
+        assertEquals(1.0, tierCount("l1", "hit"));
+        assertEquals(1.0, tierCount("l2", "hit"));
+        assertEquals(1.0, tierCount("l2", "miss"));
+        assertEquals(Map.of(2L, "two"), cache.getAll(List.of(2L)));
+        assertEquals(2.0, tierCount("l1", "hit"));
+    }
+
+    @Test
+    @DisplayName("putAllIfAbsent - Should keep entries stored meanwhile and not broadcast the back-fill")
+    void putAllIfAbsent_ShouldKeepConcurrentWrites() {
+        TwoLevelCache cache = (TwoLevelCache) cacheManager.getCache("todo");
+        remoteCacheManager.getCache("todo").put(2L, "updated");
+
+        cache.putAllIfAbsent(Map.of(1L, "one", 2L, "stale"));
+
+        assertEquals("one", remoteCacheManager.getCache("todo").get(1L).get());
+        assertEquals(Map.of(1L, "one", 2L, "updated"), cache.getAll(List.of(1L, 2L)));
+        verify(publisher, never()).publishEvict(any(), any());
+    }
+
+    @Test
+    @DisplayName("getAll - Should fetch every local miss from Redis with one MGET and back-fill with one pipeline")
+    @SuppressWarnings("unchecked")
+    void getAll_ShouldUseOneRoundTripAgainstRedis() {
+        RedisConnection connection = mock(RedisConnection.class);
+        RedisStringCommands stringCommands = mock(RedisStringCommands.class);
+        when(connection.stringCommands()).thenReturn(stringCommands);
+        when(stringCommands.mGet(any(byte[][].class)))
+                .thenReturn(Arrays.asList(RedisSerializer.java().serialize("one"), null));
+        when(redisTemplate.execute(any(RedisCallback.class)))
+                .thenAnswer(invocation -> invocation.<RedisCallback<?>>getArgument(0).doInRedis(connection));
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenAnswer(invocation -> {
+            invocation.<RedisCallback<?>>getArgument(0).doInRedis(connection);
+            return List.of(true);
+        });
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(mock(RedisConnectionFactory.class))
+                .cacheDefaults(RedisCacheConfiguration.defaultCacheConfig().entryTtl(Duration.ofMinutes(10)))
+                .build();
+        TwoLevelCache cache = (TwoLevelCache) new TwoLevelCacheManager(redisCacheManager, publisher, meterRegistry,
+                100, Duration.ofMinutes(1), null, Duration.ZERO, 0, new RedisCacheBatch(redisTemplate))
+                .getCache("todo");
+
+        assertEquals(Map.of(1L, "one"), cache.getAll(List.of(1L, 2L)));
+        cache.putAllIfAbsent(Map.of(2L, "two"));
+
+        verify(stringCommands).mGet(aryEq(bytes("todo::1")), aryEq(bytes("todo::2")));
+        verify(stringCommands).set(aryEq(bytes("todo::2")), any(byte[].class),
+                eq(Expiration.from(Duration.ofMinutes(10))), eq(RedisStringCommands.SetOption.ifAbsent()));
+        assertEquals(Map.of(1L, "one", 2L, "two"), cache.getAll(List.of(1L, 2L)));
+        verify(redisTemplate, times(1)).execute(any(RedisCallback.class));
+    }
+
+    private TwoLevelCacheManager refreshingRedisCache(RedisCacheWriter.TtlFunction ttl) {
+        RedisConnectionFactory connectionFactory = mock(RedisConnectionFactory.class);
+        RedisConnection writeConnection = mock(RedisConnection.class);
+        when(connectionFactory.getConnection()).thenReturn(writeConnection);
+        lenient().when(writeConnection.stringCommands()).thenReturn(mock(RedisStringCommands.class));
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory)
+                .cacheDefaults(RedisCacheConfiguration.defaultCacheConfig().entryTtl(ttl))
+                .build();
+        return new TwoLevelCacheManager(redisCacheManager, publisher, meterRegistry, 100, Duration.ofMinutes(1),
+                loadCoordinator, Duration.ZERO, 1.0, new RedisCacheBatch(redisTemplate));
+    }
+
+    private double tierCount(String tier, String result) {
+        return meterRegistry.get("cache.tier.gets")
+                .tag("cache", "todo")
+                .tag("tier", tier)
+                .tag("result", result)
+                .counter()
+                .count();
+    }
+
+    private double loadCount(String outcome) {
+        return meterRegistry.get("cache.loads")
+                .tag("cache", "todo")
+                .tag("outcome", outcome)
+                .counter()
+                .count();
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static DefaultMessage message(CacheInvalidationMessage invalidation) {
+        return new DefaultMessage(
+                "channel".getBytes(StandardCharsets.UTF_8),
+                invalidation.encode().getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,22 +1,55 @@
 package com.emobile.springtodo.web;
 
+import com.emobile.springtodo.cache.ResponseBodyCache;
+import com.emobile.springtodo.controller.TodoController;
 import com.emobile.springtodo.controller.TodoControllerImpl;
+import com.emobile.springtodo.dto.request.TodoBatchUpdateRequest;
 import com.emobile.springtodo.dto.request.TodoRequest;
+import com.emobile.springtodo.dto.response.TodoImportResponse;
+import com.emobile.springtodo.dto.response.TodoMultiGetResponse;
 import com.emobile.springtodo.dto.response.TodoResponse;
+import com.emobile.springtodo.dto.response.TodoSliceResponse;
+import com.emobile.springtodo.dto.response.TodoStatsResponse;
+import com.emobile.springtodo.exception.BadRequestException;
+import com.emobile.springtodo.exception.OverloadedException;
 import com.emobile.springtodo.exception.ResourceNotFoundException;
+import com.emobile.springtodo.repository.TodoFilter;
+import com.emobile.springtodo.repository.TodoSortField;
+import com.emobile.springtodo.service.ExportFormat;
+import com.emobile.springtodo.service.TodoChangeFeed;
+import com.emobile.springtodo.service.TodoExportService;
+import com.emobile.springtodo.service.TodoImportService;
 import com.emobile.springtodo.service.TodoService;
+import com.emobile.springtodo.service.TodoStatsService;
+import com.emobile.springtodo.service.TodoWriteBehindService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
 
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -32,12 +65,30 @@ class TodoControllerWebMvcTest {
     @MockBean
     private TodoService todoService;
 
+    @MockBean
+    private TodoExportService todoExportService;
+
+    @MockBean
+    private TodoImportService todoImportService;
+
+    @MockBean
+    private TodoStatsService todoStatsService;
+
+    @MockBean
+    private ResponseBodyCache responseBodyCache;
+
+    @MockBean
+    private TodoWriteBehindService todoWriteBehindService;
+
+    @MockBean
+    private TodoChangeFeed todoChangeFeed;
+
     private final TodoResponse testResponse = new TodoResponse(
             1L, "Test Todo", "Test Description", false, null, null);
 
     @Test
     void getAllTodos_ShouldReturnTodosList() throws Exception {
-        given(todoService.findAll(anyInt(), anyInt()))
+        given(todoService.findAll(anyInt(), anyInt(), eq(TodoFilter.NONE)))
                 .willReturn(List.of(testResponse));
 
         mockMvc.perform(get("/api/todos"))
@@ -45,6 +96,155 @@ class TodoControllerWebMvcTest {
                 .andExpect(jsonPath("$[0].title").value("Test Todo"));
     }
 
+    @Test
+    void getAllTodos_ShouldPassFilterAndSort() throws Exception {
+        TodoFilter filter = new TodoFilter(false, LocalDateTime.of(2025, 1, 1, 0, 0), null, null, null,
+                TodoSortField.UPDATED_AT, Sort.Direction.DESC, true);
+        given(todoService.findAll(10, 0, filter)).willReturn(List.of(testResponse));
+
+        mockMvc.perform(get("/api/todos")
+                        .param("completed", "false")
+                        .param("createdFrom", "2025-01-01T00:00:00")
+                        .param("sort", "updatedAt")
+                        .param("direction", "desc")
+                        .param("includeArchived", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].title").value("Test Todo"));
+    }
+
+    @Test
+    void getAllTodos_ShouldReturnBadRequestForUnknownSortField() throws Exception {
+        mockMvc.perform(get("/api/todos").param("sort", "description"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getAllTodos_ShouldReturnBadRequestForEmptyRange() throws Exception {
+        mockMvc.perform(get("/api/todos")
+                        .param("createdFrom", "2025-01-02T00:00:00")
+                        .param("createdTo", "2025-01-01T00:00:00"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getTodosAfter_ShouldReturnSliceWithCursor() throws Exception {
+        given(todoService.findSlice(anyInt(), eq("")))
+                .willReturn(new TodoSliceResponse(List.of(testResponse), "next", true));
+
+        mockMvc.perform(get("/api/todos").param("after", ""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].title").value("Test Todo"))
+                .andExpect(jsonPath("$.nextCursor").value("next"))
+                .andExpect(jsonPath("$.hasNext").value(true));
+    }
+
+    @Test
+    void getTodosAfter_ShouldReturnBadRequestWhenCursorInvalid() throws Exception {
+        given(todoService.findSlice(anyInt(), anyString()))
+                .willThrow(new BadRequestException("Invalid cursor: broken"));
+
+        mockMvc.perform(get("/api/todos").param("after", "broken"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getTodosAfter_ShouldReturnBadRequestWhenFilterGiven() throws Exception {
+        mockMvc.perform(get("/api/todos").param("after", "").param("completed", "true").param("sort", "title"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(startsWith(
+                        "Cursor pagination does not support completed, sort")));
+        verify(todoService, never()).findSlice(anyInt(), any());
+    }
+
+    @Test
+    void getTodosByIds_ShouldReturnFoundTodosAndMissingIds() throws Exception {
+        given(todoService.findAllById(List.of(1L, 42L)))
+                .willReturn(new TodoMultiGetResponse(List.of(testResponse), List.of(42L)));
+
+        mockMvc.perform(get("/api/todos").param("ids", "1,42"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.todos[0].title").value("Test Todo"))
+                .andExpect(jsonPath("$.missingIds[0]").value(42));
+    }
+
+    @Test
+    void getTodosByIds_ShouldReturnBadRequestWhenTooManyIds() throws Exception {
+        String ids = String.join(",", Collections.nCopies(TodoController.MAX_MULTI_GET_SIZE + 1, "1"));
+
+        mockMvc.perform(get("/api/todos").param("ids", ids))
+                .andExpect(status().isBadRequest());
+        verify(todoService, never()).findAllById(any());
+    }
+
+    @Test
+    void searchTodos_ShouldReturnRankedSlice() throws Exception {
+        given(todoService.search("milk or bread", 5, null))
+                .willReturn(new TodoSliceResponse(List.of(testResponse), "next", true));
+
+        mockMvc.perform(get("/api/todos/search").param("q", "milk or bread").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].title").value("Test Todo"))
+                .andExpect(jsonPath("$.nextCursor").value("next"));
+    }
+
+    @Test
+    void searchTodos_ShouldReturnBadRequestWhenQueryMissing() throws Exception {
+        mockMvc.perform(get("/api/todos/search"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getTodoById_ShouldReturnETagAndLastModified() throws Exception {
+        given(todoService.findById(1L)).willReturn(new TodoResponse(
+                1L, "Test Todo", null, false, "2025-01-01T00:00", "2025-01-02T10:15:30.123456"));
+
+        mockMvc.perform(get("/api/todos/{id}", 1L))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1-2025-01-02T10:15:30.123456\""))
+                .andExpect(header().exists("Last-Modified"));
+    }
+
+    @Test
+    void getTodoById_ShouldReturnNotModifiedWhenETagMatches() throws Exception {
+        given(todoService.findById(1L)).willReturn(new TodoResponse(
+                1L, "Test Todo", null, false, "2025-01-01T00:00", "2025-01-02T10:15:30.123456"));
+
+        mockMvc.perform(get("/api/todos/{id}", 1L).header("If-None-Match", "\"1-2025-01-02T10:15:30.123456\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void getAllTodos_ShouldReturnNotModifiedWithoutLoadingPageWhenVersionUnchanged() throws Exception {
+        given(todoService.listVersion()).willReturn(7L);
+
+        mockMvc.perform(get("/api/todos").header("If-None-Match", "\"todos-7\""))
+                .andExpect(status().isNotModified());
+
+        verify(todoService, never()).findAll(anyInt(), anyInt(), any());
+    }
+
+    @Test
+    void getAllTodos_ShouldReturnPageWithNewETagAfterWrite() throws Exception {
+        given(todoService.listVersion()).willReturn(8L);
+        given(todoService.findAll(anyInt(), anyInt(), any())).willReturn(List.of(testResponse));
+
+        mockMvc.perform(get("/api/todos").header("If-None-Match", "\"todos-7\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"todos-8\""));
+    }
+
+    @Test
+    void getStats_ShouldReturnCounters() throws Exception {
+        given(todoStatsService.getStats()).willReturn(new TodoStatsResponse(10, 4, 6, 2));
+
+        mockMvc.perform(get("/api/todos/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(10))
+                .andExpect(jsonPath("$.open").value(6))
+                .andExpect(jsonPath("$.createdToday").value(2));
+    }
+
     @Test
     void getTodoById_ShouldReturnTodoWhenExists() throws Exception {
         given(todoService.findById(anyLong()))
@@ -79,6 +279,31 @@ class TodoControllerWebMvcTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void updateTodoDeferred_ShouldReturnAccepted() throws Exception {
+        TodoRequest request = new TodoRequest("Updated Todo", null, true);
+
+        mockMvc.perform(put("/api/todos/{id}/deferred", 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isAccepted());
+
+        verify(todoWriteBehindService).submit(eq(1L), any(TodoRequest.class));
+    }
+
+    @Test
+    void updateTodoDeferred_ShouldReturnServiceUnavailableWhenQueueFull() throws Exception {
+        TodoRequest request = new TodoRequest("Updated Todo", null, true);
+        willThrow(new OverloadedException("Write-behind queue is full", Duration.ofMillis(200)))
+                .given(todoWriteBehindService).submit(anyLong(), any(TodoRequest.class));
+
+        mockMvc.perform(put("/api/todos/{id}/deferred", 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+    }
+
     @Test
     void deleteTodo_ShouldReturnNoContent() throws Exception {
         mockMvc.perform(delete("/api/todos/{id}", 1L))
@@ -95,6 +320,165 @@ class TodoControllerWebMvcTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    void createTodos_ShouldReturnCreatedTodos() throws Exception {
+        List<TodoRequest> requests = List.of(
+                new TodoRequest("First", null, false),
+                new TodoRequest("Second", null, true));
+        given(todoService.createAll(anyList()))
+                .willReturn(List.of(testResponse, testResponse));
+
+        mockMvc.perform(post("/api/todos/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requests)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.length()").value(2));
+    }
+
+    @Test
+    void createTodos_ShouldReturnBadRequestWhenAnyItemInvalid() throws Exception {
+        List<TodoRequest> requests = List.of(
+                new TodoRequest("Valid", null, false),
+                new TodoRequest("", null, false));
+
+        mockMvc.perform(post("/api/todos/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requests)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void updateTodos_ShouldReturnNotFoundWhenAnyTodoMissing() throws Exception {
+        List<TodoBatchUpdateRequest> requests = List.of(
+                new TodoBatchUpdateRequest(999L, "Updated", null, true));
+        given(todoService.updateAll(anyList()))
+                .willThrow(new ResourceNotFoundException("Todos not found with ids: [999]"));
+
+        mockMvc.perform(put("/api/todos/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requests)))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void deleteTodos_ShouldReturnNoContent() throws Exception {
+        mockMvc.perform(delete("/api/todos/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[1, 2, 3]"))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    void exportTodos_ShouldStreamNdjson() throws Exception {
+        given(todoExportService.export(eq(ExportFormat.NDJSON), any(OutputStream.class)))
+                .willAnswer(invocation -> {
+                    OutputStream out = invocation.getArgument(1);
+                    out.write("{\"id\":1}\n".getBytes(StandardCharsets.UTF_8));
+                    return 1L;
+                });
+
+        MvcResult result = mockMvc.perform(get("/api/todos/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", startsWith("application/x-ndjson")))
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(content().string("{\"id\":1}\n"));
+    }
+
+    @Test
+    void exportTodos_ShouldGzipWhenAccepted() throws Exception {
+        given(todoExportService.export(eq(ExportFormat.CSV), any(OutputStream.class)))
+                .willAnswer(invocation -> {
+                    OutputStream out = invocation.getArgument(1);
+                    out.write("id\n".getBytes(StandardCharsets.UTF_8));
+                    return 0L;
+                });
+
+        MvcResult result = mockMvc.perform(get("/api/todos/export")
+                        .param("format", "csv")
+                        .header("Accept-Encoding", "gzip, deflate"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        byte[] body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            assertEquals("id\n", new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void exportTodos_ShouldNotGzipWhenRefused() throws Exception {
+        given(todoExportService.export(eq(ExportFormat.CSV), any(OutputStream.class)))
+                .willAnswer(invocation -> {
+                    OutputStream out = invocation.getArgument(1);
+                    out.write("id\n".getBytes(StandardCharsets.UTF_8));
+                    return 0L;
+                });
+
+        MvcResult result = mockMvc.perform(get("/api/todos/export")
+                        .param("format", "csv")
+                        .header("Accept-Encoding", "gzip;q=0, identity"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(content().string("id\n"));
+    }
+
+    @Test
+    void exportTodos_ShouldReturnServiceUnavailableWhenShed() throws Exception {
+        given(todoExportService.export(eq(ExportFormat.CSV), any(OutputStream.class)))
+                .willThrow(new OverloadedException("Too many concurrent database requests", Duration.ofSeconds(1)));
+
+        MvcResult result = mockMvc.perform(get("/api/todos/export")
+                        .param("format", "csv")
+                        .header("Accept-Encoding", "gzip"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(header().doesNotExist("Content-Disposition"))
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    void exportTodos_ShouldReturnBadRequestForUnknownFormat() throws Exception {
+        mockMvc.perform(get("/api/todos/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void importTodos_ShouldReturnImportReport() throws Exception {
+        given(todoImportService.importTodos(eq(ExportFormat.CSV), any(InputStream.class)))
+                .willReturn(new TodoImportResponse(1, 0, List.of()));
+
+        mockMvc.perform(post("/api/todos/import")
+                        .contentType("text/csv")
+                        .content("title\nBuy milk\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.rejected").value(0));
+    }
+
+    @Test
+    void importTodos_ShouldRejectUnsupportedContentType() throws Exception {
+        mockMvc.perform(post("/api/todos/import")
+                        .contentType(MediaType.APPLICATION_XML)
+                        .content("<todos/>"))
+                .andExpect(status().isUnsupportedMediaType());
+    }
+
     @Test
     void getTodoById_ShouldReturnNotFound() throws Exception {
         given(todoService.findById(anyLong()))